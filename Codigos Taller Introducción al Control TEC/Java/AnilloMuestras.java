@@ -0,0 +1,91 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+public class AnilloMuestras {
+    // Anillo sin bloqueos para un solo productor (hilo de simulación) y un solo consumidor
+    // (hilo de la interfaz). Cada muestra es una fila de 'ancho' doubles guardada en un
+    // arreglo plano; la memoria queda acotada por la capacidad del anillo
+    private final double[] datos;
+    private final int ancho;
+    private final int mascara;
+    
+    // Contadores monótonos de filas escritas y leídas: cada uno lo modifica un solo hilo
+    private final AtomicLong escritas = new AtomicLong();
+    private final AtomicLong leidas = new AtomicLong();
+    private volatile boolean cerrado = false;
+    
+    // Copias locales del contador del otro hilo (evitan leer memoria compartida en cada fila)
+    private long leidasVistas = 0;      // solo productor
+    private long escritasVistas = 0;    // solo consumidor
+    private final double[] fila;        // solo consumidor
+    
+    public AnilloMuestras(int capacidad, int ancho) {
+        // Capacidad redondeada a potencia de 2 para indexar con una máscara
+        int c = Integer.highestOneBit(Math.max(1, capacidad - 1)) << 1;
+        this.datos = new double[c * ancho];
+        this.ancho = ancho;
+        this.mascara = c - 1;
+        this.fila = new double[ancho];
+    }
+    
+    public int getCapacidad() {
+        return mascara + 1;
+    }
+    
+    // Productor: agrega una fila si hay espacio (no bloquea)
+    public boolean ofrecer(double[] valores) {
+        long w = escritas.get();
+        if (w - leidasVistas > mascara) {
+            leidasVistas = leidas.get();
+            if (w - leidasVistas > mascara) {
+                return false;
+            }
+        }
+        System.arraycopy(valores, 0, datos, (int)(w & mascara) * ancho, ancho);
+        // La escritura diferida publica la fila después de copiar sus valores
+        escritas.lazySet(w + 1);
+        return true;
+    }
+    
+    // Productor: agrega una fila esperando a que el consumidor libere espacio si el anillo está lleno
+    public void publicar(double[] valores) {
+        int intentos = 0;
+        while (!ofrecer(valores)) {
+            // Primero se cede el procesador; si el consumidor sigue sin leer, se duerme un momento
+            if (++intentos < 100) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+    }
+    
+    // Productor: no se publicarán más filas
+    public void cerrar() {
+        cerrado = true;
+    }
+    
+    // Consumidor: entrega al destino todas las filas disponibles y devuelve cuántas fueron.
+    // El arreglo entregado se reutiliza: el destino debe copiar los valores que necesite
+    public int drenar(Consumer<double[]> destino) {
+        long r = leidas.get();
+        if (r == escritasVistas) {
+            escritasVistas = escritas.get();
+        }
+        int n = (int)(escritasVistas - r);
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(datos, (int)((r + i) & mascara) * ancho, fila, 0, ancho);
+            destino.accept(fila);
+        }
+        if (n > 0) {
+            leidas.lazySet(r + n);
+        }
+        return n;
+    }
+    
+    // Consumidor: el productor cerró el anillo y ya se leyeron todas sus filas
+    public boolean terminado() {
+        return cerrado && leidas.get() == escritas.get();
+    }
+}
\ No newline at end of file
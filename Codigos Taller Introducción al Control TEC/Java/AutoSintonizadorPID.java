@@ -0,0 +1,462 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+public class AutoSintonizadorPID {
+    // Búsqueda de Kp, Ki, Kd sin derivadas por enjambre de partículas (PSO): minimiza el tiempo de
+    // establecimiento o el ISE, encarecido por el ruido que el PID pasa al actuador, con
+    // sobrepico <= ε, error final acotado (exige acción integral) y un tiempo máximo saturado.
+    // Cada iteración evalúa todo el enjambre en paralelo: las partículas se reparten en bloques y
+    // cada bloque es un SimuladorLotePID con una partícula por carril. La evaluación de una
+    // partícula no depende del bloque en que cae, y el generador se usa solo en el hilo que
+    // coordina: con la misma semilla el resultado es el mismo con cualquier número de hilos
+    public enum Objetivo { TIEMPO_ESTABLECIMIENTO, ISE }
+    
+    // Partículas simuladas por cada tarea hoja del fork-join
+    private static final int TAM_HOJA = 16;
+    
+    // Coeficientes de Clerc-Kennedy (inercia y aceleraciones cognitiva/social)
+    private static final double INERCIA = 0.7298;
+    private static final double C_PERSONAL = 1.4962;
+    private static final double C_GLOBAL = 1.4962;
+    // Velocidad máxima por dimensión, como fracción del rango de búsqueda
+    private static final double VELOCIDAD_MAXIMA = 0.2;
+    // Cualquier solución factible es mejor que cualquier infactible
+    private static final double PENALIZACION = 1e9;
+    // Métricas por partícula: ise, tEstablecimiento, sobrepico, tSaturacion, errorFinal y esfuerzo
+    // (desvío de u por el ruido del sensor, como fracción del rango del actuador)
+    private static final int METRICAS = 6;
+    // Caja por defecto: ganancias que llevan el lazo cerrado a un polo triple en -ω, con ω tres
+    // veces 1/τ y nunca más de una décima de la frecuencia de muestreo (más rápido el PID discreto
+    // deja de parecerse al continuo). Si el óptimo la desborda, se amplía
+    private static final double VECES_PLANTA = 3.0;
+    private static final double FRACCION_MUESTREO = 0.1;
+    // Una ganancia a menos de esta fracción del rango de un borde se informa como en el límite
+    private static final double TOLERANCIA_LIMITE = 1e-3;
+    // Si el óptimo toca un máximo de la caja por defecto, ese máximo se multiplica por el factor y
+    // se vuelve a buscar desde el mejor punto, a lo sumo este número de veces
+    private static final int MAX_AMPLIACIONES = 3;
+    private static final double FACTOR_AMPLIACION = 2.0;
+    
+    // Planta, actuador y simulación
+    private final int tipo;
+    private final double K, tau, zeta;
+    private final double dt, tSim, tAmb, yInicial, referencia;
+    private final double uMin, uMax;
+    
+    // Restricciones y espacio de búsqueda [Kp, Ki, Kd]
+    private Objetivo objetivo = Objetivo.TIEMPO_ESTABLECIMIENTO;
+    private double sobrepicoMaximo = 0.05;
+    private double saturacionMaxima = 2.0;
+    private double errorFinalMaximo = 0.01;
+    private double ruidoMedicion = 0.05;
+    private double pesoEsfuerzo = 1.0;
+    private double[] minimos = {0.0, 0.0, 0.0};
+    private double[] maximos;
+    private boolean limitesExplicitos = false;
+    private int particulas = 32;
+    private int iteraciones = 60;
+    private int iteracionesSinMejora = 15;
+    private long semilla = 1L;
+    
+    // Mejor solución encontrada y sus métricas
+    public static class Resultado {
+        final double kp, ki, kd;
+        final double ise, tEstablecimiento, sobrepico, tSaturacion;
+        final double errorFinal, esfuerzo;
+        final boolean factible;
+        final int evaluaciones, iteraciones, ampliaciones;
+        // [Kp, Ki, Kd] sobre el máximo de la caja o sobre un mínimo positivo: ahí manda la caja, no
+        // las restricciones. Un mínimo en cero no cuenta: esa ganancia simplemente no se usa
+        final boolean[] enMinimo, enMaximo;
+        
+        Resultado(double kp, double ki, double kd, double[] metricas, boolean factible,
+                  int evaluaciones, int iteraciones, int ampliaciones, boolean[] enMinimo, boolean[] enMaximo) {
+            this.kp = kp;
+            this.ki = ki;
+            this.kd = kd;
+            this.ise = metricas[0];
+            this.tEstablecimiento = metricas[1];
+            this.sobrepico = metricas[2];
+            this.tSaturacion = metricas[3];
+            this.errorFinal = metricas[4];
+            this.esfuerzo = metricas[5];
+            this.factible = factible;
+            this.evaluaciones = evaluaciones;
+            this.iteraciones = iteraciones;
+            this.ampliaciones = ampliaciones;
+            this.enMinimo = enMinimo;
+            this.enMaximo = enMaximo;
+        }
+        
+        public boolean enLimite() {
+            for (int d = 0; d < 3; d++) {
+                if (enMinimo[d] || enMaximo[d]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        // Solo una solución factible y lejos de los bordes es una sintonía: en otro caso la búsqueda
+        // no convergió a un óptimo de las restricciones
+        public boolean convergida() {
+            return factible && !enLimite();
+        }
+        
+        // Por ejemplo "Kp en el máximo, Ki en el mínimo"; vacío si ninguna ganancia toca la caja
+        public String limitesActivos() {
+            String[] nombres = {"Kp", "Ki", "Kd"};
+            StringBuilder sb = new StringBuilder();
+            for (int d = 0; d < 3; d++) {
+                if (enMinimo[d] || enMaximo[d]) {
+                    sb.append(sb.length() > 0 ? ", " : "").append(nombres[d])
+                      .append(enMaximo[d] ? " en el máximo" : " en el mínimo");
+                }
+            }
+            return sb.toString();
+        }
+    }
+    
+    public AutoSintonizadorPID(int tipo, double K, double tau, double zeta, double dt, double tSim,
+                               double tAmb, double yInicial, double referencia,
+                               double uMin, double uMax) {
+        this.tipo = tipo;
+        this.K = K;
+        this.tau = tau;
+        this.zeta = zeta;
+        this.dt = dt;
+        this.tSim = tSim;
+        this.tAmb = tAmb;
+        this.yInicial = yInicial;
+        this.referencia = referencia;
+        this.uMin = uMin;
+        this.uMax = uMax;
+        this.maximos = limitesPorPlanta(K, tau, zeta, dt);
+    }
+    
+    // τ²s³ + (2ζτ + KKd)s² + (1 + KKp)s + KKi = τ²(s + ω)³
+    static double[] limitesPorPlanta(double K, double tau, double zeta, double dt) {
+        double w = Math.min(VECES_PLANTA / tau, FRACCION_MUESTREO / dt);
+        double tau2 = tau * tau;
+        double k = Math.abs(K);
+        return new double[]{
+            Math.max((3 * w * w * tau2 - 1) / k, 0),
+            w * w * w * tau2 / k,
+            Math.max((3 * w * tau2 - 2 * zeta * tau) / k, 0)
+        };
+    }
+    
+    public void setObjetivo(Objetivo objetivo) {
+        this.objetivo = objetivo;
+    }
+    
+    // Sobrepico máximo admitido (misma unidad que la salida)
+    public void setSobrepicoMaximo(double sobrepicoMaximo) {
+        this.sobrepicoMaximo = sobrepicoMaximo;
+    }
+    
+    // Tiempo máximo admitido con el actuador en uMin o uMax (s)
+    public void setSaturacionMaxima(double saturacionMaxima) {
+        this.saturacionMaxima = saturacionMaxima;
+    }
+    
+    // |referencia - y| admitido al final de la simulación: sin acción integral no se cumple
+    public void setErrorFinalMaximo(double errorFinalMaximo) {
+        this.errorFinalMaximo = errorFinalMaximo;
+    }
+    
+    // Desvío del ruido del sensor (misma unidad que la salida) y peso del esfuerzo: el costo se
+    // multiplica por (1 + peso * desvío de u causado por ese ruido / (uMax - uMin)). Sin este
+    // término, en la simulación sin ruido ganancias cada vez mayores siempre parecen mejores
+    public void setEsfuerzo(double ruidoMedicion, double pesoEsfuerzo) {
+        if (!(ruidoMedicion >= 0 && pesoEsfuerzo >= 0)) {
+            throw new IllegalArgumentException("Ruido y peso del esfuerzo no pueden ser negativos");
+        }
+        this.ruidoMedicion = ruidoMedicion;
+        this.pesoEsfuerzo = pesoEsfuerzo;
+    }
+    
+    // Raíz de la suma de cuadrados de la respuesta al impulso de la medición a u (desvío de u por
+    // unidad de ruido blanco). La integral aporta del orden de Ki*dt y se desprecia
+    static double gananciaRuido(int tipo, double kp, double kd, double dt) {
+        if (tipo == SimuladorLotePID.PID_MEDICION_FILTRADA) {
+            // d[k] = 0.8 d[k-1] + 0.2 (y[k] - y[k-1]) / dt: h0 = Kp + 0.2 Kd/dt, luego
+            // Kd * 0.04/dt * 0.8^(k-1) con suma de cuadrados (Kd * 0.04/dt)^2 / (1 - 0.64)
+            double h0 = kp + 0.2 * kd / dt;
+            double h1 = 0.04 * kd / dt;
+            return Math.sqrt(h0 * h0 + h1 * h1 / 0.36);
+        }
+        // Derivada del error sin filtrar: h0 = Kp + Kd/dt, h1 = -Kd/dt
+        double h0 = kp + kd / dt;
+        double h1 = kd / dt;
+        return Math.sqrt(h0 * h0 + h1 * h1);
+    }
+    
+    // Reemplaza la caja derivada de la planta y del período de muestreo. Una caja explícita no se
+    // amplía: si el óptimo queda en su borde, el resultado se informa como no convergido
+    public void setLimites(double kpMin, double kpMax, double kiMin, double kiMax, double kdMin, double kdMax) {
+        if (!(kpMin <= kpMax && kiMin <= kiMax && kdMin <= kdMax)) {
+            throw new IllegalArgumentException("Cada mínimo debe ser menor o igual que su máximo");
+        }
+        this.minimos = new double[]{kpMin, kiMin, kdMin};
+        this.maximos = new double[]{kpMax, kiMax, kdMax};
+        this.limitesExplicitos = true;
+    }
+    
+    public void setEnjambre(int particulas, int iteraciones) {
+        if (particulas < 2 || iteraciones < 1) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 partículas y 1 iteración");
+        }
+        this.particulas = particulas;
+        this.iteraciones = iteraciones;
+    }
+    
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+    }
+    
+    public Resultado sintonizar() {
+        return sintonizar(ForkJoinPool.commonPool());
+    }
+    
+    // Busca en la caja y, si el óptimo queda sobre un máximo de la caja por defecto, amplía ese
+    // máximo y busca de nuevo con el mejor punto como partícula inicial
+    public Resultado sintonizar(ForkJoinPool pool) {
+        double[] min = minimos.clone();
+        double[] max = maximos.clone();
+        double[] inicial = null;
+        int evaluaciones = 0;
+        int ampliaciones = 0;
+        while (true) {
+            Resultado r = buscar(pool, min, max, inicial);
+            evaluaciones += r.evaluaciones;
+            boolean ampliar = false;
+            if (!limitesExplicitos && ampliaciones < MAX_AMPLIACIONES) {
+                for (int d = 0; d < 3; d++) {
+                    if (r.enMaximo[d]) {
+                        max[d] = min[d] + FACTOR_AMPLIACION * (max[d] - min[d]);
+                        ampliar = true;
+                    }
+                }
+            }
+            if (!ampliar) {
+                return new Resultado(r.kp, r.ki, r.kd, new double[]{r.ise, r.tEstablecimiento, r.sobrepico,
+                        r.tSaturacion, r.errorFinal, r.esfuerzo}, r.factible, evaluaciones, r.iteraciones,
+                        ampliaciones, r.enMinimo, r.enMaximo);
+            }
+            ampliaciones++;
+            inicial = new double[]{r.kp, r.ki, r.kd};
+        }
+    }
+    
+    // Una búsqueda PSO en la caja [min, max]; con inicial != null la primera partícula arranca ahí
+    private Resultado buscar(ForkJoinPool pool, double[] minimos, double[] maximos, double[] inicial) {
+        int n = particulas;
+        SplittableRandom rng = new SplittableRandom(semilla);
+        
+        // Posiciones, velocidades y mejores posiciones, en arreglos planos [Kp, Ki, Kd] por partícula
+        double[] x = new double[3 * n];
+        double[] v = new double[3 * n];
+        double[] mejorX = new double[3 * n];
+        double[] mejorCosto = new double[n];
+        double[] costo = new double[n];
+        double[][] metricas = new double[METRICAS][n];
+        double[][] mejoresMetricas = new double[METRICAS][n];
+        
+        for (int p = 0; p < n; p++) {
+            for (int d = 0; d < 3; d++) {
+                double rango = maximos[d] - minimos[d];
+                x[3 * p + d] = minimos[d] + rango * rng.nextDouble();
+                v[3 * p + d] = VELOCIDAD_MAXIMA * rango * (2 * rng.nextDouble() - 1);
+            }
+        }
+        if (inicial != null) {
+            System.arraycopy(inicial, 0, x, 0, 3);
+        }
+        
+        pool.invoke(new TareaEvaluacion(x, costo, metricas, 0, n));
+        int evaluaciones = n;
+        int global = 0;
+        for (int p = 0; p < n; p++) {
+            System.arraycopy(x, 3 * p, mejorX, 3 * p, 3);
+            mejorCosto[p] = costo[p];
+            copiarMetricas(metricas, mejoresMetricas, p);
+            if (costo[p] < costo[global]) {
+                global = p;
+            }
+        }
+        
+        int iteracion = 0;
+        int sinMejora = 0;
+        while (iteracion < iteraciones && sinMejora < iteracionesSinMejora) {
+            iteracion++;
+            for (int p = 0; p < n; p++) {
+                for (int d = 0; d < 3; d++) {
+                    int j = 3 * p + d;
+                    double rango = maximos[d] - minimos[d];
+                    double vMax = VELOCIDAD_MAXIMA * rango;
+                    double vel = INERCIA * v[j]
+                            + C_PERSONAL * rng.nextDouble() * (mejorX[j] - x[j])
+                            + C_GLOBAL * rng.nextDouble() * (mejorX[3 * global + d] - x[j]);
+                    vel = Math.max(Math.min(vel, vMax), -vMax);
+                    double pos = x[j] + vel;
+                    // Fuera de los límites la partícula queda en el borde y pierde la velocidad
+                    if (pos < minimos[d] || pos > maximos[d]) {
+                        pos = Math.max(Math.min(pos, maximos[d]), minimos[d]);
+                        vel = 0;
+                    }
+                    x[j] = pos;
+                    v[j] = vel;
+                }
+            }
+            
+            pool.invoke(new TareaEvaluacion(x, costo, metricas, 0, n));
+            evaluaciones += n;
+            
+            double costoGlobalPrevio = mejorCosto[global];
+            for (int p = 0; p < n; p++) {
+                if (costo[p] < mejorCosto[p]) {
+                    System.arraycopy(x, 3 * p, mejorX, 3 * p, 3);
+                    mejorCosto[p] = costo[p];
+                    copiarMetricas(metricas, mejoresMetricas, p);
+                    if (costo[p] < mejorCosto[global]) {
+                        global = p;
+                    }
+                }
+            }
+            sinMejora = mejorCosto[global] < costoGlobalPrevio - 1e-9 * Math.abs(costoGlobalPrevio) ? 0 : sinMejora + 1;
+        }
+        
+        boolean[] enMinimo = new boolean[3];
+        boolean[] enMaximo = new boolean[3];
+        double[] mejoresMetricasGlobal = new double[METRICAS];
+        for (int d = 0; d < 3; d++) {
+            double margen = TOLERANCIA_LIMITE * (maximos[d] - minimos[d]);
+            enMinimo[d] = minimos[d] > 0 && mejorX[3 * global + d] <= minimos[d] + margen;
+            enMaximo[d] = mejorX[3 * global + d] >= maximos[d] - margen;
+        }
+        for (int m = 0; m < METRICAS; m++) {
+            mejoresMetricasGlobal[m] = mejoresMetricas[m][global];
+        }
+        return new Resultado(mejorX[3 * global], mejorX[3 * global + 1], mejorX[3 * global + 2],
+                mejoresMetricasGlobal, mejorCosto[global] < PENALIZACION, evaluaciones, iteracion, 0,
+                enMinimo, enMaximo);
+    }
+    
+    private static void copiarMetricas(double[][] desde, double[][] hacia, int p) {
+        for (int m = 0; m < desde.length; m++) {
+            hacia[m][p] = desde[m][p];
+        }
+    }
+    
+    // Divide el enjambre en mitades hasta llegar a bloques de TAM_HOJA partículas
+    private class TareaEvaluacion extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final double[] x, costo;
+        private final double[][] metricas;
+        private final int desde, hasta;
+        
+        TareaEvaluacion(double[] x, double[] costo, double[][] metricas, int desde, int hasta) {
+            this.x = x;
+            this.costo = costo;
+            this.metricas = metricas;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+        
+        @Override
+        protected void compute() {
+            if (hasta - desde <= TAM_HOJA) {
+                evaluarBloque(x, costo, metricas, desde, hasta);
+            } else {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaEvaluacion(x, costo, metricas, desde, medio),
+                          new TareaEvaluacion(x, costo, metricas, medio, hasta));
+            }
+        }
+    }
+    
+    // Simula un bloque de partículas en lote y calcula su costo. Cada tarea escribe un rango
+    // disjunto: no hace falta sincronizar
+    private void evaluarBloque(double[] x, double[] costo, double[][] metricas, int desde, int hasta) {
+        int n = hasta - desde;
+        double[] kp = new double[n];
+        double[] ki = new double[n];
+        double[] kd = new double[n];
+        for (int c = 0; c < n; c++) {
+            kp[c] = x[3 * (desde + c)];
+            ki[c] = x[3 * (desde + c) + 1];
+            kd[c] = x[3 * (desde + c) + 2];
+        }
+        
+        SimuladorLotePID lote = new SimuladorLotePID(tipo, kp, ki, kd, K, tau, zeta, dt,
+                tAmb, yInicial, referencia, uMin, uMax);
+        int N = (int)(tSim / dt) + 1;
+        lote.simular(N - 2);
+        
+        for (int c = 0; c < n; c++) {
+            int p = desde + c;
+            double ise = lote.ise[c];
+            double tEst = lote.tiempoEstablecimiento(c);
+            double sobrepico = lote.sobrepico(c);
+            double tSat = lote.tSaturacion[c];
+            double errorFinal = Math.abs(referencia - lote.salida[c]);
+            double esfuerzo = ruidoMedicion * gananciaRuido(tipo, kp[c], kd[c], dt) / (uMax - uMin);
+            metricas[0][p] = ise;
+            metricas[1][p] = tEst;
+            metricas[2][p] = sobrepico;
+            metricas[3][p] = tSat;
+            metricas[4][p] = errorFinal;
+            metricas[5][p] = esfuerzo;
+            
+            double violacion = Math.max(0, sobrepico - sobrepicoMaximo) + Math.max(0, tSat - saturacionMaxima)
+                    + Math.max(0, errorFinal - errorFinalMaximo);
+            double base;
+            if (objetivo == Objetivo.ISE) {
+                base = ise;
+            } else {
+                // El tiempo de establecimiento avanza de a dt: el ISE desempata las mesetas
+                base = tEst + 1e-3 * ise;
+            }
+            if (violacion > 0 || Double.isNaN(ise)) {
+                costo[p] = PENALIZACION + (Double.isNaN(violacion) ? PENALIZACION : violacion);
+            } else {
+                costo[p] = base * (1 + pesoEsfuerzo * esfuerzo);
+            }
+        }
+    }
+    
+    // Sintonización de ejemplo sobre la planta de C_extra_01
+    // Sufijo para imprimir junto a las ganancias: vacío solo si la búsqueda convergió
+    static String estado(Resultado r) {
+        if (!r.factible) {
+            return " (no cumple las restricciones)";
+        }
+        return r.enLimite() ? " (no convergió: " + r.limitesActivos() + ")" : "";
+    }
+    
+    public static void main(String[] args) {
+        AutoSintonizadorPID sintonizador = new AutoSintonizadorPID(SimuladorLotePID.PID_ERROR_TRAPEZOIDAL,
+                1.0, 1.0, 0.5, 0.01, 40.0, 15.0, 15.0, 22.0, 0.0, 50.0);
+        
+        System.out.println("=== SINTONIZACIÓN AUTOMÁTICA PID (PSO) ===");
+        System.out.printf("Núcleos: %d\n", ForkJoinPool.commonPool().getParallelism());
+        double[] maximos = sintonizador.maximos;
+        System.out.printf("Caja inicial: Kp <= %.1f, Ki <= %.1f, Kd <= %.1f\n", maximos[0], maximos[1], maximos[2]);
+        
+        for (Objetivo objetivo : Objetivo.values()) {
+            sintonizador.setObjetivo(objetivo);
+            long inicio = System.nanoTime();
+            Resultado r = sintonizador.sintonizar();
+            double ms = (System.nanoTime() - inicio) / 1e6;
+            
+            System.out.printf("\nObjetivo %s (sobrepico <= 0.05 C, error final <= 0.01 C, saturación <= 2 s):\n", objetivo);
+            System.out.printf("  Kp = %.3f, Ki = %.3f, Kd = %.3f%s\n", r.kp, r.ki, r.kd, estado(r));
+            System.out.printf("  t_est = %.2f s, ISE = %.3f, sobrepico = %.3f C, error final = %.4f C\n",
+                    r.tEstablecimiento, r.ise, r.sobrepico, r.errorFinal);
+            System.out.printf("  saturación = %.2f s, ruido en u = %.1f%% del rango del actuador\n",
+                    r.tSaturacion, 100 * r.esfuerzo);
+            System.out.printf("  %d simulaciones, %d ampliaciones de la caja, %.1f ms\n", r.evaluaciones, r.ampliaciones, ms);
+        }
+    }
+}
\ No newline at end of file
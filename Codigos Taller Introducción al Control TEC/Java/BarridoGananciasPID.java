@@ -0,0 +1,224 @@
+import java.io.*;
+import java.util.concurrent.*;
+
+public class BarridoGananciasPID {
+    // Configuraciones simuladas por cada tarea hoja del fork-join
+    private static final int TAM_HOJA = 256;
+    
+    // Malla de ganancias
+    private final double[] valoresKp, valoresKi, valoresKd;
+    private final int nKp, nKi, nKd, total;
+    
+    // Planta, actuador y simulación
+    private final int tipo;
+    private final double K, tau, zeta;
+    private final double dt, tSim, tAmb, yInicial, referencia;
+    private final double uMin, uMax;
+    
+    // Discretización exacta (ZOH) de la planta: permite usar un dt mayor
+    private boolean discretizacionExacta = false;
+    
+    // Resultados densos, índice = (iKp * nKi + iKi) * nKd + iKd
+    final double[] ise;
+    final double[] tEstablecimiento;
+    final double[] sobrepico;
+    final double[] potenciaFinal;
+    
+    public BarridoGananciasPID(double[] valoresKp, double[] valoresKi, double[] valoresKd, int tipo,
+                               double K, double tau, double zeta, double dt, double tSim,
+                               double tAmb, double yInicial, double referencia,
+                               double uMin, double uMax) {
+        this.valoresKp = valoresKp.clone();
+        this.valoresKi = valoresKi.clone();
+        this.valoresKd = valoresKd.clone();
+        this.nKp = valoresKp.length;
+        this.nKi = valoresKi.length;
+        this.nKd = valoresKd.length;
+        this.total = nKp * nKi * nKd;
+        this.tipo = tipo;
+        this.K = K;
+        this.tau = tau;
+        this.zeta = zeta;
+        this.dt = dt;
+        this.tSim = tSim;
+        this.tAmb = tAmb;
+        this.yInicial = yInicial;
+        this.referencia = referencia;
+        this.uMin = uMin;
+        this.uMax = uMax;
+        
+        ise = new double[total];
+        tEstablecimiento = new double[total];
+        sobrepico = new double[total];
+        potenciaFinal = new double[total];
+    }
+    
+    public void setDiscretizacionExacta(boolean exacta) {
+        this.discretizacionExacta = exacta;
+    }
+    
+    // Ejecuta el barrido usando todos los núcleos disponibles
+    public void ejecutar() {
+        ejecutar(ForkJoinPool.commonPool());
+    }
+    
+    public void ejecutar(ForkJoinPool pool) {
+        pool.invoke(new TareaBarrido(0, total));
+    }
+    
+    // Divide el rango de la malla en mitades hasta llegar a bloques de TAM_HOJA
+    private class TareaBarrido extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int desde, hasta;
+        
+        TareaBarrido(int desde, int hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+        
+        @Override
+        protected void compute() {
+            if (hasta - desde <= TAM_HOJA) {
+                simularBloque(desde, hasta);
+            } else {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaBarrido(desde, medio), new TareaBarrido(medio, hasta));
+            }
+        }
+    }
+    
+    private void simularBloque(int desde, int hasta) {
+        int n = hasta - desde;
+        double[] kp = new double[n];
+        double[] ki = new double[n];
+        double[] kd = new double[n];
+        for (int c = 0; c < n; c++) {
+            int idx = desde + c;
+            kp[c] = valoresKp[idx / (nKi * nKd)];
+            ki[c] = valoresKi[(idx / nKd) % nKi];
+            kd[c] = valoresKd[idx % nKd];
+        }
+        
+        SimuladorLotePID lote = new SimuladorLotePID(tipo, kp, ki, kd, K, tau, zeta, dt,
+                tAmb, yInicial, referencia, uMin, uMax, discretizacionExacta);
+        int N = (int)(tSim / dt) + 1;
+        lote.simular(N - 2);
+        
+        // Cada tarea escribe un rango disjunto: no hace falta sincronizar
+        for (int c = 0; c < n; c++) {
+            ise[desde + c] = lote.ise[c];
+            tEstablecimiento[desde + c] = lote.tiempoEstablecimiento(c);
+            sobrepico[desde + c] = lote.sobrepico(c);
+            potenciaFinal[desde + c] = lote.control[c];
+        }
+    }
+    
+    public int indice(int iKp, int iKi, int iKd) {
+        return (iKp * nKi + iKi) * nKd + iKd;
+    }
+    
+    public double getISE(int iKp, int iKi, int iKd) {
+        return ise[indice(iKp, iKi, iKd)];
+    }
+    
+    public double getTiempoEstablecimiento(int iKp, int iKi, int iKd) {
+        return tEstablecimiento[indice(iKp, iKi, iKd)];
+    }
+    
+    public double getSobrepico(int iKp, int iKi, int iKd) {
+        return sobrepico[indice(iKp, iKi, iKd)];
+    }
+    
+    public double getPotenciaFinal(int iKp, int iKi, int iKd) {
+        return potenciaFinal[indice(iKp, iKi, iKd)];
+    }
+    
+    // Índice de la combinación con menor ISE cuyo sobrepico no supera el máximo dado
+    public int mejorPorISE(double sobrepicoMaximo) {
+        int mejor = -1;
+        for (int idx = 0; idx < total; idx++) {
+            if (sobrepico[idx] <= sobrepicoMaximo && (mejor < 0 || ise[idx] < ise[mejor])) {
+                mejor = idx;
+            }
+        }
+        return mejor;
+    }
+    
+    public double kpDe(int idx) {
+        return valoresKp[idx / (nKi * nKd)];
+    }
+    
+    public double kiDe(int idx) {
+        return valoresKi[(idx / nKd) % nKi];
+    }
+    
+    public double kdDe(int idx) {
+        return valoresKd[idx % nKd];
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    // Exporta la malla completa en CSV (una fila por combinación de ganancias)
+    public void exportarCSV(String archivo) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(archivo), 1 << 16)) {
+            out.write("Kp,Ki,Kd,ISE,t_establecimiento,sobrepico,potencia_final\n");
+            StringBuilder sb = new StringBuilder(128);
+            for (int idx = 0; idx < total; idx++) {
+                sb.setLength(0);
+                sb.append(kpDe(idx)).append(',').append(kiDe(idx)).append(',').append(kdDe(idx)).append(',')
+                  .append(ise[idx]).append(',').append(tEstablecimiento[idx]).append(',')
+                  .append(sobrepico[idx]).append(',').append(potenciaFinal[idx]).append('\n');
+                out.append(sb);
+            }
+        }
+    }
+    
+    public static double[] linspace(double inicio, double fin, int n) {
+        double[] v = new double[n];
+        for (int i = 0; i < n; i++) {
+            v[i] = n == 1 ? inicio : inicio + (fin - inicio) * i / (n - 1);
+        }
+        return v;
+    }
+    
+    // Barrido de ejemplo sobre el sistema de temperatura de C_01
+    public static void main(String[] args) throws IOException {
+        BarridoGananciasPID barrido = new BarridoGananciasPID(
+                linspace(0.5, 10.0, 39), linspace(0.0, 3.0, 31), linspace(0.0, 8.0, 33),
+                SimuladorLotePID.PID_ERROR_TRAPEZOIDAL,
+                1.0, 1.0, 0.5, 0.01, 20.0, 15.0, 15.0, 22.0, 0.0, 50.0);
+        
+        System.out.println("=== BARRIDO DE GANANCIAS PID ===");
+        System.out.printf("Combinaciones: %d, núcleos: %d\n",
+                barrido.getTotal(), ForkJoinPool.commonPool().getParallelism());
+        
+        long inicio = System.nanoTime();
+        barrido.ejecutar();
+        System.out.printf("Tiempo de barrido: %.1f ms\n", (System.nanoTime() - inicio) / 1e6);
+        
+        int mejor = barrido.mejorPorISE(0.1);
+        if (mejor >= 0) {
+            System.out.println("\nMejor combinación (ISE mínimo con sobrepico <= 0.1 C):");
+            System.out.printf("  Kp = %.3f, Ki = %.3f, Kd = %.3f\n",
+                    barrido.kpDe(mejor), barrido.kiDe(mejor), barrido.kdDe(mejor));
+            System.out.printf("  ISE = %.3f, t_est = %.2f s, sobrepico = %.3f C, potencia final = %.2f W\n",
+                    barrido.ise[mejor], barrido.tEstablecimiento[mejor],
+                    barrido.sobrepico[mejor], barrido.potenciaFinal[mejor]);
+        }
+        
+        // Pasos de 0.25 en Kp, 0.1 en Ki y 0.25 en Kd: la malla contiene las ganancias de C_01
+        int c01 = barrido.indice(4, 10, 0);
+        System.out.printf("\nCelda de C_01 (Kp = %.2f, Ki = %.2f, Kd = %.2f), comparar con su columna CONTROL PID:\n",
+                barrido.kpDe(c01), barrido.kiDe(c01), barrido.kdDe(c01));
+        System.out.printf("  ISE = %.3f, t_est = %.2f s, sobrepico = %.3f C, potencia final = %.2f W\n",
+                barrido.ise[c01], barrido.tEstablecimiento[c01],
+                barrido.sobrepico[c01], barrido.potenciaFinal[c01]);
+        
+        if (args.length > 0) {
+            barrido.exportarCSV(args[0]);
+            System.out.println("\nResultados exportados a " + args[0]);
+        }
+    }
+}
\ No newline at end of file
@@ -1,4 +1,5 @@
 import java.awt.*;
+import java.io.IOException;
 import java.util.Arrays;
 import javax.swing.*;
 
@@ -26,7 +27,9 @@ public class C_01_Control_PID {
     private static final double T_SIM = 20.0;
     private static final double DT = 0.01;
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        ModoLote modo = ModoLote.desdeArgumentos(args);
+        
         System.out.println("=== MODELO DEL SISTEMA ===");
         System.out.printf("G(s) = %.1fC/W / (%.0fs^2 + %.1fs + 1)\n", K, TAU*TAU, 2*ZETA*TAU);
         
@@ -59,10 +62,13 @@ public class C_01_Control_PID {
             uOpen[i] = (T_REF - T_AMB) * ganOpen;
         }
         
+        MetricasEnLinea metricasOpen = new MetricasEnLinea(T_REF, T_INICIAL, 0.02 * T_REF, DT);
+        
         for (int k = 2; k < N; k++) {
             TOpen[k] = (-coef_Tk1 * TOpen[k-1] - coef_Tk2 * TOpen[k-2] + 
                         (K/(TAU*TAU)) * uOpen[k] + (1/(TAU*TAU)) * T_AMB) / coef_Tk;
             errorOpen[k] = T_REF - TOpen[k];
+            metricasOpen.agregar(t[k], errorOpen[k], TOpen[k]);
         }
         
         // 2. LAZO CERRADO con Control PID
@@ -73,41 +79,20 @@ public class C_01_Control_PID {
         Arrays.fill(TPid, T_INICIAL);
         TPid[1] = T_INICIAL;
         
-        double integral = 0.0;
-        double errorPrev = 0.0;
+        ControladorPID pid = new ControladorPID(KP, KI, KD, DT, U_MIN, U_MAX);
+        MetricasEnLinea metricasPid = new MetricasEnLinea(T_REF, T_INICIAL, 0.02 * T_REF, DT);
         
         for (int k = 2; k < N; k++) {
             // Calculo del error actual
             errorPid[k] = T_REF - TPid[k-1];
             
-            // Termino Proporcional
-            double PTerm = KP * errorPid[k];
-            
-            // Termino Integral (integracion trapezoidal)
-            integral += (errorPid[k] + errorPrev) * DT / 2;
-            double ITerm = KI * integral;
-            
-            // Termino Derivativo
-            double derivative = (errorPid[k] - errorPrev) / DT;
-            double DTerm = KD * derivative;
-            
-            // Senal de control total
-            uPid[k] = PTerm + ITerm + DTerm;
-            
-            // Saturacion del actuador
-            uPid[k] = Math.max(Math.min(uPid[k], U_MAX), U_MIN);
-            
-            // Anti-windup
-            if (uPid[k] >= U_MAX || uPid[k] <= U_MIN) {
-                integral -= (errorPid[k] + errorPrev) * DT / 2;
-            }
-            
-            // Actualizar error anterior
-            errorPrev = errorPid[k];
+            // Senal de control (PID con saturacion y anti-windup)
+            uPid[k] = pid.paso(T_REF, TPid[k-1]);
             
             // Simulacion del sistema
             TPid[k] = (-coef_Tk1 * TPid[k-1] - coef_Tk2 * TPid[k-2] + 
                       (K/(TAU*TAU)) * uPid[k] + (1/(TAU*TAU)) * T_AMB) / coef_Tk;
+            metricasPid.agregar(t[k], errorPid[k], TPid[k]);
         }
         
         // 3. CONTROL P SIMPLE
@@ -119,6 +104,8 @@ public class C_01_Control_PID {
         Arrays.fill(TSimple, T_INICIAL);
         TSimple[1] = T_INICIAL;
         
+        MetricasEnLinea metricasSimple = new MetricasEnLinea(T_REF, T_INICIAL, 0.02 * T_REF, DT);
+        
         for (int k = 2; k < N; k++) {
             errorSimple[k] = T_REF - TSimple[k-1];
             uSimple[k] = KpSimple * errorSimple[k];
@@ -126,74 +113,47 @@ public class C_01_Control_PID {
             
             TSimple[k] = (-coef_Tk1 * TSimple[k-1] - coef_Tk2 * TSimple[k-2] + 
                          (K/(TAU*TAU)) * uSimple[k] + (1/(TAU*TAU)) * T_AMB) / coef_Tk;
+            metricasSimple.agregar(t[k], errorSimple[k], TSimple[k]);
         }
         
-        // 4. Calculo de metricas de desempeno
-        double ISEOpen = calculateISE(errorOpen, DT);
-        double ISESimple = calculateISE(errorSimple, DT);
-        double ISEPid = calculateISE(errorPid, DT);
-        
-        double tSettleOpen = calculateSettlingTime(t, errorOpen, 0.02 * T_REF);
-        double tSettleSimple = calculateSettlingTime(t, errorSimple, 0.02 * T_REF);
-        double tSettlePid = calculateSettlingTime(t, errorPid, 0.02 * T_REF);
-        
-        double overshootOpen = calculateOvershoot(TOpen, T_REF);
-        double overshootSimple = calculateOvershoot(TSimple, T_REF);
-        double overshootPid = calculateOvershoot(TPid, T_REF);
-        
+        // 4. Metricas de desempeno (acumuladas durante la simulacion)
         // 5. Resultados Detallados
-        printResults(errorOpen, errorSimple, errorPid, 
-                    tSettleOpen, tSettleSimple, tSettlePid,
-                    overshootOpen, overshootSimple, overshootPid,
-                    ISEOpen, ISESimple, ISEPid,
-                    uOpen, uSimple, uPid);
+        printResults(metricasOpen, metricasSimple, metricasPid,
+                    uOpen[N-1], uSimple[N-1], uPid[N-1]);
+        printMargins(KpSimple);
         
-        // 6. Mostrar graficos
-        showGraphs(t, TOpen, TSimple, TPid, errorOpen, errorSimple, errorPid, 
-                  uOpen, uSimple, uPid);
-    }
-    
-    private static double calculateISE(double[] error, double dt) {
-        double ise = 0.0;
-        for (double e : error) {
-            ise += e * e * dt;
+        // 6. Exportar series y mostrar graficos (salvo en modo sin interfaz)
+        modo.exportar(new String[]{"t", "T_abierto", "T_P", "T_PID", "u_abierto", "u_P", "u_PID"},
+                      t, TOpen, TSimple, TPid, uOpen, uSimple, uPid);
+        if (modo.conInterfaz()) {
+            Interfaz.showGraphs(t, TOpen, TSimple, TPid, errorOpen, errorSimple, errorPid, 
+                               uOpen, uSimple, uPid);
         }
-        return ise;
     }
     
-    private static double calculateSettlingTime(double[] t, double[] error, double tolerance) {
-        for (int i = 0; i < error.length; i++) {
-            if (Math.abs(error[i]) < tolerance) {
-                return t[i];
-            }
-        }
-        return t[t.length - 1];
-    }
-    
-    private static double calculateOvershoot(double[] response, double reference) {
-        double max = Arrays.stream(response).max().orElse(reference);
-        return Math.max(0, max - reference);
-    }
-    
-    private static void printResults(double[] errorOpen, double[] errorSimple, double[] errorPid,
-                                   double tSettleOpen, double tSettleSimple, double tSettlePid,
-                                   double overshootOpen, double overshootSimple, double overshootPid,
-                                   double ISEOpen, double ISESimple, double ISEPid,
-                                   double[] uOpen, double[] uSimple, double[] uPid) {
+    private static void printResults(MetricasEnLinea open, MetricasEnLinea simple, MetricasEnLinea pid,
+                                   double uOpenFinal, double uSimpleFinal, double uPidFinal) {
         System.out.println("\n=== RESULTADOS COMPARATIVOS ===");
         System.out.println("METRICA               | LAZO ABIERTO | CONTROL P   | CONTROL PID");
         System.out.println("----------------------------------------------------------------");
         System.out.printf("Error Estacionario    | %6.3f C   | %6.3f C   | %6.3f C\n",
-                errorOpen[errorOpen.length-1], errorSimple[errorSimple.length-1], 
-                errorPid[errorPid.length-1]);
+                open.getErrorFinal(), simple.getErrorFinal(), pid.getErrorFinal());
         System.out.printf("Tiempo Establecimiento| %6.2f s     | %6.2f s     | %6.2f s\n",
-                tSettleOpen, tSettleSimple, tSettlePid);
+                open.getTiempoEstablecimiento(), simple.getTiempoEstablecimiento(), 
+                pid.getTiempoEstablecimiento());
+        System.out.printf("Tiempo de Subida     | %-12s | %-12s | %s\n",
+                formatRiseTime(open.getTiempoSubida()), formatRiseTime(simple.getTiempoSubida()),
+                formatRiseTime(pid.getTiempoSubida()));
         System.out.printf("Sobrepico Maximo     | %6.3f C   | %6.3f C   | %6.3f C\n",
-                overshootOpen, overshootSimple, overshootPid);
+                open.getSobrepico(), simple.getSobrepico(), pid.getSobrepico());
         System.out.printf("ISE                  | %6.3f      | %6.3f      | %6.3f\n",
-                ISEOpen, ISESimple, ISEPid);
+                open.getISE(), simple.getISE(), pid.getISE());
+        System.out.printf("IAE                  | %6.3f      | %6.3f      | %6.3f\n",
+                open.getIAE(), simple.getIAE(), pid.getIAE());
+        System.out.printf("ITAE                 | %6.3f      | %6.3f      | %6.3f\n",
+                open.getITAE(), simple.getITAE(), pid.getITAE());
         System.out.printf("Potencia Final       | %6.2f W    | %6.2f W    | %6.2f W\n",
-                uOpen[uOpen.length-1], uSimple[uSimple.length-1], uPid[uPid.length-1]);
+                uOpenFinal, uSimpleFinal, uPidFinal);
         
         System.out.println("\n=== RECOMENDACIONES PARA AJUSTAR PID ===");
         System.out.println("• Para reducir sobrepico: DISMINUIR Kp o AUMENTAR Kd");
@@ -202,32 +162,65 @@ public class C_01_Control_PID {
         System.out.println("• Para reducir oscilaciones: AUMENTAR Kd o DISMINUIR Ki");
     }
     
-    private static void showGraphs(double[] t, double[] TOpen, double[] TSimple, double[] TPid,
-                                 double[] errorOpen, double[] errorSimple, double[] errorPid,
-                                 double[] uOpen, double[] uSimple, double[] uPid) {
-        JFrame frame = new JFrame("Control de Temperatura - Sistema de 2do Orden");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(1400, 800);
-        
-        JTabbedPane tabbedPane = new JTabbedPane();
+    // Margenes de estabilidad de L(jw) = C(jw)G(jw) para el control P y el PID
+    private static void printMargins(double KpSimple) {
+        RespuestaFrecuenciaPID respuesta = new RespuestaFrecuenciaPID(
+                new double[]{KpSimple, KP}, new double[]{0, KI}, new double[]{0, KD}, 0,
+                K, TAU, ZETA, 1e-3, 1e3, 2000);
+        respuesta.ejecutar();
         
-        // Panel de temperaturas
-        tabbedPane.addTab("Temperaturas", new GraphPanel(t, TOpen, TSimple, TPid, 
-                "Tiempo [s]", "Temperatura [C]", "Respuesta de Temperatura",
-                new String[]{"Lazo Abierto", "Control P", "Control PID", "Referencia"}));
-        
-        // Panel de errores
-        tabbedPane.addTab("Errores", new GraphPanel(t, errorOpen, errorSimple, errorPid, 
-                "Tiempo [s]", "Error [C]", "Error de Temperatura",
-                new String[]{"Lazo Abierto", "Control P", "Control PID"}));
-        
-        // Panel de control
-        tabbedPane.addTab("Senal de Control", new GraphPanel(t, uOpen, uSimple, uPid, 
-                "Tiempo [s]", "Potencia [W]", "Senal de Control Total",
-                new String[]{"Lazo Abierto", "Control P", "Control PID"}));
-        
-        frame.add(tabbedPane);
-        frame.setVisible(true);
+        System.out.println("\n=== MARGENES DE ESTABILIDAD (RESPUESTA EN FRECUENCIA) ===");
+        System.out.println("METRICA               | CONTROL P   | CONTROL PID");
+        System.out.println("-------------------------------------------------");
+        // Sin cruce de fase por -180 el margen de ganancia es infinito
+        System.out.printf("Margen de Ganancia    | %6s dB   | %6s dB\n",
+                formatMargin(respuesta.margenGanancia[0]), formatMargin(respuesta.margenGanancia[1]));
+        System.out.printf("Margen de Fase        | %6s deg  | %6s deg\n",
+                formatMargin(respuesta.margenFase[0]), formatMargin(respuesta.margenFase[1]));
+        System.out.printf("Ancho de Banda        | %6.3f rad/s| %6.3f rad/s\n",
+                respuesta.anchoBanda[0], respuesta.anchoBanda[1]);
+        System.out.printf("Pico de Sensibilidad  | %6.3f      | %6.3f\n",
+                respuesta.picoSensibilidad[0], respuesta.picoSensibilidad[1]);
+    }
+    
+    // NaN: la salida nunca llega al 90% del escalón (por ejemplo, por error estacionario)
+    private static String formatRiseTime(double riseTime) {
+        return Double.isNaN(riseTime) ? "no alcanza" : String.format("%6.2f s", riseTime);
+    }
+    
+    private static String formatMargin(double margin) {
+        return Double.isInfinite(margin) ? "inf" : String.format("%.2f", margin);
+    }
+    
+    // Interfaz gráfica en una clase aparte: en modo sin interfaz nunca se carga AWT/Swing
+    static class Interfaz {
+        static void showGraphs(double[] t, double[] TOpen, double[] TSimple, double[] TPid,
+                                     double[] errorOpen, double[] errorSimple, double[] errorPid,
+                                     double[] uOpen, double[] uSimple, double[] uPid) {
+            JFrame frame = new JFrame("Control de Temperatura - Sistema de 2do Orden");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setSize(1400, 800);
+            
+            JTabbedPane tabbedPane = new JTabbedPane();
+            
+            // Panel de temperaturas
+            tabbedPane.addTab("Temperaturas", new GraphPanel(t, TOpen, TSimple, TPid, 
+                    "Tiempo [s]", "Temperatura [C]", "Respuesta de Temperatura",
+                    new String[]{"Lazo Abierto", "Control P", "Control PID", "Referencia"}));
+            
+            // Panel de errores
+            tabbedPane.addTab("Errores", new GraphPanel(t, errorOpen, errorSimple, errorPid, 
+                    "Tiempo [s]", "Error [C]", "Error de Temperatura",
+                    new String[]{"Lazo Abierto", "Control P", "Control PID"}));
+            
+            // Panel de control
+            tabbedPane.addTab("Senal de Control", new GraphPanel(t, uOpen, uSimple, uPid, 
+                    "Tiempo [s]", "Potencia [W]", "Senal de Control Total",
+                    new String[]{"Lazo Abierto", "Control P", "Control PID"}));
+            
+            frame.add(tabbedPane);
+            frame.setVisible(true);
+        }
     }
     
     static class GraphPanel extends JPanel {
@@ -235,6 +228,11 @@ public class C_01_Control_PID {
         private String xLabel, yLabel, title;
         private String[] legends;
         
+        // Series decimadas y limites calculados una sola vez (no en cada repintado)
+        private SerieDecimada serie1, serie2, serie3;
+        private double minY = Double.MAX_VALUE;
+        private double maxY = -Double.MAX_VALUE;
+        
         public GraphPanel(double[] t, double[] data1, double[] data2, double[] data3,
                          String xLabel, String yLabel, String title, String[] legends) {
             this.t = t;
@@ -245,13 +243,30 @@ public class C_01_Control_PID {
             this.yLabel = yLabel;
             this.title = title;
             this.legends = legends;
+            this.serie1 = new SerieDecimada(t, data1);
+            this.serie2 = new SerieDecimada(t, data2);
+            this.serie3 = new SerieDecimada(t, data3);
+            
+            // Encontrar limites de los datos
+            for (double[] data : new double[][]{data1, data2, data3}) {
+                for (double val : data) {
+                    if (val < minY) minY = val;
+                    if (val > maxY) maxY = val;
+                }
+            }
             setBackground(Color.WHITE);
         }
         
+        // El gráfico es estático: se rasteriza una vez por tamaño del panel y luego solo se copia
+        private final CapaEstatica capa = new CapaEstatica(this::dibujar);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            capa.pintar(this, g);
+        }
+        
+        private void dibujar(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -260,31 +275,20 @@ public class C_01_Control_PID {
             int graphWidth = width - 2 * padding;
             int graphHeight = height - 2 * padding;
             
-            // Encontrar limites de los datos
-            double minY = Double.MAX_VALUE;
-            double maxY = -Double.MAX_VALUE;
-            
-            for (double[] data : new double[][]{data1, data2, data3}) {
-                for (double val : data) {
-                    if (val < minY) minY = val;
-                    if (val > maxY) maxY = val;
-                }
-            }
-            
             // Dibujar ejes
             g2.setColor(Color.BLACK);
             g2.drawLine(padding, height - padding, padding, padding);
             g2.drawLine(padding, height - padding, width - padding, height - padding);
             
             // Dibujar datos
-            drawCurve(g2, t, data1, Color.BLUE, padding, graphWidth, graphHeight, minY, maxY);
-            drawCurve(g2, t, data2, Color.GREEN, padding, graphWidth, graphHeight, minY, maxY);
-            drawCurve(g2, t, data3, Color.RED, padding, graphWidth, graphHeight, minY, maxY);
+            drawCurve(g2, serie1, t, data1, Color.BLUE, padding, graphWidth, graphHeight, minY, maxY);
+            drawCurve(g2, serie2, t, data2, Color.GREEN, padding, graphWidth, graphHeight, minY, maxY);
+            drawCurve(g2, serie3, t, data3, Color.RED, padding, graphWidth, graphHeight, minY, maxY);
             
             // Dibujar referencia si es el grafico de temperaturas
             if (title.contains("Temperatura")) {
                 g2.setColor(Color.BLACK);
-                g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{5}, 0));
+                g2.setStroke(EstiloGrafico.DISCONTINUO_1);
                 double yRef = mapY(T_REF, graphHeight, minY, maxY);
                 g2.drawLine(padding, (int)(height - padding - yRef), width - padding, (int)(height - padding - yRef));
             }
@@ -299,14 +303,17 @@ public class C_01_Control_PID {
             g2.drawString(yLabel, padding / 4, height / 2);
         }
         
-        private void drawCurve(Graphics2D g2, double[] x, double[] y, Color color, 
+        // Solo se unen las muestras que conserva la decimacion (~2 por pixel)
+        private void drawCurve(Graphics2D g2, SerieDecimada serie, double[] x, double[] y, Color color, 
                              int padding, int graphWidth, int graphHeight, double minY, double maxY) {
             g2.setColor(color);
-            g2.setStroke(new BasicStroke(2));
+            g2.setStroke(EstiloGrafico.TRAZO_2);
             
-            for (int i = 1; i < x.length; i++) {
-                int x1 = (int)(padding + (x[i-1] / x[x.length-1]) * graphWidth);
-                int y1 = (int)(getHeight() - padding - mapY(y[i-1], graphHeight, minY, maxY));
+            int[] puntos = serie.indices(graphWidth);
+            for (int j = 1; j < puntos.length; j++) {
+                int i0 = puntos[j-1], i = puntos[j];
+                int x1 = (int)(padding + (x[i0] / x[x.length-1]) * graphWidth);
+                int y1 = (int)(getHeight() - padding - mapY(y[i0], graphHeight, minY, maxY));
                 int x2 = (int)(padding + (x[i] / x[x.length-1]) * graphWidth);
                 int y2 = (int)(getHeight() - padding - mapY(y[i], graphHeight, minY, maxY));
                 g2.drawLine(x1, y1, x2, y2);
@@ -330,7 +337,7 @@ public class C_01_Control_PID {
             
             if (legends.length > 3) {
                 g2.setColor(Color.BLACK);
-                g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{5}, 0));
+                g2.setStroke(EstiloGrafico.DISCONTINUO_1);
                 g2.drawString(legends[3], legendX, legendY + 60);
             }
         }
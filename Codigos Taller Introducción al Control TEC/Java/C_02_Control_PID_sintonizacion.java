@@ -1,4 +1,5 @@
 import java.awt.*;
+import java.io.IOException;
 import java.util.*;
 import javax.swing.*;
 
@@ -25,9 +26,10 @@ public class C_02_Control_PID_sintonizacion {
     private static final String[] CONFIG_NOMBRES = {"Subamortiguado", "Crit. Amortig.", "Sobreamortig."};
     private static final double[] CONFIG_ZETA = {0.3, 1.0, 1.1};
     private static final double[] CONFIG_WN = {0.8, 0.6, 0.4};
-    private static final Color[] COLORES = {Color.RED, Color.GREEN, Color.BLUE};
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        ModoLote modo = ModoLote.desdeArgumentos(args);
+        
         System.out.println("=== MÉTODO ANALÍTICO DE SINTONIZACIÓN PID ===\n");
         System.out.printf("Sistema: G(s) = %.1f/(%.1fs² + %.1fs + 1)\n", K, TAU*TAU, 2*ZETA_NATURAL*TAU);
         
@@ -56,7 +58,7 @@ public class C_02_Control_PID_sintonizacion {
                     polosDeseados[1][0], polosDeseados[1][1]);
             
             // Calcular constantes PID
-            double[] pid = calcularConstantesPID(zetaD, wnD, polosDeseados);
+            double[] pid = calcularConstantesPID(K, TAU, ZETA_NATURAL, zetaD, wnD);
             valoresPID[i] = pid;
             
             System.out.println("Constantes PID calculadas:");
@@ -76,8 +78,42 @@ public class C_02_Control_PID_sintonizacion {
         System.out.println("\n=== ANÁLISIS DE POLOS EN LAZO CERRADO ===");
         analizarPolosLazoCerrado(valoresPID);
         
-        // Mostrar gráficos
-        mostrarGraficos(resultados);
+        // Márgenes de robustez en frecuencia
+        System.out.println("\n=== RESPUESTA EN FRECUENCIA DEL LAZO ===");
+        analizarRespuestaFrecuencia(valoresPID);
+        
+        // Robustez frente a errores del modelo y ruido del sensor
+        System.out.println("\n=== ROBUSTEZ MONTE CARLO ===");
+        analizarRobustezMonteCarlo(valoresPID);
+        
+        // Exportar series y mostrar gráficos (salvo en modo sin interfaz)
+        exportarSeries(modo, resultados);
+        if (modo.conInterfaz()) {
+            Interfaz.mostrarGraficos(resultados);
+        }
+    }
+    
+    // Columnas: t, y para cada configuración T_i, u_i, e_i
+    private static void exportarSeries(ModoLote modo, ResultadoSimulacion[] resultados) throws IOException {
+        int N = resultados[0].temperatura.length;
+        double[] t = new double[N];
+        for (int k = 0; k < N; k++) {
+            t[k] = k * DT;
+        }
+        
+        String[] encabezados = new String[1 + 3 * resultados.length];
+        double[][] columnas = new double[encabezados.length][];
+        encabezados[0] = "t";
+        columnas[0] = t;
+        for (int i = 0; i < resultados.length; i++) {
+            encabezados[1 + 3*i] = "T_" + (i + 1);
+            encabezados[2 + 3*i] = "u_" + (i + 1);
+            encabezados[3 + 3*i] = "e_" + (i + 1);
+            columnas[1 + 3*i] = resultados[i].temperatura;
+            columnas[2 + 3*i] = resultados[i].control;
+            columnas[3 + 3*i] = resultados[i].error;
+        }
+        modo.exportar(encabezados, columnas);
     }
     
     private static double[] calcularPolosOriginales() {
@@ -123,7 +159,10 @@ public class C_02_Control_PID_sintonizacion {
         return polos;
     }
     
-    private static double[] calcularConstantesPID(double zetaD, double wnD, double[][] polosDeseados) {
+    // Constantes PID que llevan el polinomio característico de la planta K/(τ²s² + 2ζτs + 1)
+    // a s³ + a₂s² + a₁s + a₀, con los polos deseados más un polo extra
+    private static double[] calcularConstantesPID(double K, double tau, double zeta, double zetaD, double wnD) {
+        double[][] polosDeseados = calcularPolosDeseados(zetaD, wnD);
         double a2, a1, a0;
         
         if (zetaD < 1) {
@@ -148,9 +187,9 @@ public class C_02_Control_PID_sintonizacion {
         }
         
         // Resolver sistema: τ²s³ + (2ζτ + KKd)s² + (1 + KKp)s + KKi = s³ + a₂s² + a₁s + a₀
-        double Kd_calc = (a2 * TAU*TAU - 2*ZETA_NATURAL*TAU) / K;
-        double Kp_calc = (a1 * TAU*TAU - 1) / K;
-        double Ki_calc = (a0 * TAU*TAU) / K;
+        double Kd_calc = (a2 * tau*tau - 2*zeta*tau) / K;
+        double Kp_calc = (a1 * tau*tau - 1) / K;
+        double Ki_calc = (a0 * tau*tau) / K;
         
         // Asegurar valores positivos
         Kp_calc = Math.max(Kp_calc, 0.1);
@@ -162,101 +201,55 @@ public class C_02_Control_PID_sintonizacion {
     
     private static ResultadoSimulacion[] simularSistemas(double[][] valoresPID) {
         int N = (int)(T_SIM / DT) + 1;
-        double[] t = new double[N];
-        for (int i = 0; i < N; i++) {
-            t[i] = i * DT;
+        
+        int nConfig = valoresPID.length;
+        double[] kp = new double[nConfig];
+        double[] ki = new double[nConfig];
+        double[] kd = new double[nConfig];
+        for (int i = 0; i < nConfig; i++) {
+            kp[i] = valoresPID[i][0];
+            ki[i] = valoresPID[i][1];
+            kd[i] = valoresPID[i][2];
         }
         
-        // Coeficientes de discretización
-        double coef_Tk = 1/(DT*DT) + (2*ZETA_NATURAL)/(TAU*DT) + 1/(TAU*TAU);
-        double coef_Tk1 = -2/(DT*DT) - (2*ZETA_NATURAL)/(TAU*DT);
-        double coef_Tk2 = 1/(DT*DT);
+        // Todas las configuraciones avanzan juntas, muestra a muestra
+        SimuladorLotePID lote = new SimuladorLotePID(SimuladorLotePID.PID_MEDICION_FILTRADA,
+                kp, ki, kd, K, TAU, ZETA_NATURAL, DT, T_AMB, T_INICIAL, T_REF, U_MIN, U_MAX);
         
-        ResultadoSimulacion[] resultados = new ResultadoSimulacion[3];
+        double[][] T_pid = new double[nConfig][N];
+        double[][] u_pid = new double[nConfig][N];
+        double[][] error_pid = new double[nConfig][N];
+        for (int i = 0; i < nConfig; i++) {
+            Arrays.fill(T_pid[i], T_INICIAL);
+        }
         
-        for (int i = 0; i < 3; i++) {
-            double Kp = valoresPID[i][0];
-            double Ki = valoresPID[i][1];
-            double Kd = valoresPID[i][2];
-            
-            double[] T_pid = new double[N];
-            double[] u_pid = new double[N];
-            double[] error_pid = new double[N];
-            
-            Arrays.fill(T_pid, T_INICIAL);
-            T_pid[1] = T_INICIAL;
-            
-            double integral = 0.0;
-            double error_prev = 0.0;
-            double derivativo = 0.0;
-            double T_prev = T_INICIAL;
-            
-            for (int k = 2; k < N; k++) {
-                double error_actual = T_REF - T_pid[k-1];
-                error_pid[k] = error_actual;
-                
-                // Término Proporcional
-                double P_term = Kp * error_actual;
-                
-                // Término Integral
-                integral += error_actual * DT;
-                double I_term = Ki * integral;
-                
-                // Término Derivativo (de la salida)
-                derivativo = 0.8 * derivativo + 0.2 * ((T_pid[k-1] - T_prev) / DT);
-                double D_term = -Kd * derivativo;
-                
-                u_pid[k] = P_term + I_term + D_term;
-                u_pid[k] = Math.max(Math.min(u_pid[k], U_MAX), U_MIN);
-                
-                // Anti-windup
-                if (u_pid[k] >= U_MAX || u_pid[k] <= U_MIN) {
-                    integral -= error_actual * DT;
-                }
-                
-                T_prev = T_pid[k-1];
-                
-                // Simulación del sistema
-                T_pid[k] = (-coef_Tk1 * T_pid[k-1] - coef_Tk2 * T_pid[k-2] + 
-                           (K/(TAU*TAU)) * u_pid[k] + (1/(TAU*TAU)) * T_AMB) / coef_Tk;
+        for (int k = 2; k < N; k++) {
+            lote.avanzar();
+            for (int i = 0; i < nConfig; i++) {
+                T_pid[i][k] = lote.salida[i];
+                u_pid[i][k] = lote.control[i];
+                error_pid[i][k] = lote.error[i];
             }
-            
+        }
+        
+        ResultadoSimulacion[] resultados = new ResultadoSimulacion[nConfig];
+        
+        for (int i = 0; i < nConfig; i++) {
             // Calcular métricas
-            double sobrespico = Math.max(0, Arrays.stream(T_pid).max().orElse(T_REF) - T_REF);
-            double t_settle = calcularTiempoEstablecimiento(T_pid, t);
-            double error_ss = Math.abs(T_pid[N-1] - T_REF);
-            double ISE = calcularISE(error_pid, DT);
-            double zeta_obs = calcularZetaObservado(T_pid);
+            double sobrespico = lote.sobrepico(i);
+            double t_settle = lote.tiempoEstablecimiento(i);
+            double error_ss = Math.abs(T_pid[i][N-1] - T_REF);
+            double ISE = lote.ise[i];
+            double zeta_obs = calcularZetaObservado(lote.maximo[i]);
             
-            resultados[i] = new ResultadoSimulacion(T_pid, u_pid, error_pid, 
+            resultados[i] = new ResultadoSimulacion(T_pid[i], u_pid[i], error_pid[i], 
                                                    sobrespico, t_settle, error_ss, ISE, zeta_obs);
         }
         
         return resultados;
     }
     
-    private static double calcularTiempoEstablecimiento(double[] T, double[] t) {
-        double tolerance = 0.02 * T_REF;
-        for (int i = T.length - 1; i >= 0; i--) {
-            if (Math.abs(T[i] - T_REF) > tolerance) {
-                return t[Math.min(i + 1, t.length - 1)];
-            }
-        }
-        return t[0];
-    }
-    
-    private static double calcularISE(double[] error, double dt) {
-        double ise = 0.0;
-        for (double e : error) {
-            ise += e * e * dt;
-        }
-        return ise;
-    }
-    
-    private static double calcularZetaObservado(double[] T) {
-        // Encuentra el máximo (sobrepico)
-        double max = Arrays.stream(T).max().orElse(T_REF);
-        
+    private static double calcularZetaObservado(double max) {
         if (max <= T_REF) {
             // No hay sobrepico
             return 1.0;
@@ -289,55 +282,176 @@ public class C_02_Control_PID_sintonizacion {
     }
     
     private static void analizarPolosLazoCerrado(double[][] valoresPID) {
+        RaicesPolinomios raices = new RaicesPolinomios(3);
+        double[] coef = new double[4];
+        double[] re = new double[3];
+        double[] im = new double[3];
+        
         for (int i = 0; i < 3; i++) {
             double Kp = valoresPID[i][0];
             double Ki = valoresPID[i][1];
             double Kd = valoresPID[i][2];
             
             // Polinomio característico: τ²s³ + (2ζτ + KKd)s² + (1 + KKp)s + KKi
-            // Usamos una aproximación para encontrar raíces
+            polinomioCaracteristico(Kp, Ki, Kd, coef, 0);
             System.out.printf("\n%s:\n", CONFIG_NOMBRES[i]);
-            System.out.println("Polos en lazo cerrado (aproximados):");
+            System.out.printf("  Coeficientes: [%.3f, %.3f, %.3f, %.3f]\n", coef[0], coef[1], coef[2], coef[3]);
             
-            // Para sistemas de tercer orden, mostramos los coeficientes
-            System.out.printf("  Coeficientes: [%.3f, %.3f, %.3f, %.3f]\n", 
-                    TAU*TAU, (2*ZETA_NATURAL*TAU + K*Kd), (1 + K*Kp), K*Ki);
+            raices.reiniciar();
+            raices.resolver(coef, 0, re, im, 0);
+            System.out.println("Polos en lazo cerrado:");
+            for (int k = 0; k < 3; k++) {
+                System.out.printf("  s%d = %.4f %c %.4fi\n", k + 1, re[k], im[k] < 0 ? '-' : '+', Math.abs(im[k]));
+            }
+            System.out.println(RaicesPolinomios.maximaParteReal(re, 0, 3) < 0 ? "  Estable" : "  Inestable");
+            
+            // Barrido de Ki en lote (cada polinomio arranca desde las raíces del anterior):
+            // la primera ganancia inestable se compara con el límite de Routh-Hurwitz
+            int m = 2000;
+            double kiMaximo = 5 * Ki + 1;
+            double[] lote = new double[4 * m];
+            for (int j = 0; j < m; j++) {
+                polinomioCaracteristico(Kp, kiMaximo * (j + 1) / m, Kd, lote, 4 * j);
+            }
+            double[] reLote = new double[3 * m];
+            double[] imLote = new double[3 * m];
+            raices.reiniciar();
+            long iteracionesPrevias = raices.getIteraciones();
+            raices.resolver(lote, m, reLote, imLote);
+            double kiCritico = Double.NaN;
+            for (int j = 0; j < m; j++) {
+                if (RaicesPolinomios.maximaParteReal(reLote, j, 3) >= 0) {
+                    kiCritico = kiMaximo * (j + 1) / m;
+                    break;
+                }
+            }
+            double kiRouth = (2*ZETA_NATURAL*TAU + K*Kd) * (1 + K*Kp) / (TAU*TAU * K);
+            System.out.printf("  Barrido Ki ∈ (0, %.2f], %d polinomios (%.1f iteraciones/polinomio): ",
+                    kiMaximo, m, (raices.getIteraciones() - iteracionesPrevias) / (double) m);
+            if (Double.isNaN(kiCritico)) {
+                System.out.printf("estable en todo el rango (Routh: Ki < %.3f)\n", kiRouth);
+            } else {
+                System.out.printf("inestable desde Ki ≈ %.3f (Routh: %.3f)\n", kiCritico, kiRouth);
+            }
         }
     }
     
-    private static void mostrarGraficos(ResultadoSimulacion[] resultados) {
-        JFrame frame = new JFrame("Control de Temperatura - Método Analítico");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(1400, 800);
-        
-        JTabbedPane tabbedPane = new JTabbedPane();
-        
-        // Panel de temperaturas
-        tabbedPane.addTab("Temperaturas", new GraficoTemperaturas(resultados));
-        
-        // Panel de errores
-        tabbedPane.addTab("Errores", new GraficoErrores(resultados));
-        
-        // Panel de control
-        tabbedPane.addTab("Señal de Control", new GraficoControl(resultados));
+    // L(jω) = C(jω)G(jω) con el filtro derivativo del simulador (d ← 0.8 d + 0.2 ẏ por muestra,
+    // constante de tiempo 4·DT)
+    private static void analizarRespuestaFrecuencia(double[][] valoresPID) {
+        double[] kp = new double[3];
+        double[] ki = new double[3];
+        double[] kd = new double[3];
+        for (int i = 0; i < 3; i++) {
+            kp[i] = valoresPID[i][0];
+            ki[i] = valoresPID[i][1];
+            kd[i] = valoresPID[i][2];
+        }
+        RespuestaFrecuenciaPID respuesta = new RespuestaFrecuenciaPID(kp, ki, kd, 4 * DT,
+                K, TAU, ZETA_NATURAL, 1e-3, 1e3, 2000);
+        respuesta.ejecutar();
         
-        frame.add(tabbedPane);
-        frame.setVisible(true);
+        System.out.println("Configuración    | MG [dB] | ω180 [rad/s] | MF [°] | ωc [rad/s] | ωb [rad/s] |  Ms");
+        System.out.println("-------------------------------------------------------------------------------");
+        for (int i = 0; i < 3; i++) {
+            // Sin cruce de fase por -180° el margen de ganancia es infinito
+            boolean sinCruce = Double.isInfinite(respuesta.margenGanancia[i]);
+            System.out.printf("%-16s | %7s | %12s | %6.1f | %10.3f | %10.3f | %5.2f\n", CONFIG_NOMBRES[i],
+                    sinCruce ? "∞" : String.format("%.2f", respuesta.margenGanancia[i]),
+                    sinCruce ? "-" : String.format("%.3f", respuesta.frecuenciaCruceFase[i]),
+                    respuesta.margenFase[i], respuesta.frecuenciaCruceGanancia[i],
+                    respuesta.anchoBanda[i], respuesta.picoSensibilidad[i]);
+        }
+    }
+    
+    // Cada diseño contra plantas perturbadas: K ±10 % (normal), τ ±20 % y ζ ±30 % (uniformes),
+    // con ruido de medición de 0.05 °C. Semilla fija: la salida es reproducible
+    private static void analizarRobustezMonteCarlo(double[][] valoresPID) {
+        int muestras = 2000;
+        System.out.printf("Muestras por diseño: %d (K ~ N(%.1f, %.2f), τ ~ U(%.1f, %.1f), ζ ~ U(%.2f, %.2f), ruido %.2f °C)\n",
+                muestras, K, 0.1*K, 0.8*TAU, 1.2*TAU, 0.7*ZETA_NATURAL, 1.3*ZETA_NATURAL, 0.05);
+        System.out.println("Configuración     Fallos   Sobrepico P50/P95 (°C)   t_est P50/P95 (s)   ISE P50/P95");
+        for (int i = 0; i < 3; i++) {
+            MonteCarloRobustezPID mc = new MonteCarloRobustezPID(SimuladorLotePID.PID_MEDICION_FILTRADA,
+                    valoresPID[i][0], valoresPID[i][1], valoresPID[i][2],
+                    MonteCarloRobustezPID.normal(K, 0.1*K),
+                    MonteCarloRobustezPID.uniforme(0.8*TAU, 1.2*TAU),
+                    MonteCarloRobustezPID.uniforme(0.7*ZETA_NATURAL, 1.3*ZETA_NATURAL),
+                    0.05, DT, T_SIM, T_AMB, T_INICIAL, T_REF, U_MIN, U_MAX, muestras, 1000L + i);
+            mc.ejecutar();
+            System.out.printf("%-16s %6.1f%%   %10.3f / %-10.3f   %7.2f / %-7.2f   %.2f / %.2f\n",
+                    CONFIG_NOMBRES[i], 100 * mc.getFraccionFallos(),
+                    mc.percentilSobrepico(50), mc.percentilSobrepico(95),
+                    mc.percentilEstablecimiento(50), mc.percentilEstablecimiento(95),
+                    mc.percentilISE(50), mc.percentilISE(95));
+        }
+    }
+    
+    // Coeficientes del polinomio característico del lazo cerrado con PID en coef[desde .. desde+3]
+    private static void polinomioCaracteristico(double Kp, double Ki, double Kd, double[] coef, int desde) {
+        coef[desde] = TAU*TAU;
+        coef[desde + 1] = 2*ZETA_NATURAL*TAU + K*Kd;
+        coef[desde + 2] = 1 + K*Kp;
+        coef[desde + 3] = K*Ki;
+    }
+    
+    // Interfaz gráfica en una clase aparte: en modo sin interfaz nunca se carga AWT/Swing
+    static class Interfaz {
+        static void mostrarGraficos(ResultadoSimulacion[] resultados) {
+            JFrame frame = new JFrame("Control de Temperatura - Método Analítico");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setSize(1400, 800);
+            
+            JTabbedPane tabbedPane = new JTabbedPane();
+            
+            // Panel de temperaturas
+            tabbedPane.addTab("Temperaturas", new GraficoTemperaturas(resultados));
+            
+            // Panel de errores
+            tabbedPane.addTab("Errores", new GraficoErrores(resultados));
+            
+            // Panel de control
+            tabbedPane.addTab("Señal de Control", new GraficoControl(resultados));
+            
+            frame.add(tabbedPane);
+            frame.setVisible(true);
+        }
     }
     
     // Clases para gráficos
     static class GraficoTemperaturas extends JPanel {
+        private static final Color[] COLORES = {Color.RED, Color.GREEN, Color.BLUE};
         private ResultadoSimulacion[] resultados;
         
+        // Eje de tiempo y series decimadas, calculados una sola vez
+        private double[] t;
+        private SerieDecimada[] series;
+        
         public GraficoTemperaturas(ResultadoSimulacion[] resultados) {
             this.resultados = resultados;
+            
+            int N = resultados[0].temperatura.length;
+            t = new double[N];
+            for (int i = 0; i < N; i++) {
+                t[i] = i * DT;
+            }
+            series = new SerieDecimada[resultados.length];
+            for (int i = 0; i < resultados.length; i++) {
+                series[i] = new SerieDecimada(t, resultados[i].temperatura);
+            }
             setBackground(Color.WHITE);
         }
         
+        // El gráfico es estático: se rasteriza una vez por tamaño del panel y luego solo se copia
+        private final CapaEstatica capa = new CapaEstatica(this::dibujar);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            capa.pintar(this, g);
+        }
+        
+        private void dibujar(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -348,12 +462,12 @@ public class C_02_Control_PID_sintonizacion {
             
             // Dibujar curvas
             for (int i = 0; i < resultados.length; i++) {
-                dibujarCurva(g2, resultados[i].temperatura, COLORES[i], padding, graphWidth, graphHeight);
+                dibujarCurva(g2, series[i], resultados[i].temperatura, COLORES[i], padding, graphWidth, graphHeight);
             }
             
             // Dibujar referencia
             g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{5}, 0));
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1);
             int yRef = height - padding - (int)((T_REF - 10) / 20.0 * graphHeight);
             g2.drawLine(padding, yRef, width - padding, yRef);
             
@@ -367,19 +481,16 @@ public class C_02_Control_PID_sintonizacion {
             g2.drawString("Temperatura [C]", padding / 4, height / 2);
         }
         
-        private void dibujarCurva(Graphics2D g2, double[] y, Color color, int padding, int graphWidth, int graphHeight) {
+        private void dibujarCurva(Graphics2D g2, SerieDecimada serie, double[] y, Color color,
+                                  int padding, int graphWidth, int graphHeight) {
             g2.setColor(color);
-            g2.setStroke(new BasicStroke(2));
-            
-            int N = y.length;
-            double[] t = new double[N];
-            for (int i = 0; i < N; i++) {
-                t[i] = i * DT;
-            }
+            g2.setStroke(EstiloGrafico.TRAZO_2);
             
-            for (int i = 1; i < N; i++) {
-                int x1 = (int)(padding + (t[i-1] / T_SIM) * graphWidth);
-                int y1 = (int)(getHeight() - padding - ((y[i-1] - 10) / 20.0) * graphHeight);
+            int[] puntos = serie.indices(graphWidth);
+            for (int j = 1; j < puntos.length; j++) {
+                int i0 = puntos[j-1], i = puntos[j];
+                int x1 = (int)(padding + (t[i0] / T_SIM) * graphWidth);
+                int y1 = (int)(getHeight() - padding - ((y[i0] - 10) / 20.0) * graphHeight);
                 int x2 = (int)(padding + (t[i] / T_SIM) * graphWidth);
                 int y2 = (int)(getHeight() - padding - ((y[i] - 10) / 20.0) * graphHeight);
                 g2.drawLine(x1, y1, x2, y2);
@@ -1,4 +1,5 @@
 import java.awt.*;
+import java.io.IOException;
 import java.util.*;
 import javax.swing.*;
 
@@ -13,19 +14,40 @@ public class C_03_Control_Identificar_modelo {
     private static final double DT = 0.01;
     private static final double T_AMB = 0.0; // Temperatura ambiente
     
-    public static void main(String[] args) {
+    // Flujos independientes del generador de ruido
+    private static final int FLUJO_EXCITACION = 0;
+    private static final int FLUJO_MEDICION = 1;
+    
+    public static void main(String[] args) throws IOException {
+        ModoLote modo = ModoLote.desdeArgumentos(args, ModoLote.OPCION_REGISTRO, ModoLote.OPCION_SEMILLA);
+        
         System.out.println("=== IDENTIFICACIÓN DE SISTEMAS + CONTROL PID - MÉTODO ANALÍTICO ===\n");
         
+        // Con --registro se identifica desde datos medidos en lugar de la planta simulada
+        if (modo.getArchivoRegistro() != null) {
+            identificarRegistro(modo.getArchivoRegistro(), modo.getColumnasRegistro(),
+                                modo.getMuestrasEstimacion());
+            return;
+        }
+        
         System.out.println("=== SISTEMA REAL (DESCONOCIDO) ===");
         System.out.printf("G(s) = %.2f/(%.2fs² + %.2fs + 1)\n", 
                          K_REAL, TAU_REAL*TAU_REAL, 2*ZETA_REAL*TAU_REAL);
         
         // 1. GENERACIÓN DE DATOS
-        DatosSimulacion datos = generarDatosSimulacion();
+        // Sin --semilla se elige una distinta en cada corrida; se informa para poder repetirla
+        long semilla = modo.getSemilla() != null ? modo.getSemilla() : System.nanoTime();
+        DatosSimulacion datos = generarDatosSimulacion(new RuidoContador(semilla));
         
         // 2. IDENTIFICACIÓN POR MÍNIMOS CUADRADOS
         ModeloIdentificado modelo = identificarSistema(datos);
         
+        // 2b. IDENTIFICACIÓN RECURSIVA (EN LÍNEA)
+        identificarEnLinea(datos, modelo);
+        
+        // 2c. SELECCIÓN DEL ORDEN DEL MODELO
+        seleccionarOrden(datos);
+        
         // 3. VALIDACIÓN DEL MODELO
         validarModelo(datos, modelo);
         
@@ -34,6 +56,14 @@ public class C_03_Control_Identificar_modelo {
         
         // 5. MOSTRAR RESULTADOS COMPLETOS
         mostrarResultadosCompletos(datos, modelo);
+        
+        // 6. EXPORTAR DATOS Y MOSTRAR GRÁFICOS (salvo en modo sin interfaz)
+        modo.exportar(new String[]{"t", "u", "y_real", "y_medida", "y_identificada"},
+                      datos.tiempo, datos.entrada, datos.salidaReal, datos.salidaMedida,
+                      modelo.salidaIdentificada);
+        if (modo.conInterfaz()) {
+            Interfaz.mostrarGraficosCompletos(datos, modelo);
+        }
     }
     
     // Clase para almacenar datos de simulación
@@ -76,8 +106,9 @@ public class C_03_Control_Identificar_modelo {
     }
     
     // 1. GENERACIÓN DE DATOS
-    private static DatosSimulacion generarDatosSimulacion() {
+    private static DatosSimulacion generarDatosSimulacion(RuidoContador ruido) {
         System.out.println("\n=== GENERANDO DATOS DE ENTRADA/SALIDA ===");
+        System.out.printf("Semilla del ruido: %d (repetir con --semilla %d)\n", ruido.getSemilla(), ruido.getSemilla());
         
         int N = (int)(T_SIM / DT) + 1;
         double[] t = new double[N];
@@ -103,10 +134,10 @@ public class C_03_Control_Identificar_modelo {
             }
         }
         
-        // Agregar ruido blanco pequeño
-        Random rand = new Random();
+        // Agregar ruido blanco pequeño (muestra i del flujo de excitación)
+        double[] ruidoEntrada = ruido.gaussianaParalela(FLUJO_EXCITACION, 0, 0.2, N);
         for (int i = 0; i < N; i++) {
-            u[i] += 0.2 * rand.nextGaussian();
+            u[i] += ruidoEntrada[i];
             u[i] = Math.max(Math.min(u[i], 6), 0); // Limitar señal
         }
         
@@ -127,8 +158,9 @@ public class C_03_Control_Identificar_modelo {
         
         // Agregar ruido de medición
         double stdReal = calcularDesviacionEstandar(yReal);
+        double[] ruidoMedicion = ruido.gaussianaParalela(FLUJO_MEDICION, 0, 0.05 * stdReal, N);
         for (int i = 0; i < N; i++) {
-            yMedida[i] = yReal[i] + 0.05 * stdReal * rand.nextGaussian();
+            yMedida[i] = yReal[i] + ruidoMedicion[i];
         }
         
         System.out.printf("Datos generados: %d puntos de muestreo\n", N);
@@ -151,29 +183,12 @@ public class C_03_Control_Identificar_modelo {
         
         System.out.printf("Estructura del modelo: na=%d, nb=%d, nk=%d\n", na, nb, nk);
         
-        // Preparar matriz de regresión
-        int N_data = N - Math.max(na, nb + nk - 1);
-        double[][] Phi = new double[N_data][na + nb];
-        double[] Y = new double[N_data];
+        // Ecuaciones normales acumuladas por bloques de filas en paralelo: términos AR (salidas
+        // pasadas) y X (entradas pasadas) sin construir la matriz de regresión de N filas
+        EcuacionesNormales normales = EcuacionesNormales.acumularARXParalelo(y, u, N, na, nb, nk);
         
-        int idx = 0;
-        for (int k = Math.max(na, nb + nk - 1); k < N; k++) {
-            // Términos AR (salidas pasadas)
-            for (int i = 0; i < na; i++) {
-                Phi[idx][i] = -y[k - (i + 1)];
-            }
-            
-            // Términos X (entradas pasadas)
-            for (int j = 0; j < nb; j++) {
-                Phi[idx][na + j] = u[k - (j + nk)];
-            }
-            
-            Y[idx] = y[k];
-            idx++;
-        }
-        
-        // Estimación por mínimos cuadrados
-        double[] theta = resolverMinimosCuadrados(Phi, Y);
+        // Estimación por mínimos cuadrados (Cholesky por bloques)
+        double[] theta = normales.resolver();
         
         // Extraer parámetros
         double a1 = theta[0];
@@ -200,9 +215,10 @@ public class C_03_Control_Identificar_modelo {
         double num2 = 4 * b1 / (T * T);
         
         // Normalizar
-        double K_ident = num0 / den0;
-        double tau_ident = Math.sqrt(den2 / den0);
-        double zeta_ident = den1 / (2 * tau_ident * den0);
+        double[] continuo = convertirAContinuo(a1, a2, b1);
+        double K_ident = continuo[0];
+        double tau_ident = continuo[1];
+        double zeta_ident = continuo[2];
         
         System.out.println("Modelo continuo aproximado:");
         System.out.printf("G(s) = (%.4f s² + %.4f s + %.4f) / (s² + %.4f s + %.4f)\n", 
@@ -230,6 +246,157 @@ public class C_03_Control_Identificar_modelo {
                                     metricas[0], metricas[1], metricas[2]);
     }
     
+    // 2b. IDENTIFICACIÓN RECURSIVA (EN LÍNEA)
+    private static void identificarEnLinea(DatosSimulacion datos, ModeloIdentificado modelo) {
+        System.out.println("\n=== IDENTIFICACIÓN RECURSIVA (RLS) ===");
+        
+        double lambda = 0.999;
+        System.out.printf("Factor de olvido λ = %.3f (ventana efectiva ≈ %.0f s)\n", lambda, DT / (1 - lambda));
+        
+        // Las mediciones se procesan una a una, como llegarían de la planta
+        IdentificadorARXEnLinea identificador = new IdentificadorARXEnLinea(lambda);
+        int N = datos.tiempo.length;
+        int cadaMuestras = (int)Math.round(10.0 / DT);
+        
+        System.out.println("  t [s]      a1        a2        b1         K        τ        ζ");
+        for (int k = 0; k < N; k++) {
+            identificador.agregarMuestra(datos.entrada[k], datos.salidaMedida[k]);
+            if (k > 0 && k % cadaMuestras == 0) {
+                double[] continuo = identificador.getParametrosContinuos();
+                System.out.printf("  %5.1f  %8.4f  %8.4f  %8.5f  %8.3f %8.3f %8.3f\n", datos.tiempo[k],
+                                 identificador.getA1(), identificador.getA2(), identificador.getB1(),
+                                 continuo[0], continuo[1], continuo[2]);
+            }
+        }
+        
+        System.out.printf("Diferencia con mínimos cuadrados por lotes: Δa1 = %.2e, Δa2 = %.2e, Δb1 = %.2e\n",
+                         identificador.getA1() - modelo.a1, identificador.getA2() - modelo.a2,
+                         identificador.getB1() - modelo.b1);
+    }
+    
+    // Identificación en línea del modelo ARX (na=2, nb=1, nk=1) por mínimos cuadrados recursivos:
+    // cada medición actualiza theta = [a1, a2, b1] en O(p²) y el modelo continuo está siempre disponible
+    static class IdentificadorARXEnLinea {
+        private final IdentificadorRLS rls;
+        private final double[] phi = new double[3];
+        
+        // Regresores: y(k-1), y(k-2), u(k-1)
+        private double yAnterior1, yAnterior2, uAnterior1;
+        private long recibidas = 0;
+        
+        IdentificadorARXEnLinea(double lambda) {
+            this.rls = new IdentificadorRLS(3, lambda, 1e3);
+        }
+        
+        void agregarMuestra(double u, double y) {
+            if (recibidas >= 2) {
+                phi[0] = -yAnterior1;
+                phi[1] = -yAnterior2;
+                phi[2] = uAnterior1;
+                rls.actualizar(phi, y);
+            }
+            yAnterior2 = yAnterior1;
+            yAnterior1 = y;
+            uAnterior1 = u;
+            recibidas++;
+        }
+        
+        double getA1() {
+            return rls.getParametro(0);
+        }
+        
+        double getA2() {
+            return rls.getParametro(1);
+        }
+        
+        double getB1() {
+            return rls.getParametro(2);
+        }
+        
+        // [K, τ, ζ] del modelo continuo equivalente a la estimación actual
+        double[] getParametrosContinuos() {
+            return convertirAContinuo(getA1(), getA2(), getB1());
+        }
+    }
+    
+    // IDENTIFICACIÓN DESDE UN REGISTRO MEDIDO (CSV o traza binaria)
+    // El registro se recorre en bloques, con memoria acotada sin importar su longitud: una pasada
+    // acumula las ecuaciones normales del tramo de estimación y otra valida con simulación libre.
+    // El corte lo da --estimacion; sin él se toma el 70%, y para conocer el total una traza solo lee
+    // su cabecera pero un CSV necesita una pasada más (en registros largos conviene indicar el corte)
+    private static void identificarRegistro(String archivo, String[] columnas, Long muestrasEstimacion)
+            throws IOException {
+        System.out.println("=== IDENTIFICACIÓN DESDE REGISTRO MEDIDO ===");
+        System.out.printf("Archivo: %s (u = %s, y = %s)\n", archivo, columnas[0], columnas[1]);
+        
+        int na = 2, nb = 1, nk = 1;
+        long inicio = System.nanoTime();
+        long nEstimacion = muestrasEstimacion != null ? muestrasEstimacion
+                : (long)(0.7 * RegistroEntradaSalida.contarMuestras(archivo));
+        
+        RegistroEntradaSalida.AcumuladorARX acumulador =
+                new RegistroEntradaSalida.AcumuladorARX(na, nb, nk, nEstimacion);
+        long N = RegistroEntradaSalida.leer(archivo, columnas[0], columnas[1], acumulador);
+        if (nEstimacion >= N) {
+            throw new IllegalArgumentException("El tramo de estimación (" + nEstimacion +
+                    " muestras) no deja datos de validación: el registro tiene " + N);
+        }
+        System.out.printf("Muestras: %d (estimación: %d, validación: %d)\n", N, nEstimacion, N - nEstimacion);
+        double[] theta = acumulador.getNormales().resolver();
+        double a1 = theta[0], a2 = theta[1], b1 = theta[2];
+        
+        RegistroEntradaSalida.ValidadorARX validador =
+                new RegistroEntradaSalida.ValidadorARX(theta, na, nb, nk, nEstimacion);
+        RegistroEntradaSalida.leer(archivo, columnas[0], columnas[1], validador);
+        double[] metricas = validador.getMetricas();
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        
+        System.out.printf("Estructura del modelo: na=%d, nb=%d, nk=%d\n", na, nb, nk);
+        System.out.printf("a1 = %.4f, a2 = %.4f, b1 = %.4f\n", a1, a2, b1);
+        System.out.printf("G(z) = (%.4f) / (z² + %.4f z + %.4f)\n", b1, a1, a2);
+        
+        double[] continuo = convertirAContinuo(a1, a2, b1);
+        System.out.printf("Modelo continuo (T = %.3f s): K = %.4f, τ = %.4f, ζ = %.4f\n",
+                         DT, continuo[0], continuo[1], continuo[2]);
+        System.out.printf("Validación (simulación libre): R² = %.4f, RMSE = %.4f, Fit = %.2f%%\n",
+                         metricas[0], metricas[1], metricas[2]);
+        System.out.printf("Tiempo de lectura e identificación: %.1f ms\n", ms);
+    }
+    
+    // 2c. SELECCIÓN DEL ORDEN DEL MODELO
+    private static void seleccionarOrden(DatosSimulacion datos) {
+        System.out.println("\n=== SELECCIÓN DEL ORDEN DEL MODELO (AIC / BIC / FPE) ===");
+        
+        // Estimación con el 70% inicial de los datos y validación (simulación libre) con el resto
+        int N = datos.tiempo.length;
+        int nEstimacion = (int)(0.7 * N);
+        SeleccionOrdenARX seleccion = new SeleccionOrdenARX(datos.salidaMedida, datos.entrada, nEstimacion,
+                                                            4, 4, 0, 3);
+        
+        long inicio = System.nanoTime();
+        java.util.List<SeleccionOrdenARX.Candidato> candidatos =
+                seleccion.evaluar(C_03_Control_Identificar_modelo::calcularMetricasValidacion);
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("%d candidatos (na=0..4, nb=1..4, nk=0..3) evaluados en %.1f ms\n",
+                         seleccion.getTotal(), ms);
+        
+        System.out.println("Mejores candidatos según BIC:");
+        System.out.println("  na nb nk       AIC         BIC         FPE       R²      Fit%");
+        java.util.List<SeleccionOrdenARX.Candidato> porBic =
+                SeleccionOrdenARX.ordenar(candidatos, SeleccionOrdenARX.Criterio.BIC);
+        for (int i = 0; i < Math.min(5, porBic.size()); i++) {
+            SeleccionOrdenARX.Candidato c = porBic.get(i);
+            System.out.printf("  %2d %2d %2d  %10.1f  %10.1f  %10.3e  %7.4f  %7.2f\n",
+                             c.na, c.nb, c.nk, c.aic, c.bic, c.fpe, c.R2, c.fit);
+        }
+        
+        for (SeleccionOrdenARX.Criterio criterio : SeleccionOrdenARX.Criterio.values()) {
+            SeleccionOrdenARX.Candidato c = SeleccionOrdenARX.ordenar(candidatos, criterio).get(0);
+            System.out.printf("Mejor por %-10s: na=%d, nb=%d, nk=%d (Fit = %.2f%%)\n",
+                             criterio, c.na, c.nb, c.nk, c.fit);
+        }
+    }
+    
     // 3. VALIDACIÓN DEL MODELO
     private static void validarModelo(DatosSimulacion datos, ModeloIdentificado modelo) {
         System.out.println("\n=== VALIDACIÓN DEL MODELO ===");
@@ -270,7 +437,7 @@ public class C_03_Control_Identificar_modelo {
         // Diseñar controladores para cada configuración
         System.out.println("\n=== CONSTANTES PID CALCULADAS ===");
         for (int i = 0; i < configNombres.length; i++) {
-            double[] pid = calcularConstantesPID(modelo, configZeta[i], configWn[i]);
+            double[] pid = calcularConstantesPID(modelo.K, modelo.tau, modelo.zeta, configZeta[i], configWn[i]);
             System.out.printf("\n%s:\n", configNombres[i]);
             System.out.printf("  Kp = %.3f\n", pid[0]);
             System.out.printf("  Ki = %.3f\n", pid[1]);
@@ -290,84 +457,19 @@ public class C_03_Control_Identificar_modelo {
         System.out.printf("✓ Validación: R² = %.4f, Fit = %.1f%%\n", modelo.R2, modelo.fitPercent);
         System.out.printf("✓ Parámetros continuos: K=%.3f, τ=%.3f, ζ=%.3f\n",
                          modelo.K, modelo.tau, modelo.zeta);
-        
-        // Mostrar gráficos
-        mostrarGraficosCompletos(datos, modelo);
     }
     
     // MÉTODOS AUXILIARES
-    private static double[] resolverMinimosCuadrados(double[][] A, double[] b) {
-        int m = A.length;
-        int n = A[0].length;
-        
-        // A^T * A
-        double[][] AtA = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                for (int k = 0; k < m; k++) {
-                    AtA[i][j] += A[k][i] * A[k][j];
-                }
-            }
-        }
-        
-        // A^T * b
-        double[] Atb = new double[n];
-        for (int i = 0; i < n; i++) {
-            for (int k = 0; k < m; k++) {
-                Atb[i] += A[k][i] * b[k];
-            }
-        }
-        
-        // Resolver sistema (AtA)x = Atb
-        return resolverSistemaLineal(AtA, Atb);
-    }
-    
-    private static double[] resolverSistemaLineal(double[][] A, double[] b) {
-        int n = b.length;
-        double[] x = new double[n];
-        
-        // Eliminación gaussiana simple
-        for (int i = 0; i < n; i++) {
-            // Pivote
-            double maxEl = Math.abs(A[i][i]);
-            int maxRow = i;
-            for (int k = i + 1; k < n; k++) {
-                if (Math.abs(A[k][i]) > maxEl) {
-                    maxEl = Math.abs(A[k][i]);
-                    maxRow = k;
-                }
-            }
-            
-            // Intercambiar filas
-            if (maxRow != i) {
-                double[] tempA = A[i];
-                A[i] = A[maxRow];
-                A[maxRow] = tempA;
-                double tempB = b[i];
-                b[i] = b[maxRow];
-                b[maxRow] = tempB;
-            }
-            
-            // Hacer triangular superior
-            for (int k = i + 1; k < n; k++) {
-                double factor = A[k][i] / A[i][i];
-                for (int j = i; j < n; j++) {
-                    A[k][j] -= factor * A[i][j];
-                }
-                b[k] -= factor * b[i];
-            }
-        }
-        
-        // Sustitución hacia atrás
-        for (int i = n - 1; i >= 0; i--) {
-            x[i] = b[i];
-            for (int j = i + 1; j < n; j++) {
-                x[i] -= A[i][j] * x[j];
-            }
-            x[i] /= A[i][i];
-        }
+    // Modelo discreto G(z) = b1 / (z² + a1 z + a2) a [K, τ, ζ] por transformación bilineal
+    private static double[] convertirAContinuo(double a1, double a2, double b1) {
+        double den0 = 1 + a1 + a2;
+        double den1 = 2 * (1 - a2) / DT;
+        double den2 = 4 * (1 - a1 + a2) / (DT * DT);
         
-        return x;
+        double K = b1 / den0;
+        double tau = Math.sqrt(den2 / den0);
+        double zeta = den1 / (2 * tau * den0);
+        return new double[]{K, tau, zeta};
     }
     
     private static double[] calcularMetricasValidacion(double[] yReal, double[] yIdent) {
@@ -390,11 +492,7 @@ public class C_03_Control_Identificar_modelo {
         return new double[]{R2, RMSE, fitPercent};
     }
     
-    private static double[] calcularConstantesPID(ModeloIdentificado modelo, double zetaD, double wnD) {
-        double K = modelo.K;
-        double tau = modelo.tau;
-        double zeta = modelo.zeta;
-        
+    private static double[] calcularConstantesPID(double K, double tau, double zeta, double zetaD, double wnD) {
         // Cálculo simplificado de constantes PID
         double Kp = (2 * zetaD * wnD * tau - 1) / K;
         double Ki = (wnD * wnD * tau * tau) / K;
@@ -440,18 +538,21 @@ public class C_03_Control_Identificar_modelo {
         return Math.sqrt(sum);
     }
     
-    private static void mostrarGraficosCompletos(DatosSimulacion datos, ModeloIdentificado modelo) {
-        JFrame frame = new JFrame("Identificación de Sistema + Control PID");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(1400, 800);
-        
-        JTabbedPane tabbedPane = new JTabbedPane();
-        tabbedPane.addTab("Identificación", new PanelIdentificacion(datos, modelo));
-        tabbedPane.addTab("Validación", new PanelValidacion(datos, modelo));
-        tabbedPane.addTab("Comparación", new PanelComparacion(datos, modelo));
-        
-        frame.add(tabbedPane);
-        frame.setVisible(true);
+    // Interfaz gráfica en una clase aparte: en modo sin interfaz nunca se carga AWT/Swing
+    static class Interfaz {
+        static void mostrarGraficosCompletos(DatosSimulacion datos, ModeloIdentificado modelo) {
+            JFrame frame = new JFrame("Identificación de Sistema + Control PID");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setSize(1400, 800);
+            
+            JTabbedPane tabbedPane = new JTabbedPane();
+            tabbedPane.addTab("Identificación", new PanelIdentificacion(datos, modelo));
+            tabbedPane.addTab("Validación", new PanelValidacion(datos, modelo));
+            tabbedPane.addTab("Comparación", new PanelComparacion(datos, modelo));
+            
+            frame.add(tabbedPane);
+            frame.setVisible(true);
+        }
     }
     
     // Paneles para gráficos - CORREGIDOS PARA DIBUJAR LAS CURVAS
@@ -459,17 +560,40 @@ public class C_03_Control_Identificar_modelo {
         private DatosSimulacion datos;
         private ModeloIdentificado modelo;
         
+        // Límites y series decimadas, calculados una sola vez
+        private double minY = Double.MAX_VALUE;
+        private double maxY = -Double.MAX_VALUE;
+        private SerieDecimada serieModelo, serieReal;
+        
         public PanelIdentificacion(DatosSimulacion datos, ModeloIdentificado modelo) {
             this.datos = datos;
             this.modelo = modelo;
+            
+            // Encontrar límites de los datos
+            for (double value : datos.salidaMedida) {
+                if (value < minY) minY = value;
+                if (value > maxY) maxY = value;
+            }
+            for (double value : modelo.salidaIdentificada) {
+                if (value < minY) minY = value;
+                if (value > maxY) maxY = value;
+            }
+            serieModelo = new SerieDecimada(modelo.tiempo, modelo.salidaIdentificada);
+            serieReal = new SerieDecimada(datos.tiempo, datos.salidaReal);
             setBackground(Color.WHITE);
             setPreferredSize(new Dimension(800, 600));
         }
         
+        // El gráfico es estático: se rasteriza una vez por tamaño del panel y luego solo se copia
+        private final CapaEstatica capa = new CapaEstatica(this::dibujar);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            capa.pintar(this, g);
+        }
+        
+        private void dibujar(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             dibujarGraficoIdentificacion(g2);
@@ -492,19 +616,6 @@ public class C_03_Control_Identificar_modelo {
             g2.drawString("Tiempo [s]", width/2 - 30, height - 20);
             g2.drawString("Amplitud", 20, height/2);
             
-            // Encontrar límites de los datos
-            double minY = Double.MAX_VALUE;
-            double maxY = -Double.MAX_VALUE;
-            
-            for (double value : datos.salidaMedida) {
-                if (value < minY) minY = value;
-                if (value > maxY) maxY = value;
-            }
-            for (double value : modelo.salidaIdentificada) {
-                if (value < minY) minY = value;
-                if (value > maxY) maxY = value;
-            }
-            
             // Dibujar datos medidos (puntos rojos)
             g2.setColor(Color.RED);
             for (int i = 0; i < datos.tiempo.length; i += 10) { // Muestrear cada 10 puntos para mejor rendimiento
@@ -515,10 +626,12 @@ public class C_03_Control_Identificar_modelo {
             
             // Dibujar modelo identificado (línea azul)
             g2.setColor(Color.BLUE);
-            g2.setStroke(new BasicStroke(2));
-            for (int i = 1; i < modelo.tiempo.length; i++) {
-                int x1 = (int)(padding + (modelo.tiempo[i-1] / T_SIM) * graphWidth);
-                int y1 = (int)(height - padding - ((modelo.salidaIdentificada[i-1] - minY) / (maxY - minY)) * graphHeight);
+            g2.setStroke(EstiloGrafico.TRAZO_2);
+            int[] puntos = serieModelo.indices(graphWidth);
+            for (int j = 1; j < puntos.length; j++) {
+                int i0 = puntos[j-1], i = puntos[j];
+                int x1 = (int)(padding + (modelo.tiempo[i0] / T_SIM) * graphWidth);
+                int y1 = (int)(height - padding - ((modelo.salidaIdentificada[i0] - minY) / (maxY - minY)) * graphHeight);
                 int x2 = (int)(padding + (modelo.tiempo[i] / T_SIM) * graphWidth);
                 int y2 = (int)(height - padding - ((modelo.salidaIdentificada[i] - minY) / (maxY - minY)) * graphHeight);
                 g2.drawLine(x1, y1, x2, y2);
@@ -526,10 +639,12 @@ public class C_03_Control_Identificar_modelo {
             
             // Dibujar sistema real (línea verde discontinua)
             g2.setColor(Color.GREEN);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{5}, 0));
-            for (int i = 1; i < datos.tiempo.length; i++) {
-                int x1 = (int)(padding + (datos.tiempo[i-1] / T_SIM) * graphWidth);
-                int y1 = (int)(height - padding - ((datos.salidaReal[i-1] - minY) / (maxY - minY)) * graphHeight);
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1);
+            puntos = serieReal.indices(graphWidth);
+            for (int j = 1; j < puntos.length; j++) {
+                int i0 = puntos[j-1], i = puntos[j];
+                int x1 = (int)(padding + (datos.tiempo[i0] / T_SIM) * graphWidth);
+                int y1 = (int)(height - padding - ((datos.salidaReal[i0] - minY) / (maxY - minY)) * graphHeight);
                 int x2 = (int)(padding + (datos.tiempo[i] / T_SIM) * graphWidth);
                 int y2 = (int)(height - padding - ((datos.salidaReal[i] - minY) / (maxY - minY)) * graphHeight);
                 g2.drawLine(x1, y1, x2, y2);
@@ -552,17 +667,40 @@ public class C_03_Control_Identificar_modelo {
         private DatosSimulacion datos;
         private ModeloIdentificado modelo;
         
+        // Error del modelo, su límite y su serie decimada, calculados una sola vez
+        private double[] error;
+        private double maxAbsError;
+        private SerieDecimada serieError;
+        
         public PanelValidacion(DatosSimulacion datos, ModeloIdentificado modelo) {
             this.datos = datos;
             this.modelo = modelo;
+            
+            // Calcular error
+            error = new double[datos.salidaMedida.length];
+            for (int i = 0; i < error.length; i++) {
+                error[i] = datos.salidaMedida[i] - modelo.salidaIdentificada[i];
+            }
+            
+            // Encontrar límites del error
+            double minError = Arrays.stream(error).min().orElse(0);
+            double maxError = Arrays.stream(error).max().orElse(0);
+            maxAbsError = Math.max(Math.abs(minError), Math.abs(maxError));
+            serieError = new SerieDecimada(datos.tiempo, error);
             setBackground(Color.WHITE);
             setPreferredSize(new Dimension(800, 600));
         }
         
+        // El gráfico es estático: se rasteriza una vez por tamaño del panel y luego solo se copia
+        private final CapaEstatica capa = new CapaEstatica(this::dibujar);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            capa.pintar(this, g);
+        }
+        
+        private void dibujar(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             dibujarGraficoValidacion(g2);
@@ -585,23 +723,14 @@ public class C_03_Control_Identificar_modelo {
             g2.drawString("Tiempo [s]", width/2 - 30, height - 20);
             g2.drawString("Error", 20, height/2);
             
-            // Calcular error
-            double[] error = new double[datos.salidaMedida.length];
-            for (int i = 0; i < error.length; i++) {
-                error[i] = datos.salidaMedida[i] - modelo.salidaIdentificada[i];
-            }
-            
-            // Encontrar límites del error
-            double minError = Arrays.stream(error).min().orElse(0);
-            double maxError = Arrays.stream(error).max().orElse(0);
-            double maxAbsError = Math.max(Math.abs(minError), Math.abs(maxError));
-            
             // Dibujar error
             g2.setColor(Color.MAGENTA);
-            g2.setStroke(new BasicStroke(2));
-            for (int i = 1; i < datos.tiempo.length; i++) {
-                int x1 = (int)(padding + (datos.tiempo[i-1] / T_SIM) * graphWidth);
-                int y1 = (int)(height - padding - ((error[i-1] + maxAbsError) / (2 * maxAbsError)) * graphHeight);
+            g2.setStroke(EstiloGrafico.TRAZO_2);
+            int[] puntos = serieError.indices(graphWidth);
+            for (int j = 1; j < puntos.length; j++) {
+                int i0 = puntos[j-1], i = puntos[j];
+                int x1 = (int)(padding + (datos.tiempo[i0] / T_SIM) * graphWidth);
+                int y1 = (int)(height - padding - ((error[i0] + maxAbsError) / (2 * maxAbsError)) * graphHeight);
                 int x2 = (int)(padding + (datos.tiempo[i] / T_SIM) * graphWidth);
                 int y2 = (int)(height - padding - ((error[i] + maxAbsError) / (2 * maxAbsError)) * graphHeight);
                 g2.drawLine(x1, y1, x2, y2);
@@ -609,7 +738,7 @@ public class C_03_Control_Identificar_modelo {
             
             // Línea de error cero
             g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{3}, 0));
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1_CORTO);
             int zeroY = (int)(height - padding - graphHeight/2);
             g2.drawLine(padding, zeroY, width - padding, zeroY);
             
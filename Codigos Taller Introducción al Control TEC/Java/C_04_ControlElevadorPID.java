@@ -1,5 +1,7 @@
 import java.awt.*;
+import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
 import javax.swing.*;
 import javax.swing.Timer;
 
@@ -25,136 +27,173 @@ public class C_04_ControlElevadorPID {
     
     // Tiempo de simulación
     private static final double T_SIM = 20.0;
-    private static final double DT = 0.01;
+    private static final double DT = 0.01;               // Periodo de registro [s]
+    
+    // Simulación multitasa: el PID muestrea cada 10 ms y retiene la fuerza; la planta (ZOH
+    // exacto) avanza un paso exacto por intervalo retenido, sin sub-pasos que no cambian nada
+    private static final double T_CONTROL = 0.01;        // Periodo de muestreo del controlador [s]
+    
+    // Muestras visibles en los gráficos en vivo (40.96 s con DT = 0.01 s): las series completas
+    // no se guardan, se exportan fila a fila a medida que se registran
+    private static final int CAPACIDAD_VENTANA = 4096;
+    private static final double T_VISIBLE = Math.min(T_SIM, (CAPACIDAD_VENTANA - 1) * DT);
+    
+    // Columnas de cada muestra [t, posición, fuerza, error]
+    private static final String[] ENCABEZADOS = {"t", "posicion", "fuerza", "error"};
+    private static final int COL_T = 0, COL_POSICION = 1, COL_FUERZA = 2, COL_ERROR = 3;
     
     // Variables de simulación
-    private static double[] tiempo;
-    private static double[] posicion;
-    private static double[] fuerza;
-    private static double[] error;
+    private static int totalMuestras;
+    private static VentanaMuestras ventana;
+    private static ModoLote.Exportacion exportacion;
     
-    public static void main(String[] args) {
+    // Métricas acumuladas durante la simulación
+    private static MetricasEnLinea metricas;
+    private static double maxFuerza;
+    
+    public static void main(String[] args) throws IOException {
+        ModoLote modo = ModoLote.desdeArgumentos(args);
+        
         System.out.println("=== CONTROL DE POSICIÓN DE ELEVADOR - SISTEMA DE 2DO ORDEN CON CONTROL PID ===\n");
         
         System.out.println("=== MODELO DEL ELEVADOR ===");
         System.out.printf("G(s) = %.1f m/N / (%.1fs² + %.1fs + 1)\n", K, TAU*TAU, 2*ZETA*TAU);
         
-        // Ejecutar simulación
-        simularSistema();
+        prepararSeries(modo);
         
-        // Mostrar resultados
-        mostrarResultados();
-        
-        // Iniciar animación
-        SwingUtilities.invokeLater(() -> iniciarAnimacion());
+        if (modo.conInterfaz()) {
+            // Simulación en vivo: un hilo produce las muestras y la interfaz las grafica mientras llegan;
+            // resultados y cierre de la exportación se hacen cuando se consumió la última muestra
+            AnilloMuestras anillo = new AnilloMuestras(1024, 4);
+            SwingUtilities.invokeLater(() -> Interfaz.iniciarAnimacion(anillo, () -> {
+                mostrarResultados();
+                try {
+                    exportacion.close();
+                } catch (IOException e) {
+                    System.err.println("No se pudieron exportar las series: " + e.getMessage());
+                }
+            }));
+            Thread simulacion = new Thread(() -> {
+                simularSistema(anillo::publicar);
+                anillo.cerrar();
+            }, "simulacion");
+            simulacion.start();
+        } else {
+            // Ejecutar simulación
+            simularSistema(C_04_ControlElevadorPID::registrarMuestra);
+            
+            // Mostrar resultados
+            mostrarResultados();
+            
+            // Cerrar la exportación de las series
+            exportacion.close();
+        }
     }
     
-    private static void simularSistema() {
-        int N = (int)(T_SIM / DT) + 1;
-        tiempo = new double[N];
-        posicion = new double[N];
-        fuerza = new double[N];
-        error = new double[N];
-        
-        // Inicializar arrays
-        for (int i = 0; i < N; i++) {
-            tiempo[i] = i * DT;
-        }
+    // La exportación se abre antes de simular: cada muestra se escribe cuando se registra
+    private static void prepararSeries(ModoLote modo) throws IOException {
+        totalMuestras = (int)(T_SIM / DT) + 1;
+        ventana = new VentanaMuestras(CAPACIDAD_VENTANA, ENCABEZADOS.length);
+        exportacion = modo.abrirExportacion(ENCABEZADOS, totalMuestras);
         
-        // Coeficientes de discretización
-        double coef_posk = 1/(DT*DT) + (2*ZETA)/(TAU*DT) + 1/(TAU*TAU);
-        double coef_posk1 = -2/(DT*DT) - (2*ZETA)/(TAU*DT);
-        double coef_posk2 = 1/(DT*DT);
+        metricas = new MetricasEnLinea(POS_REF, POS_INICIAL, 0.02 * POS_REF, DT);
+        maxFuerza = 0;
+    }
+    
+    // Registra una muestra [t, posición, fuerza, error]: la agrega a la ventana visible y a la
+    // exportación, y actualiza las métricas
+    private static void registrarMuestra(double[] fila) {
+        ventana.agregar(fila);
+        exportacion.agregar(fila);
         
-        // Condiciones iniciales
-        posicion[0] = POS_INICIAL;
-        posicion[1] = POS_INICIAL;
+        metricas.agregar(fila[COL_T], fila[COL_ERROR], fila[COL_POSICION]);
+        maxFuerza = Math.max(maxFuerza, Math.abs(fila[COL_FUERZA]));
+    }
+    
+    // Instante de la muestra más antigua de la ventana: origen del eje de tiempo de los gráficos
+    private static double tiempoInicialVisible() {
+        return ventana.size() > 0 ? ventana.valor(COL_T, 0) : 0.0;
+    }
+    
+    // Simula el lazo cerrado y entrega cada muestra registrada al destino
+    private static void simularSistema(Consumer<double[]> destino) {
+        int N = totalMuestras;
+        ControladorPID pid = new ControladorPID(KP, KI, KD, T_CONTROL, U_MIN, U_MAX);
+        double[] fila = new double[4];
         
-        double integral = 0.0;
-        double error_prev = 0.0;
+        // Estado de la planta x = [posición, velocidad] y fuerza retenida entre muestras
+        double[] estado = {POS_INICIAL, VEL_INICIAL};
+        double[] u = new double[1];
         
-        // Simulación del control PID
-        for (int k = 2; k < N; k++) {
-            // Cálculo del error actual
-            error[k] = POS_REF - posicion[k-1];
-            
-            // Término Proporcional
-            double P_term = KP * error[k];
-            
-            // Término Integral
-            integral += (error[k] + error_prev) * DT / 2;
-            double I_term = KI * integral;
-            
-            // Término Derivativo
-            double derivative = (error[k] - error_prev) / DT;
-            double D_term = KD * derivative;
-            
-            // Señal de control total
-            fuerza[k] = P_term + I_term + D_term;
-            fuerza[k] = Math.max(Math.min(fuerza[k], U_MAX), U_MIN);
-            
-            // Anti-windup
-            if (fuerza[k] >= U_MAX || fuerza[k] <= U_MIN) {
-                integral -= (error[k] + error_prev) * DT / 2;
-            }
-            
-            // Actualizar error anterior
-            error_prev = error[k];
-            
+        SimulacionMultitasa simulacion = new SimulacionMultitasa(T_CONTROL, DT);
+        simulacion.ejecutar(estado, u, (N - 1) * DT,
+            // Señal de control (PID con saturación y anti-windup)
+            (t, x, salida) -> salida[0] = pid.paso(POS_REF, x[0]),
             // Simulación del elevador
-            posicion[k] = (-coef_posk1 * posicion[k-1] - coef_posk2 * posicion[k-2] + 
-                          (K/(TAU*TAU)) * fuerza[k]) / coef_posk;
-        }
+            new SimulacionMultitasa.PlantaSegundoOrdenZOH(K, TAU, ZETA, 0.0),
+            // Registro en la malla de DT
+            (k, t, x, salida) -> {
+                fila[0] = t;
+                fila[1] = x[0];
+                fila[2] = salida[0];
+                fila[3] = POS_REF - x[0];
+                destino.accept(fila);
+            });
         
         System.out.println("Simulación completada exitosamente");
+        System.out.printf("Controlador: Ts = %.0f ms (fuerza retenida), planta: ZOH exacto, un paso por intervalo\n",
+                         T_CONTROL * 1000);
     }
     
     private static void mostrarResultados() {
         System.out.println("\n=== RESULTADOS DE LA SIMULACIÓN ===");
         System.out.printf("Posición inicial: %.1f m\n", POS_INICIAL);
         System.out.printf("Posición deseada: %.1f m\n", POS_REF);
-        System.out.printf("Posición final: %.3f m\n", posicion[posicion.length-1]);
-        System.out.printf("Error estacionario: %.4f m\n", error[error.length-1]);
+        System.out.printf("Posición final: %.3f m\n", metricas.getValorFinal());
+        System.out.printf("Error estacionario: %.4f m\n", metricas.getErrorFinal());
         System.out.printf("Tiempo de simulación: %.1f s\n", T_SIM);
-        
-        // Calcular fuerza máxima aplicada
-        double maxFuerza = 0;
-        for (double f : fuerza) {
-            maxFuerza = Math.max(maxFuerza, Math.abs(f));
-        }
         System.out.printf("Fuerza máxima aplicada: %.1f N\n", maxFuerza);
-        
-        // Calcular tiempo de establecimiento
-        double tolerance = 0.02 * POS_REF;
-        double settlingTime = T_SIM;
-        for (int i = 0; i < error.length; i++) {
-            if (Math.abs(error[i]) < tolerance) {
-                settlingTime = tiempo[i];
-                break;
-            }
-        }
-        System.out.printf("Tiempo de establecimiento: %.2f s\n", settlingTime);
-        
-        // Calcular sobrepico máximo
-        double maxPos = Arrays.stream(posicion).max().orElse(POS_REF);
-        double overshoot = Math.max(0, maxPos - POS_REF);
-        System.out.printf("Sobrepico máximo: %.3f m\n", overshoot);
+        double tSubida = metricas.getTiempoSubida();
+        System.out.println(Double.isNaN(tSubida) ? "Tiempo de subida: no alcanza el 90%"
+                : String.format("Tiempo de subida: %.2f s", tSubida));
+        System.out.printf("Tiempo de establecimiento: %.2f s\n", metricas.getTiempoEstablecimiento());
+        System.out.printf("Sobrepico máximo: %.3f m\n", metricas.getSobrepico());
+        System.out.printf("ISE: %.3f, IAE: %.3f, ITAE: %.3f\n", 
+                         metricas.getISE(), metricas.getIAE(), metricas.getITAE());
     }
     
-    private static void iniciarAnimacion() {
-        System.out.println("\n=== INICIANDO ANIMACIÓN ===");
-        
-        JFrame frame = new JFrame("Control de Elevador - Sistema PID");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(1200, 800);
-        
-        JTabbedPane tabbedPane = new JTabbedPane();
-        tabbedPane.addTab("Animación", new PanelAnimacion());
-        tabbedPane.addTab("Gráficos", new PanelGraficos());
-        tabbedPane.addTab("Análisis", new PanelAnalisis());
-        
-        frame.add(tabbedPane);
-        frame.setVisible(true);
+    // Interfaz gráfica en una clase aparte: en modo sin interfaz nunca se carga AWT/Swing
+    static class Interfaz {
+        static void iniciarAnimacion(AnilloMuestras anillo, Runnable alTerminar) {
+            System.out.println("\n=== INICIANDO ANIMACIÓN ===");
+            
+            JFrame frame = new JFrame("Control de Elevador - Sistema PID");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setSize(1200, 800);
+            
+            JTabbedPane tabbedPane = new JTabbedPane();
+            PanelAnalisis analisis = new PanelAnalisis();
+            tabbedPane.addTab("Animación", new PanelAnimacion());
+            tabbedPane.addTab("Gráficos", new PanelGraficos());
+            tabbedPane.addTab("Análisis", analisis);
+            
+            frame.add(tabbedPane);
+            frame.setVisible(true);
+            
+            // Consumo de las muestras en vivo (~60 veces por segundo) en el hilo de eventos
+            Timer consumo = new Timer(16, null);
+            consumo.addActionListener(e -> {
+                if (anillo.drenar(C_04_ControlElevadorPID::registrarMuestra) > 0) {
+                    tabbedPane.repaint();
+                }
+                if (anillo.terminado()) {
+                    consumo.stop();
+                    analisis.actualizar();
+                    alTerminar.run();
+                }
+            });
+            consumo.start();
+        }
     }
     
     // Panel de animación
@@ -164,9 +203,14 @@ public class C_04_ControlElevadorPID {
         private static final int EDIFICIO_WIDTH = 300;
         private static final int EDIFICIO_HEIGHT = 400;
         private static final int PADDING = 50;
+        private static final Color COLOR_EDIFICIO = new Color(200, 200, 200);
+        private static final Color COLOR_ELEVADOR = new Color(50, 150, 255);
+        
+        // Edificio, pisos, destino y título no cambian: se rasterizan una vez por tamaño del panel
+        private final CapaEstatica fondo = new CapaEstatica(this::dibujarFondo);
         
         private Timer timer;
-        private int currentIndex = 0;
+        private long currentIndex = 0;
         private double scaleY;
         
         public PanelAnimacion() {
@@ -175,9 +219,15 @@ public class C_04_ControlElevadorPID {
             
             // Configurar timer para animación
             timer = new Timer(50, e -> {
-                if (currentIndex < tiempo.length - 1) {
-                    currentIndex += 5; // Acelerar animación
-                    repaint();
+                if (currentIndex < totalMuestras - 1) {
+                    // Acelerar animación, sin pasar de la última muestra recibida; si la animación
+                    // quedó atrás de la ventana, salta a su muestra más antigua
+                    long siguiente = Math.min(Math.max(currentIndex + 5, ventana.getTotal() - ventana.size()),
+                                              ventana.getTotal() - 1);
+                    if (siguiente > currentIndex) {
+                        currentIndex = siguiente;
+                        repaint();
+                    }
                 } else {
                     timer.stop();
                 }
@@ -185,55 +235,31 @@ public class C_04_ControlElevadorPID {
             timer.start();
         }
         
+        // En cada cuadro solo se dibujan los cables, el elevador y los datos en tiempo real
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
+            fondo.pintar(this, g);
             Graphics2D g2 = (Graphics2D) g;
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
-            int width = getWidth();
-            int centerX = width / 2;
-            
-            // Dibujar edificio
-            g2.setColor(new Color(200, 200, 200));
-            g2.fillRect(centerX - EDIFICIO_WIDTH/2, PADDING, EDIFICIO_WIDTH, EDIFICIO_HEIGHT);
-            g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(3));
-            g2.drawRect(centerX - EDIFICIO_WIDTH/2, PADDING, EDIFICIO_WIDTH, EDIFICIO_HEIGHT);
-            
-            // Dibujar pisos
-            g2.setStroke(new BasicStroke(2));
-            for (int piso = 0; piso <= POS_REF; piso++) {
-                int y = getYFromPosition(piso);
-                g2.drawLine(centerX - EDIFICIO_WIDTH/2, y, centerX + EDIFICIO_WIDTH/2, y);
-                
-                // Etiqueta del piso
-                g2.drawString("Piso " + piso, centerX + EDIFICIO_WIDTH/2 + 10, y + 5);
-            }
-            
-            // Dibujar piso destino
-            g2.setColor(Color.RED);
-            g2.setStroke(new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 
-                0, new float[]{5}, 0));
-            int yDestino = getYFromPosition(POS_REF);
-            g2.drawLine(centerX - EDIFICIO_WIDTH/2, yDestino, centerX + EDIFICIO_WIDTH/2, yDestino);
-            g2.drawString("DESTINO", centerX + EDIFICIO_WIDTH/2 + 10, yDestino + 5);
+            int centerX = getWidth() / 2;
             
             // Dibujar cables
             g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(2));
-            int currentY = getYFromPosition(posicion[currentIndex]);
+            g2.setStroke(EstiloGrafico.TRAZO_2);
+            int currentY = getYFromPosition(ventana.valorAbsoluto(COL_POSICION, currentIndex));
             g2.drawLine(centerX - ELEVADOR_WIDTH/2, currentY + ELEVADOR_HEIGHT, 
                        centerX - EDIFICIO_WIDTH/2, PADDING);
             g2.drawLine(centerX + ELEVADOR_WIDTH/2, currentY + ELEVADOR_HEIGHT, 
                        centerX + EDIFICIO_WIDTH/2, PADDING);
             
             // Dibujar elevador
-            g2.setColor(new Color(50, 150, 255));
+            g2.setColor(COLOR_ELEVADOR);
             g2.fillRoundRect(centerX - ELEVADOR_WIDTH/2, currentY, 
                            ELEVADOR_WIDTH, ELEVADOR_HEIGHT, 15, 15);
             g2.setColor(Color.BLUE);
-            g2.setStroke(new BasicStroke(3));
+            g2.setStroke(EstiloGrafico.TRAZO_3);
             g2.drawRoundRect(centerX - ELEVADOR_WIDTH/2, currentY, 
                            ELEVADOR_WIDTH, ELEVADOR_HEIGHT, 15, 15);
             
@@ -244,13 +270,48 @@ public class C_04_ControlElevadorPID {
             
             // Información en tiempo real
             g2.setColor(Color.BLACK);
-            g2.setFont(new Font("Arial", Font.BOLD, 14));
+            g2.setFont(EstiloGrafico.ARIAL_NEGRITA_14);
             String info = String.format("Tiempo: %.1f s\nPosición: %.2f m\nError: %.3f m\nFuerza: %.1f N",
-                                      tiempo[currentIndex], posicion[currentIndex], 
-                                      error[currentIndex], fuerza[currentIndex]);
+                                      ventana.valorAbsoluto(COL_T, currentIndex),
+                                      ventana.valorAbsoluto(COL_POSICION, currentIndex),
+                                      ventana.valorAbsoluto(COL_ERROR, currentIndex),
+                                      ventana.valorAbsoluto(COL_FUERZA, currentIndex));
             drawMultiLineString(g2, info, 20, 50);
+        }
+        
+        private void dibujarFondo(Graphics2D g2) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            
+            int width = getWidth();
+            int centerX = width / 2;
+            
+            // Dibujar edificio
+            g2.setColor(COLOR_EDIFICIO);
+            g2.fillRect(centerX - EDIFICIO_WIDTH/2, PADDING, EDIFICIO_WIDTH, EDIFICIO_HEIGHT);
+            g2.setColor(Color.BLACK);
+            g2.setStroke(EstiloGrafico.TRAZO_3);
+            g2.drawRect(centerX - EDIFICIO_WIDTH/2, PADDING, EDIFICIO_WIDTH, EDIFICIO_HEIGHT);
+            
+            // Dibujar pisos
+            g2.setStroke(EstiloGrafico.TRAZO_2);
+            for (int piso = 0; piso <= POS_REF; piso++) {
+                int y = getYFromPosition(piso);
+                g2.drawLine(centerX - EDIFICIO_WIDTH/2, y, centerX + EDIFICIO_WIDTH/2, y);
+                
+                // Etiqueta del piso
+                g2.drawString("Piso " + piso, centerX + EDIFICIO_WIDTH/2 + 10, y + 5);
+            }
+            
+            // Dibujar piso destino
+            g2.setColor(Color.RED);
+            g2.setStroke(EstiloGrafico.DISCONTINUO_2);
+            int yDestino = getYFromPosition(POS_REF);
+            g2.drawLine(centerX - EDIFICIO_WIDTH/2, yDestino, centerX + EDIFICIO_WIDTH/2, yDestino);
+            g2.drawString("DESTINO", centerX + EDIFICIO_WIDTH/2 + 10, yDestino + 5);
             
             // Título
+            g2.setColor(Color.BLACK);
+            g2.setFont(EstiloGrafico.ARIAL_NEGRITA_14);
             g2.drawString("ANIMACIÓN DEL ELEVADOR - CONTROL PID", width/2 - 150, 30);
         }
         
@@ -280,10 +341,26 @@ public class C_04_ControlElevadorPID {
     }
     
     static class GraficoPosicion extends JPanel {
+        // Ejes, títulos, referencia y leyenda: se rasterizan una vez por tamaño del panel
+        private final CapaEstatica fondo = new CapaEstatica(this::dibujarFondo);
+        
+        // Curva en vivo sobre el fondo: cada repintado solo agrega los segmentos nuevos
+        private final SerieEnVivo posicion = new SerieEnVivo(ventana, COL_T, COL_POSICION,
+                Color.BLUE, EstiloGrafico.TRAZO_2);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            fondo.pintar(this, g);
+            int width = getWidth();
+            int height = getHeight();
+            int padding = 50;
+            posicion.pintar(this, g, width - 2 * padding,
+                    padding, tiempoInicialVisible(), (width - 2 * padding) / T_VISIBLE,
+                    height - padding, 0, (height - 2 * padding) / (POS_REF + 2));
+        }
+        
+        private void dibujarFondo(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -300,22 +377,9 @@ public class C_04_ControlElevadorPID {
             g2.drawString("Tiempo [s]", width/2 - 30, height - 10);
             g2.drawString("Posición [m]", 10, height/2);
             
-            // Dibujar curva de posición
-            g2.setColor(Color.BLUE);
-            g2.setStroke(new BasicStroke(2));
-            
-            for (int i = 1; i < tiempo.length; i++) {
-                int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                int y1 = (int)(height - padding - (posicion[i-1] / (POS_REF + 2)) * (height - 2 * padding));
-                int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y2 = (int)(height - padding - (posicion[i] / (POS_REF + 2)) * (height - 2 * padding));
-                g2.drawLine(x1, y1, x2, y2);
-            }
-            
             // Dibujar referencia
             g2.setColor(Color.RED);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 
-                0, new float[]{5}, 0));
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1);
             int yRef = (int)(height - padding - (POS_REF / (POS_REF + 2)) * (height - 2 * padding));
             g2.drawLine(padding, yRef, width - padding, yRef);
             
@@ -328,10 +392,28 @@ public class C_04_ControlElevadorPID {
     }
     
     static class GraficoError extends JPanel {
+        // Ejes, títulos y línea de error cero: se rasterizan una vez por tamaño del panel
+        private final CapaEstatica fondo = new CapaEstatica(this::dibujarFondo);
+        
+        // Curva en vivo sobre el fondo: cada repintado solo agrega los segmentos nuevos (se
+        // redibuja entera si crece el error máximo, que fija la escala)
+        private final SerieEnVivo error = new SerieEnVivo(ventana, COL_T, COL_ERROR,
+                Color.MAGENTA, EstiloGrafico.TRAZO_2);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            fondo.pintar(this, g);
+            int width = getWidth();
+            int height = getHeight();
+            int padding = 50;
+            double maxError = metricas.getErrorAbsMaximo();
+            error.pintar(this, g, width - 2 * padding,
+                    padding, tiempoInicialVisible(), (width - 2 * padding) / T_VISIBLE,
+                    height - padding, -maxError, (height - 2 * padding) / (2 * maxError));
+        }
+        
+        private void dibujarFondo(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -348,35 +430,35 @@ public class C_04_ControlElevadorPID {
             g2.drawString("Tiempo [s]", width/2 - 30, height - 10);
             g2.drawString("Error [m]", 10, height/2);
             
-            // Encontrar máximo error para escalado
-            double maxError = Arrays.stream(error).map(Math::abs).max().orElse(1.0);
-            
-            // Dibujar curva de error
-            g2.setColor(Color.MAGENTA);
-            g2.setStroke(new BasicStroke(2));
-            
-            for (int i = 1; i < tiempo.length; i++) {
-                int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                int y1 = (int)(height - padding - ((error[i-1] + maxError) / (2 * maxError)) * (height - 2 * padding));
-                int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y2 = (int)(height - padding - ((error[i] + maxError) / (2 * maxError)) * (height - 2 * padding));
-                g2.drawLine(x1, y1, x2, y2);
-            }
-            
             // Línea de error cero
             g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 
-                0, new float[]{3}, 0));
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1_CORTO);
             int zeroY = (int)(height - padding - (height - 2 * padding) / 2);
             g2.drawLine(padding, zeroY, width - padding, zeroY);
         }
     }
     
     static class GraficoFuerza extends JPanel {
+        // Ejes y títulos: se rasterizan una vez por tamaño del panel
+        private final CapaEstatica fondo = new CapaEstatica(this::dibujarFondo);
+        
+        // Curva en vivo sobre el fondo: cada repintado solo agrega los segmentos nuevos
+        private final SerieEnVivo fuerza = new SerieEnVivo(ventana, COL_T, COL_FUERZA,
+                Color.GREEN, EstiloGrafico.TRAZO_2);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            fondo.pintar(this, g);
+            int width = getWidth();
+            int height = getHeight();
+            int padding = 50;
+            fuerza.pintar(this, g, width - 2 * padding,
+                    padding, tiempoInicialVisible(), (width - 2 * padding) / T_VISIBLE,
+                    height - padding, U_MIN, (height - 2 * padding) / (U_MAX - U_MIN));
+        }
+        
+        private void dibujarFondo(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -392,25 +474,18 @@ public class C_04_ControlElevadorPID {
             g2.drawString("Fuerza del Motor", width/2 - 50, 20);
             g2.drawString("Tiempo [s]", width/2 - 30, height - 10);
             g2.drawString("Fuerza [N]", 10, height/2);
-            
-            // Dibujar curva de fuerza
-            g2.setColor(Color.GREEN);
-            g2.setStroke(new BasicStroke(2));
-            
-            for (int i = 1; i < tiempo.length; i++) {
-                int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                int y1 = (int)(height - padding - ((fuerza[i-1] - U_MIN) / (U_MAX - U_MIN)) * (height - 2 * padding));
-                int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y2 = (int)(height - padding - ((fuerza[i] - U_MIN) / (U_MAX - U_MIN)) * (height - 2 * padding));
-                g2.drawLine(x1, y1, x2, y2);
-            }
         }
     }
     
     static class GraficoComparacion extends JPanel {
+        // Título y leyenda: se rasterizan una vez por tamaño del panel
+        private final CapaEstatica fondo = new CapaEstatica(this::dibujarFondo);
+        
+        // Los puntos (uno de cada 10 muestras) se dibujan sobre el fondo en cada repintado
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
+            fondo.pintar(this, g);
             Graphics2D g2 = (Graphics2D) g;
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
@@ -419,25 +494,33 @@ public class C_04_ControlElevadorPID {
             int height = getHeight();
             int padding = 50;
             
-            // Título
-            g2.drawString("Comparación de Señales", width/2 - 60, 20);
+            int n = ventana.size();
+            double t0 = tiempoInicialVisible();
             
             // Dibujar posición (azul)
             g2.setColor(Color.BLUE);
-            for (int i = 1; i < tiempo.length; i += 10) {
-                int x = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y = (int)(height - padding - (posicion[i] / (POS_REF + 2)) * (height - 2 * padding));
+            for (int i = 1; i < n; i += 10) {
+                int x = (int)(padding + ((ventana.valor(COL_T, i) - t0) / T_VISIBLE) * (width - 2 * padding));
+                int y = (int)(height - padding - (ventana.valor(COL_POSICION, i) / (POS_REF + 2)) * (height - 2 * padding));
                 g2.fillOval(x-1, y-1, 3, 3);
             }
             
             // Dibujar error (magenta)
             g2.setColor(Color.MAGENTA);
-            double maxError = Arrays.stream(error).map(Math::abs).max().orElse(1.0);
-            for (int i = 1; i < tiempo.length; i += 10) {
-                int x = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y = (int)(height - padding - ((error[i] + maxError) / (2 * maxError)) * (height - 2 * padding));
+            double maxError = metricas.getErrorAbsMaximo();
+            for (int i = 1; i < n; i += 10) {
+                int x = (int)(padding + ((ventana.valor(COL_T, i) - t0) / T_VISIBLE) * (width - 2 * padding));
+                int y = (int)(height - padding - ((ventana.valor(COL_ERROR, i) + maxError) / (2 * maxError)) * (height - 2 * padding));
                 g2.fillOval(x-1, y-1, 3, 3);
             }
+        }
+        
+        private void dibujarFondo(Graphics2D g2) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int width = getWidth();
+            
+            // Título
+            g2.drawString("Comparación de Señales", width/2 - 60, 20);
             
             // Leyenda
             g2.setColor(Color.BLUE);
@@ -451,14 +534,22 @@ public class C_04_ControlElevadorPID {
     
     // Panel de análisis
     static class PanelAnalisis extends JPanel {
+        private final JTextArea textArea;
+        
         public PanelAnalisis() {
             setBackground(Color.WHITE);
             setLayout(new BorderLayout());
             
-            JTextArea textArea = new JTextArea();
+            textArea = new JTextArea();
             textArea.setEditable(false);
-            textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            textArea.setFont(EstiloGrafico.MONOESPACIADA_12);
             
+            actualizar();
+            add(new JScrollPane(textArea), BorderLayout.CENTER);
+        }
+        
+        // Rehace el texto con las métricas actuales (se llama de nuevo al terminar la simulación)
+        void actualizar() {
             StringBuilder sb = new StringBuilder();
             sb.append("=== ANÁLISIS DEL SISTEMA ===\n\n");
             sb.append(String.format("PARÁMETROS DEL ELEVADOR:\n"));
@@ -472,18 +563,12 @@ public class C_04_ControlElevadorPID {
             sb.append(String.format("  Kd: %.1f N·s/m\n\n", KD));
             
             sb.append("RESULTADOS:\n");
-            sb.append(String.format("  Posición final: %.3f m\n", posicion[posicion.length-1]));
-            sb.append(String.format("  Error estacionario: %.4f m\n", error[error.length-1]));
-            
-            double maxFuerza = Arrays.stream(fuerza).map(Math::abs).max().orElse(0.0);
+            sb.append(String.format("  Posición final: %.3f m\n", metricas.getValorFinal()));
+            sb.append(String.format("  Error estacionario: %.4f m\n", metricas.getErrorFinal()));
             sb.append(String.format("  Fuerza máxima: %.1f N\n", maxFuerza));
-            
-            double maxPos = Arrays.stream(posicion).max().orElse(POS_REF);
-            double overshoot = Math.max(0, maxPos - POS_REF);
-            sb.append(String.format("  Sobrepico: %.3f m\n", overshoot));
+            sb.append(String.format("  Sobrepico: %.3f m\n", metricas.getSobrepico()));
             
             textArea.setText(sb.toString());
-            add(new JScrollPane(textArea), BorderLayout.CENTER);
         }
     }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 import java.awt.*;
-import java.util.*;
+import java.io.IOException;
+import java.util.function.Consumer;
 import javax.swing.*;
-import java.awt.geom.*;
 import javax.swing.Timer;
 
 public class C_05_ControlBrazoRobotico2GDL {
@@ -31,17 +31,31 @@ public class C_05_ControlBrazoRobotico2GDL {
     
     // Tiempo de simulación
     private static final double T_SIM = 10.0;
-    private static final double DT = 0.01;
+    private static final double DT = 0.01;          // Periodo de registro [s]
+    private static final double T_CONTROL = 0.01;   // Periodo de muestreo de los PID [s]
+    
+    // Muestras visibles en los gráficos y la trayectoria en vivo (40.96 s con DT = 0.01 s): las
+    // series completas no se guardan, se exportan fila a fila a medida que se registran
+    private static final int CAPACIDAD_VENTANA = 4096;
+    private static final double T_VISIBLE = Math.min(T_SIM, (CAPACIDAD_VENTANA - 1) * DT);
+    
+    // Columnas de cada muestra: las exportadas y, al final, la posición del codo
+    private static final String[] ENCABEZADOS = {"t", "theta1", "theta2", "omega1", "omega2", "tau1", "tau2", "x2", "y2"};
+    private static final int COL_T = 0, COL_THETA1 = 1, COL_THETA2 = 2, COL_TAU1 = 5, COL_TAU2 = 6;
+    private static final int COL_X2 = 7, COL_Y2 = 8, COL_X1 = 9, COL_Y1 = 10;
     
     // Variables de simulación
-    private static double[] tiempo;
-    private static double[] theta1, theta2;
-    private static double[] omega1, omega2;
-    private static double[] tau1, tau2;
-    private static double[] error1, error2;
-    private static double[] x1, y1, x2, y2;
+    private static int totalMuestras;
+    private static VentanaMuestras ventana;
+    private static ModoLote.Exportacion exportacion;
+    private static final double[] muestra = new double[11];
     
-    public static void main(String[] args) {
+    // Torques máximos acumulados durante la simulación
+    private static double maxTau1, maxTau2;
+    
+    public static void main(String[] args) throws IOException {
+        ModoLote modo = ModoLote.desdeArgumentos(args);
+        
         System.out.println("=== CONTROL DE BRAZO ROBÓTICO - 2 GRADOS DE LIBERTAD CON CONTROL PID ===\n");
         
         System.out.println("=== PARÁMETROS DEL BRAZO ===");
@@ -54,115 +68,141 @@ public class C_05_ControlBrazoRobotico2GDL {
         System.out.printf("ARTICULACIÓN 1: Kp=%.1f, Ki=%.1f, Kd=%.1f\n", KP, KI, KD);
         System.out.printf("ARTICULACIÓN 2: Kp=%.1f, Ki=%.1f, Kd=%.1f\n", KP, KI, KD);
         
-        // Ejecutar simulación
-        simularSistema();
+        prepararSeries(modo);
         
-        // Mostrar resultados
-        mostrarResultados();
-        
-        // Iniciar animación
-        SwingUtilities.invokeLater(() -> iniciarAnimacion());
+        if (modo.conInterfaz()) {
+            // Simulación en vivo: un hilo produce las muestras y la interfaz las anima mientras llegan;
+            // resultados y cierre de la exportación se hacen cuando se consumió la última muestra
+            AnilloMuestras anillo = new AnilloMuestras(1024, 7);
+            SwingUtilities.invokeLater(() -> Interfaz.iniciarAnimacion(anillo, () -> {
+                mostrarResultados();
+                try {
+                    exportacion.close();
+                } catch (IOException e) {
+                    System.err.println("No se pudieron exportar las series: " + e.getMessage());
+                }
+            }));
+            Thread simulacion = new Thread(() -> {
+                simularSistema(anillo::publicar);
+                anillo.cerrar();
+            }, "simulacion");
+            simulacion.start();
+        } else {
+            // Ejecutar simulación
+            simularSistema(C_05_ControlBrazoRobotico2GDL::registrarMuestra);
+            
+            // Mostrar resultados
+            mostrarResultados();
+            
+            // Cerrar la exportación de las series
+            exportacion.close();
+        }
     }
     
-    private static void simularSistema() {
-        int N = (int)(T_SIM / DT) + 1;
-        
-        // Inicializar arrays
-        tiempo = new double[N];
-        theta1 = new double[N]; theta2 = new double[N];
-        omega1 = new double[N]; omega2 = new double[N];
-        tau1 = new double[N]; tau2 = new double[N];
-        error1 = new double[N]; error2 = new double[N];
-        x1 = new double[N]; y1 = new double[N];
-        x2 = new double[N]; y2 = new double[N];
-        
-        // Inicializar tiempo
-        for (int i = 0; i < N; i++) {
-            tiempo[i] = i * DT;
-        }
+    // La exportación se abre antes de simular: cada muestra se escribe cuando se registra
+    private static void prepararSeries(ModoLote modo) throws IOException {
+        totalMuestras = (int)(T_SIM / DT) + 1;
+        ventana = new VentanaMuestras(CAPACIDAD_VENTANA, muestra.length);
+        exportacion = modo.abrirExportacion(ENCABEZADOS, totalMuestras);
+        maxTau1 = 0;
+        maxTau2 = 0;
+    }
+    
+    // Registra una muestra [t, θ1, θ2, ω1, ω2, τ1, τ2]: calcula las posiciones y la agrega a la
+    // ventana visible y a la exportación
+    private static void registrarMuestra(double[] fila) {
+        System.arraycopy(fila, 0, muestra, 0, 7);
+        maxTau1 = Math.max(maxTau1, Math.abs(fila[COL_TAU1]));
+        maxTau2 = Math.max(maxTau2, Math.abs(fila[COL_TAU2]));
         
-        // Condiciones iniciales
-        theta1[0] = THETA1_INITIAL;
-        theta2[0] = THETA2_INITIAL;
-        omega1[0] = 0;
-        omega2[0] = 0;
+        // Calcular posiciones
+        double th1 = fila[COL_THETA1], th2 = fila[COL_THETA2];
+        muestra[COL_X1] = L1 * Math.cos(th1);
+        muestra[COL_Y1] = L1 * Math.sin(th1);
+        muestra[COL_X2] = muestra[COL_X1] + L2 * Math.cos(th1 + th2);
+        muestra[COL_Y2] = muestra[COL_Y1] + L2 * Math.sin(th1 + th2);
+        
+        ventana.agregar(muestra);
+        exportacion.agregar(muestra);
+    }
+    
+    // Instante de la muestra más antigua de la ventana: origen del eje de tiempo de los gráficos
+    private static double tiempoInicialVisible() {
+        return ventana.size() > 0 ? ventana.valor(COL_T, 0) : 0.0;
+    }
+    
+    // Simula el lazo cerrado y entrega cada muestra registrada al destino
+    private static void simularSistema(Consumer<double[]> destino) {
+        int N = totalMuestras;
         
         // Momentos de inercia
         double I1 = M1 * L1 * L1 / 3.0;
         double I2 = M2 * L2 * L2 / 3.0;
         
-        // Variables PID
-        double integral1 = 0, integral2 = 0;
-        double error1_prev = 0, error2_prev = 0;
-        
-        // Simulación del sistema
-        for (int k = 0; k < N - 1; k++) {
-            // Cálculo de errores
-            error1[k] = THETA1_REF - theta1[k];
-            error2[k] = THETA2_REF - theta2[k];
-            
-            // CONTROL PID ARTICULACIÓN 1
-            double P1 = KP * error1[k];
-            integral1 += error1[k] * DT;
-            double I1_term = KI * integral1;
-            double derivative1 = (error1[k] - error1_prev) / DT;
-            double D1 = KD * derivative1;
-            tau1[k] = P1 + I1_term + D1;
-            
-            // CONTROL PID ARTICULACIÓN 2
-            double P2 = KP * error2[k];
-            integral2 += error2[k] * DT;
-            double I2_term = KI * integral2;
-            double derivative2 = (error2[k] - error2_prev) / DT;
-            double D2 = KD * derivative2;
-            tau2[k] = P2 + I2_term + D2;
-            
-            // Saturación de torques
-            tau1[k] = Math.max(Math.min(tau1[k], TAU_MAX), TAU_MIN);
-            tau2[k] = Math.max(Math.min(tau2[k], TAU_MAX), TAU_MIN);
-            
-            // Anti-windup
-            if (tau1[k] >= TAU_MAX || tau1[k] <= TAU_MIN) {
-                integral1 -= error1[k] * DT;
-            }
-            if (tau2[k] >= TAU_MAX || tau2[k] <= TAU_MIN) {
-                integral2 -= error2[k] * DT;
-            }
-            
-            // DINÁMICA DEL BRAZO (modelo simplificado)
-            // Aceleraciones angulares
-            double alpha1 = (tau1[k] - M2 * L1 * L2 * Math.sin(theta2[k]) * omega2[k] * omega2[k] -
-                          (M1 * G * L1 / 2 + M2 * G * L1) * Math.cos(theta1[k])) / I1;
-            
-            double alpha2 = (tau2[k] + M2 * L1 * L2 * Math.sin(theta2[k]) * omega1[k] * omega1[k] -
-                          M2 * G * L2 / 2 * Math.cos(theta1[k] + theta2[k])) / I2;
-            
-            // Integración numérica (Euler)
-            omega1[k + 1] = omega1[k] + alpha1 * DT;
-            omega2[k + 1] = omega2[k] + alpha2 * DT;
-            theta1[k + 1] = theta1[k] + omega1[k] * DT;
-            theta2[k + 1] = theta2[k] + omega2[k] * DT;
-            
-            // Actualizar errores anteriores
-            error1_prev = error1[k];
-            error2_prev = error2[k];
-            
-            // Calcular posiciones
-            x1[k] = L1 * Math.cos(theta1[k]);
-            y1[k] = L1 * Math.sin(theta1[k]);
-            x2[k] = x1[k] + L2 * Math.cos(theta1[k] + theta2[k]);
-            y2[k] = y1[k] + L2 * Math.sin(theta1[k] + theta2[k]);
-        }
+        // Controladores PID (integración rectangular)
+        ControladorPID pid1 = new ControladorPID(KP, KI, KD, T_CONTROL, TAU_MIN, TAU_MAX, false);
+        ControladorPID pid2 = new ControladorPID(KP, KI, KD, T_CONTROL, TAU_MIN, TAU_MAX, false);
+        
+        // DINÁMICA DEL BRAZO (modelo simplificado) integrada con Dormand-Prince 5(4):
+        // la planta sub-muestrea con paso adaptativo dentro de cada intervalo de torque retenido
+        SimulacionMultitasa.PlantaAdaptativa brazo = new SimulacionMultitasa.PlantaAdaptativa(
+                new DinamicaBrazo(I1, I2), 4, 2, 1e-6, 1e-9);
+        double[] estado = {THETA1_INITIAL, THETA2_INITIAL, 0, 0};
+        double[] torques = new double[2];
+        double[] fila = new double[7];
         
-        // Último cálculo
-        error1[N-1] = THETA1_REF - theta1[N-1];
-        error2[N-1] = THETA2_REF - theta2[N-1];
-        x1[N-1] = L1 * Math.cos(theta1[N-1]);
-        y1[N-1] = L1 * Math.sin(theta1[N-1]);
-        x2[N-1] = x1[N-1] + L2 * Math.cos(theta1[N-1] + theta2[N-1]);
-        y2[N-1] = y1[N-1] + L2 * Math.sin(theta1[N-1] + theta2[N-1]);
+        SimulacionMultitasa simulacion = new SimulacionMultitasa(T_CONTROL, DT);
+        simulacion.ejecutar(estado, torques, (N - 1) * DT,
+            // CONTROL PID ARTICULACIONES 1 Y 2 (con saturación y anti-windup)
+            (t, x, u) -> {
+                u[0] = pid1.paso(THETA1_REF, x[0]);
+                u[1] = pid2.paso(THETA2_REF, x[1]);
+            },
+            brazo,
+            // Registro en la malla de DT
+            (k, t, x, u) -> {
+                fila[0] = t;
+                System.arraycopy(x, 0, fila, 1, 4);
+                fila[5] = u[0];
+                fila[6] = u[1];
+                destino.accept(fila);
+            });
         
+        IntegradorDormandPrince integrador = brazo.getIntegrador();
         System.out.println("Simulación completada exitosamente");
+        System.out.printf("Integrador RK45: %d evaluaciones de la dinámica (%d pasos aceptados, %d rechazados)\n",
+                         integrador.getEvaluaciones(), integrador.getPasosAceptados(), 
+                         integrador.getPasosRechazados());
+        System.out.printf("Multitasa: PID cada %.0f ms, %.2f sub-pasos de la planta por muestra del controlador\n",
+                         T_CONTROL * 1000, integrador.getPasosAceptados() / Math.rint((N - 1) * DT / T_CONTROL));
+    }
+    
+    // Dinámica del brazo: estado x = [θ1, θ2, ω1, ω2]
+    static class DinamicaBrazo implements SimulacionMultitasa.SistemaConEntrada {
+        private final double I1, I2;
+        
+        DinamicaBrazo(double I1, double I2) {
+            this.I1 = I1;
+            this.I2 = I2;
+        }
+        
+        @Override
+        public void derivadas(double t, double[] x, double[] u, double[] dxdt) {
+            double th1 = x[0], th2 = x[1], w1 = x[2], w2 = x[3];
+            double tau1 = u[0], tau2 = u[1];
+            
+            // Aceleraciones angulares
+            double alpha1 = (tau1 - M2 * L1 * L2 * Math.sin(th2) * w2 * w2 -
+                          (M1 * G * L1 / 2 + M2 * G * L1) * Math.cos(th1)) / I1;
+            
+            double alpha2 = (tau2 + M2 * L1 * L2 * Math.sin(th2) * w1 * w1 -
+                          M2 * G * L2 / 2 * Math.cos(th1 + th2)) / I2;
+            
+            dxdt[0] = w1;
+            dxdt[1] = w2;
+            dxdt[2] = alpha1;
+            dxdt[3] = alpha2;
+        }
     }
     
     private static void mostrarResultados() {
@@ -178,58 +218,93 @@ public class C_05_ControlBrazoRobotico2GDL {
         double y_ref = L1 * Math.sin(THETA1_REF) + L2 * Math.sin(THETA1_REF + THETA2_REF);
         System.out.printf("  Posición efector: (%.3f, %.3f) m\n", x_ref, y_ref);
         
+        double theta1Final = ventana.ultimo(COL_THETA1), theta2Final = ventana.ultimo(COL_THETA2);
+        double x2Final = ventana.ultimo(COL_X2), y2Final = ventana.ultimo(COL_Y2);
         System.out.println("\nRESULTADOS FINALES:");
         System.out.printf("  θ₁ final: %.3f° (error: %.3f°)\n", 
-                         Math.toDegrees(theta1[theta1.length-1]), Math.toDegrees(error1[error1.length-1]));
+                         Math.toDegrees(theta1Final), Math.toDegrees(THETA1_REF - theta1Final));
         System.out.printf("  θ₂ final: %.3f° (error: %.3f°)\n", 
-                         Math.toDegrees(theta2[theta2.length-1]), Math.toDegrees(error2[error2.length-1]));
+                         Math.toDegrees(theta2Final), Math.toDegrees(THETA2_REF - theta2Final));
         System.out.printf("  Posición final: (%.3f, %.3f) m\n", 
-                         x2[x2.length-1], y2[y2.length-1]);
+                         x2Final, y2Final);
         
-        double pos_error = Math.sqrt(Math.pow(x_ref - x2[x2.length-1], 2) + 
-                                   Math.pow(y_ref - y2[y2.length-1], 2));
+        double pos_error = Math.sqrt(Math.pow(x_ref - x2Final, 2) + 
+                                   Math.pow(y_ref - y2Final, 2));
         System.out.printf("  Error posición: %.4f m\n", pos_error);
         
-        // Calcular torques máximos
-        double maxTau1 = Arrays.stream(tau1).map(Math::abs).max().orElse(0.0);
-        double maxTau2 = Arrays.stream(tau2).map(Math::abs).max().orElse(0.0);
+        // Torques máximos
         System.out.printf("\nTORQUES MÁXIMOS:\n");
         System.out.printf("  τ₁ max: %.1f Nm\n", maxTau1);
         System.out.printf("  τ₂ max: %.1f Nm\n", maxTau2);
     }
     
-    private static void iniciarAnimacion() {
-        System.out.println("\n=== INICIANDO ANIMACIÓN ===");
-        
-        JFrame frame = new JFrame("Brazo Robótico 2 GDL - Control PID");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(1400, 800);
-        
-        JTabbedPane tabbedPane = new JTabbedPane();
-        tabbedPane.addTab("Animación", new PanelAnimacion());
-        tabbedPane.addTab("Ángulos y Torques", new PanelAngulosTorques());
-        tabbedPane.addTab("Análisis", new PanelAnalisis());
-        
-        frame.add(tabbedPane);
-        frame.setVisible(true);
+    // Interfaz gráfica en una clase aparte: en modo sin interfaz nunca se carga AWT/Swing
+    static class Interfaz {
+        static void iniciarAnimacion(AnilloMuestras anillo, Runnable alTerminar) {
+            System.out.println("\n=== INICIANDO ANIMACIÓN ===");
+            
+            JFrame frame = new JFrame("Brazo Robótico 2 GDL - Control PID");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setSize(1400, 800);
+            
+            JTabbedPane tabbedPane = new JTabbedPane();
+            PanelAnalisis analisis = new PanelAnalisis();
+            tabbedPane.addTab("Animación", new PanelAnimacion());
+            tabbedPane.addTab("Ángulos y Torques", new PanelAngulosTorques());
+            tabbedPane.addTab("Análisis", analisis);
+            
+            frame.add(tabbedPane);
+            frame.setVisible(true);
+            
+            // Consumo de las muestras en vivo (~60 veces por segundo) en el hilo de eventos
+            Timer consumo = new Timer(16, null);
+            consumo.addActionListener(e -> {
+                if (anillo.drenar(C_05_ControlBrazoRobotico2GDL::registrarMuestra) > 0) {
+                    tabbedPane.repaint();
+                }
+                if (anillo.terminado()) {
+                    consumo.stop();
+                    analisis.actualizar();
+                    alTerminar.run();
+                }
+            });
+            consumo.start();
+        }
     }
     
     // Panel de animación principal
     static class PanelAnimacion extends JPanel {
+        private static final Color COLOR_AREA_TRABAJO = new Color(240, 240, 240);
+        private static final double ESCALA = 150; // Escala para visualización
+        
+        // Posición deseada del efector final
+        private static final double X_REF = L1 * Math.cos(THETA1_REF) + L2 * Math.cos(THETA1_REF + THETA2_REF);
+        private static final double Y_REF = L1 * Math.sin(THETA1_REF) + L2 * Math.sin(THETA1_REF + THETA2_REF);
+        
+        // Área de trabajo, ejes, objetivo, título y leyenda no cambian: se rasterizan una vez por tamaño
+        private final CapaEstatica fondo = new CapaEstatica(this::dibujarFondo);
+        
         private Timer timer;
-        private int currentIndex = 0;
-        private ArrayList<Point2D.Double> trayectoria;
+        private long currentIndex = 0;
+        private final TrayectoriaIncremental trayectoria;
         
         public PanelAnimacion() {
             setBackground(Color.WHITE);
-            trayectoria = new ArrayList<>();
+            trayectoria = new TrayectoriaIncremental(CAPACIDAD_VENTANA);
             
             // Configurar timer para animación
             timer = new Timer(50, e -> {
-                if (currentIndex < tiempo.length - 1) {
-                    currentIndex += 2; // Acelerar animación
-                    trayectoria.add(new Point2D.Double(x2[currentIndex], y2[currentIndex]));
-                    repaint();
+                if (currentIndex < totalMuestras - 1) {
+                    // Acelerar animación, sin pasar de la última muestra recibida; si la animación
+                    // quedó atrás de la ventana, salta a su muestra más antigua
+                    long siguiente = Math.min(Math.max(currentIndex + 2, ventana.getTotal() - ventana.size()),
+                                              ventana.getTotal() - 1);
+                    if (siguiente > currentIndex) {
+                        currentIndex = siguiente;
+                        trayectoria.agregar(ventana.valorAbsoluto(COL_X2, currentIndex),
+                                            ventana.valorAbsoluto(COL_Y2, currentIndex));
+                        repaint();
+                    }
                 } else {
                     timer.stop();
                 }
@@ -237,61 +312,36 @@ public class C_05_ControlBrazoRobotico2GDL {
             timer.start();
         }
         
+        // En cada cuadro solo se dibujan la trayectoria, el brazo y los datos en tiempo real
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
+            fondo.pintar(this, g);
             Graphics2D g2 = (Graphics2D) g;
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
-            int width = getWidth();
-            int height = getHeight();
-            int centerX = width / 2;
-            int centerY = height / 2;
-            double scale = 150; // Escala para visualización
-            
-            // Dibujar área de trabajo
-            g2.setColor(new Color(240, 240, 240));
-            g2.fillRect(0, 0, width, height);
-            
-            // Dibujar ejes coordenados
-            g2.setColor(Color.LIGHT_GRAY);
-            g2.drawLine(0, centerY, width, centerY); // Eje X
-            g2.drawLine(centerX, 0, centerX, height); // Eje Y
-            
-            // Posición deseada del efector final
-            double x_ref = L1 * Math.cos(THETA1_REF) + L2 * Math.cos(THETA1_REF + THETA2_REF);
-            double y_ref = L1 * Math.sin(THETA1_REF) + L2 * Math.sin(THETA1_REF + THETA2_REF);
-            int targetX = centerX + (int)(x_ref * scale);
-            int targetY = centerY - (int)(y_ref * scale);
-            
-            // Dibujar posición deseada
-            g2.setColor(Color.RED);
-            g2.fillOval(targetX - 5, targetY - 5, 10, 10);
-            g2.drawString("Objetivo", targetX + 10, targetY);
+            int centerX = getWidth() / 2;
+            int centerY = getHeight() / 2;
+            double scale = ESCALA;
             
-            // Dibujar trayectoria
-            g2.setColor(Color.MAGENTA);
-            for (int i = 1; i < trayectoria.size(); i++) {
-                Point2D.Double p1 = trayectoria.get(i-1);
-                Point2D.Double p2 = trayectoria.get(i);
-                int x1 = centerX + (int)(p1.x * scale);
-                int y1 = centerY - (int)(p1.y * scale);
-                int x2 = centerX + (int)(p2.x * scale);
-                int y2 = centerY - (int)(p2.y * scale);
-                g2.drawLine(x1, y1, x2, y2);
-            }
+            // Dibujar trayectoria (solo se rasterizan los segmentos agregados desde el cuadro anterior)
+            trayectoria.pintar(this, g, centerX, centerY, scale, Color.MAGENTA);
             
             // Dibujar brazo robótico
             int shoulderX = centerX;
             int shoulderY = centerY;
-            int elbowX = centerX + (int)(x1[currentIndex] * scale);
-            int elbowY = centerY - (int)(y1[currentIndex] * scale);
-            int wristX = centerX + (int)(x2[currentIndex] * scale);
-            int wristY = centerY - (int)(y2[currentIndex] * scale);
+            double x1 = ventana.valorAbsoluto(COL_X1, currentIndex);
+            double y1 = ventana.valorAbsoluto(COL_Y1, currentIndex);
+            double x2 = ventana.valorAbsoluto(COL_X2, currentIndex);
+            double y2 = ventana.valorAbsoluto(COL_Y2, currentIndex);
+            int elbowX = centerX + (int)(x1 * scale);
+            int elbowY = centerY - (int)(y1 * scale);
+            int wristX = centerX + (int)(x2 * scale);
+            int wristY = centerY - (int)(y2 * scale);
             
             // Eslabón 1
             g2.setColor(Color.BLUE);
-            g2.setStroke(new BasicStroke(8));
+            g2.setStroke(EstiloGrafico.TRAZO_8);
             g2.drawLine(shoulderX, shoulderY, elbowX, elbowY);
             
             // Eslabón 2
@@ -308,28 +358,54 @@ public class C_05_ControlBrazoRobotico2GDL {
             
             // Información en tiempo real
             g2.setColor(Color.BLACK);
-            g2.setFont(new Font("Arial", Font.BOLD, 12));
+            g2.setFont(EstiloGrafico.ARIAL_NEGRITA_12);
             String info = String.format(
                 "Tiempo: %.1f s\n" +
                 "θ₁: %.1f° (ref: %.1f°)\n" +
                 "θ₂: %.1f° (ref: %.1f°)\n" +
                 "Posición: (%.2f, %.2f) m\n" +
                 "Error: %.3f m",
-                tiempo[currentIndex],
-                Math.toDegrees(theta1[currentIndex]), Math.toDegrees(THETA1_REF),
-                Math.toDegrees(theta2[currentIndex]), Math.toDegrees(THETA2_REF),
-                x2[currentIndex], y2[currentIndex],
-                Math.sqrt(Math.pow(x_ref - x2[currentIndex], 2) + Math.pow(y_ref - y2[currentIndex], 2))
+                ventana.valorAbsoluto(COL_T, currentIndex),
+                Math.toDegrees(ventana.valorAbsoluto(COL_THETA1, currentIndex)), Math.toDegrees(THETA1_REF),
+                Math.toDegrees(ventana.valorAbsoluto(COL_THETA2, currentIndex)), Math.toDegrees(THETA2_REF),
+                x2, y2,
+                Math.sqrt(Math.pow(X_REF - x2, 2) + Math.pow(Y_REF - y2, 2))
             );
             
             drawMultiLineString(g2, info, 20, 30);
+        }
+        
+        private void dibujarFondo(Graphics2D g2) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            
+            int width = getWidth();
+            int height = getHeight();
+            int centerX = width / 2;
+            int centerY = height / 2;
+            
+            // Dibujar área de trabajo
+            g2.setColor(COLOR_AREA_TRABAJO);
+            g2.fillRect(0, 0, width, height);
+            
+            // Dibujar ejes coordenados
+            g2.setColor(Color.LIGHT_GRAY);
+            g2.drawLine(0, centerY, width, centerY); // Eje X
+            g2.drawLine(centerX, 0, centerX, height); // Eje Y
+            
+            // Dibujar posición deseada
+            int targetX = centerX + (int)(X_REF * ESCALA);
+            int targetY = centerY - (int)(Y_REF * ESCALA);
+            g2.setColor(Color.RED);
+            g2.fillOval(targetX - 5, targetY - 5, 10, 10);
+            g2.drawString("Objetivo", targetX + 10, targetY);
             
             // Título
-            g2.setFont(new Font("Arial", Font.BOLD, 16));
+            g2.setColor(Color.BLACK);
+            g2.setFont(EstiloGrafico.ARIAL_NEGRITA_16);
             g2.drawString("ANIMACIÓN BRAZO ROBÓTICO 2 GDL - CONTROL PID", width/2 - 180, 25);
             
             // Leyenda
-            g2.setFont(new Font("Arial", Font.PLAIN, 12));
+            g2.setFont(EstiloGrafico.ARIAL_12);
             g2.setColor(Color.BLUE);
             g2.drawString("Eslabón 1", width - 100, 30);
             g2.setColor(Color.GREEN);
@@ -360,10 +436,31 @@ public class C_05_ControlBrazoRobotico2GDL {
     }
     
     static class GraficoAngulos extends JPanel {
+        // Ejes, títulos, referencias y leyenda: se rasterizan una vez por tamaño del panel
+        private final CapaEstatica fondo = new CapaEstatica(this::dibujarFondo);
+        
+        // Curvas en vivo sobre el fondo: cada repintado solo agrega los segmentos nuevos
+        private final SerieEnVivo theta1 = new SerieEnVivo(ventana, COL_T, COL_THETA1,
+                Color.BLUE, EstiloGrafico.TRAZO_2);
+        private final SerieEnVivo theta2 = new SerieEnVivo(ventana, COL_T, COL_THETA2,
+                Color.RED, EstiloGrafico.TRAZO_2);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            fondo.pintar(this, g);
+            int width = getWidth();
+            int height = getHeight();
+            int padding = 50;
+            // Ángulos en radianes sobre un eje de 0 a 180°
+            double t0 = tiempoInicialVisible();
+            theta1.pintar(this, g, width - 2 * padding, padding, t0, (width - 2 * padding) / T_VISIBLE,
+                    height - padding, 0, (height - 2 * padding) / Math.PI);
+            theta2.pintar(this, g, width - 2 * padding, padding, t0, (width - 2 * padding) / T_VISIBLE,
+                    height - padding, 0, (height - 2 * padding) / Math.PI);
+        }
+        
+        private void dibujarFondo(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -380,31 +477,9 @@ public class C_05_ControlBrazoRobotico2GDL {
             g2.drawString("Tiempo [s]", width/2 - 30, height - 10);
             g2.drawString("Ángulo [°]", 10, height/2);
             
-            // Dibujar curvas de ángulos
-            // θ1 - Azul
-            g2.setColor(Color.BLUE);
-            g2.setStroke(new BasicStroke(2));
-            for (int i = 1; i < tiempo.length; i++) {
-                int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                int y1 = (int)(height - padding - (Math.toDegrees(theta1[i-1]) / 180.0) * (height - 2 * padding));
-                int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y2 = (int)(height - padding - (Math.toDegrees(theta1[i]) / 180.0) * (height - 2 * padding));
-                g2.drawLine(x1, y1, x2, y2);
-            }
-            
-            // θ2 - Rojo
-            g2.setColor(Color.RED);
-            for (int i = 1; i < tiempo.length; i++) {
-                int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                int y1 = (int)(height - padding - (Math.toDegrees(theta2[i-1]) / 180.0) * (height - 2 * padding));
-                int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y2 = (int)(height - padding - (Math.toDegrees(theta2[i]) / 180.0) * (height - 2 * padding));
-                g2.drawLine(x1, y1, x2, y2);
-            }
-            
             // Referencias
             g2.setColor(Color.BLUE);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{5}, 0));
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1);
             int yRef1 = (int)(height - padding - (Math.toDegrees(THETA1_REF) / 180.0) * (height - 2 * padding));
             g2.drawLine(padding, yRef1, width - padding, yRef1);
             
@@ -421,10 +496,30 @@ public class C_05_ControlBrazoRobotico2GDL {
     }
     
     static class GraficoTorques extends JPanel {
+        // Ejes, títulos y leyenda: se rasterizan una vez por tamaño del panel
+        private final CapaEstatica fondo = new CapaEstatica(this::dibujarFondo);
+        
+        // Curvas en vivo sobre el fondo: cada repintado solo agrega los segmentos nuevos
+        private final SerieEnVivo tau1 = new SerieEnVivo(ventana, COL_T, COL_TAU1,
+                Color.BLUE, EstiloGrafico.TRAZO_2);
+        private final SerieEnVivo tau2 = new SerieEnVivo(ventana, COL_T, COL_TAU2,
+                Color.RED, EstiloGrafico.TRAZO_2);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            fondo.pintar(this, g);
+            int width = getWidth();
+            int height = getHeight();
+            int padding = 50;
+            double t0 = tiempoInicialVisible();
+            tau1.pintar(this, g, width - 2 * padding, padding, t0, (width - 2 * padding) / T_VISIBLE,
+                    height - padding, TAU_MIN, (height - 2 * padding) / (TAU_MAX - TAU_MIN));
+            tau2.pintar(this, g, width - 2 * padding, padding, t0, (width - 2 * padding) / T_VISIBLE,
+                    height - padding, TAU_MIN, (height - 2 * padding) / (TAU_MAX - TAU_MIN));
+        }
+        
+        private void dibujarFondo(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -441,28 +536,6 @@ public class C_05_ControlBrazoRobotico2GDL {
             g2.drawString("Tiempo [s]", width/2 - 30, height - 10);
             g2.drawString("Torque [Nm]", 10, height/2);
             
-            // Dibujar curvas de torques
-            // τ1 - Azul
-            g2.setColor(Color.BLUE);
-            g2.setStroke(new BasicStroke(2));
-            for (int i = 1; i < tiempo.length; i++) {
-                int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                int y1 = (int)(height - padding - ((tau1[i-1] - TAU_MIN) / (TAU_MAX - TAU_MIN)) * (height - 2 * padding));
-                int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y2 = (int)(height - padding - ((tau1[i] - TAU_MIN) / (TAU_MAX - TAU_MIN)) * (height - 2 * padding));
-                g2.drawLine(x1, y1, x2, y2);
-            }
-            
-            // τ2 - Rojo
-            g2.setColor(Color.RED);
-            for (int i = 1; i < tiempo.length; i++) {
-                int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                int y1 = (int)(height - padding - ((tau2[i-1] - TAU_MIN) / (TAU_MAX - TAU_MIN)) * (height - 2 * padding));
-                int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
-                int y2 = (int)(height - padding - ((tau2[i] - TAU_MIN) / (TAU_MAX - TAU_MIN)) * (height - 2 * padding));
-                g2.drawLine(x1, y1, x2, y2);
-            }
-            
             // Leyenda
             g2.setColor(Color.BLUE);
             g2.drawString("τ₁", width - 60, 30);
@@ -473,14 +546,22 @@ public class C_05_ControlBrazoRobotico2GDL {
     
     // Panel de análisis
     static class PanelAnalisis extends JPanel {
+        private final JTextArea textArea;
+        
         public PanelAnalisis() {
             setBackground(Color.WHITE);
             setLayout(new BorderLayout());
             
-            JTextArea textArea = new JTextArea();
+            textArea = new JTextArea();
             textArea.setEditable(false);
-            textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            textArea.setFont(EstiloGrafico.MONOESPACIADA_12);
             
+            actualizar();
+            add(new JScrollPane(textArea), BorderLayout.CENTER);
+        }
+        
+        // Rehace el texto con los valores actuales (se llama de nuevo al terminar la simulación)
+        void actualizar() {
             StringBuilder sb = new StringBuilder();
             sb.append("=== ANÁLISIS DEL SISTEMA ===\n\n");
             
@@ -499,26 +580,24 @@ public class C_05_ControlBrazoRobotico2GDL {
             sb.append(String.format("  Ki: %.1f\n", KI));
             sb.append(String.format("  Kd: %.1f\n\n", KD));
             
+            double theta1Final = ventana.ultimo(COL_THETA1), theta2Final = ventana.ultimo(COL_THETA2);
             sb.append("RESULTADOS FINALES:\n");
-            sb.append(String.format("  θ₁ final: %.2f°\n", Math.toDegrees(theta1[theta1.length-1])));
-            sb.append(String.format("  θ₂ final: %.2f°\n", Math.toDegrees(theta2[theta2.length-1])));
-            sb.append(String.format("  Error θ₁: %.3f°\n", Math.toDegrees(error1[error1.length-1])));
-            sb.append(String.format("  Error θ₂: %.3f°\n", Math.toDegrees(error2[error2.length-1])));
+            sb.append(String.format("  θ₁ final: %.2f°\n", Math.toDegrees(theta1Final)));
+            sb.append(String.format("  θ₂ final: %.2f°\n", Math.toDegrees(theta2Final)));
+            sb.append(String.format("  Error θ₁: %.3f°\n", Math.toDegrees(THETA1_REF - theta1Final)));
+            sb.append(String.format("  Error θ₂: %.3f°\n", Math.toDegrees(THETA2_REF - theta2Final)));
             
             double x_ref = L1 * Math.cos(THETA1_REF) + L2 * Math.cos(THETA1_REF + THETA2_REF);
             double y_ref = L1 * Math.sin(THETA1_REF) + L2 * Math.sin(THETA1_REF + THETA2_REF);
-            double pos_error = Math.sqrt(Math.pow(x_ref - x2[x2.length-1], 2) + 
-                                       Math.pow(y_ref - y2[y2.length-1], 2));
+            double pos_error = Math.sqrt(Math.pow(x_ref - ventana.ultimo(COL_X2), 2) + 
+                                       Math.pow(y_ref - ventana.ultimo(COL_Y2), 2));
             sb.append(String.format("  Error posición: %.4f m\n\n", pos_error));
             
-            double maxTau1 = Arrays.stream(tau1).map(Math::abs).max().orElse(0.0);
-            double maxTau2 = Arrays.stream(tau2).map(Math::abs).max().orElse(0.0);
             sb.append("TORQUES MÁXIMOS:\n");
             sb.append(String.format("  τ₁ max: %.1f Nm\n", maxTau1));
             sb.append(String.format("  τ₂ max: %.1f Nm\n", maxTau2));
             
             textArea.setText(sb.toString());
-            add(new JScrollPane(textArea), BorderLayout.CENTER);
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 import java.awt.*;
+import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
 import javax.swing.*;
 
 public class C_extra_01_ControlSinSobrepico {
@@ -22,10 +24,10 @@ public class C_extra_01_ControlSinSobrepico {
     // Clase para almacenar configuraciones
     static class ConfiguracionPID {
         String nombre;
-        Color color;
+        int color;                  // RGB (sin tipos de AWT en los datos de simulación)
         double Kp, Ki, Kd;
         
-        public ConfiguracionPID(String nombre, Color color, double Kp, double Ki, double Kd) {
+        public ConfiguracionPID(String nombre, int color, double Kp, double Ki, double Kd) {
             this.nombre = nombre;
             this.color = color;
             this.Kp = Kp;
@@ -36,16 +38,18 @@ public class C_extra_01_ControlSinSobrepico {
     
     // Configuraciones para respuesta sin sobrepico
     private static final ConfiguracionPID[] CONFIGS = {
-        new ConfiguracionPID("Muy Suave", Color.BLUE, 2.0, 0.8, 8.0),
-        new ConfiguracionPID("Balanceada", Color.GREEN, 3.5, 1.5, 6.0),
-        new ConfiguracionPID("Rápida Sin Sobrepico", Color.RED, 5.0, 2.0, 4.0)
+        new ConfiguracionPID("Muy Suave", 0x0000FF, 2.0, 0.8, 8.0),
+        new ConfiguracionPID("Balanceada", 0x00FF00, 3.5, 1.5, 6.0),
+        new ConfiguracionPID("Rápida Sin Sobrepico", 0xFF0000, 5.0, 2.0, 4.0)
     };
     
     // Variables de simulación
     private static double[] tiempo;
     private static ArrayList<ResultadoSimulacion> resultados;
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        ModoLote modo = ModoLote.desdeArgumentos(args);
+        
         System.out.println("=== CONTROL SIN SOBREPICO - RESPUESTA GRADUAL ===\n");
         
         System.out.println("Configuraciones para respuesta sin sobrepico:");
@@ -60,11 +64,35 @@ public class C_extra_01_ControlSinSobrepico {
         // Mostrar resultados
         mostrarResultados();
         
+        // Ganancias buscadas automáticamente con las mismas restricciones
+        sintonizarAutomaticamente();
+        
         // Mostrar guía
         mostrarGuia();
         
-        // Mostrar gráficos
-        SwingUtilities.invokeLater(() -> mostrarGraficos());
+        // Exportar series y mostrar gráficos (salvo en modo sin interfaz)
+        exportarSeries(modo);
+        if (modo.conInterfaz()) {
+            SwingUtilities.invokeLater(() -> Interfaz.mostrarGraficos());
+        }
+    }
+    
+    // Columnas: t, y para cada configuración T_i, u_i, e_i
+    private static void exportarSeries(ModoLote modo) throws IOException {
+        String[] encabezados = new String[1 + 3 * resultados.size()];
+        double[][] columnas = new double[encabezados.length][];
+        encabezados[0] = "t";
+        columnas[0] = tiempo;
+        for (int i = 0; i < resultados.size(); i++) {
+            ResultadoSimulacion resultado = resultados.get(i);
+            encabezados[1 + 3*i] = "T_" + (i + 1);
+            encabezados[2 + 3*i] = "u_" + (i + 1);
+            encabezados[3 + 3*i] = "e_" + (i + 1);
+            columnas[1 + 3*i] = resultado.temperatura;
+            columnas[2 + 3*i] = resultado.control;
+            columnas[3 + 3*i] = resultado.error;
+        }
+        modo.exportar(encabezados, columnas);
     }
     
     private static void simularSistemas() {
@@ -77,69 +105,51 @@ public class C_extra_01_ControlSinSobrepico {
             tiempo[i] = i * DT;
         }
         
-        // Coeficientes de discretización
-        double coef_Tk = 1/(DT*DT) + (2*ZETA_NATURAL)/(TAU*DT) + 1/(TAU*TAU);
-        double coef_Tk1 = -2/(DT*DT) - (2*ZETA_NATURAL)/(TAU*DT);
-        double coef_Tk2 = 1/(DT*DT);
+        // Ganancias de todas las configuraciones en arreglos contiguos
+        int nConfig = CONFIGS.length;
+        double[] kp = new double[nConfig];
+        double[] ki = new double[nConfig];
+        double[] kd = new double[nConfig];
+        for (int c = 0; c < nConfig; c++) {
+            kp[c] = CONFIGS[c].Kp;
+            ki[c] = CONFIGS[c].Ki;
+            kd[c] = CONFIGS[c].Kd;
+        }
         
-        // Simular cada configuración
-        for (ConfiguracionPID config : CONFIGS) {
-            double Kp = config.Kp;
-            double Ki = config.Ki;
-            double Kd = config.Kd;
-            String nombre = config.nombre;
-            Color color = config.color;
-            
-            // Arrays de simulación
-            double[] T_pid = new double[N];
-            double[] u_pid = new double[N];
-            double[] error_pid = new double[N];
-            
-            // Condiciones iniciales
-            T_pid[0] = T_INICIAL;
-            T_pid[1] = T_INICIAL;
-            
-            double integral = 0.0;
-            double error_prev = 0.0;
-            
-            // Simulación del control PID
-            for (int k = 2; k < N; k++) {
-                error_pid[k] = T_REF - T_pid[k-1];
-                
-                // Término Proporcional
-                double P_term = Kp * error_pid[k];
-                
-                // Término Integral
-                integral += (error_pid[k] + error_prev) * DT / 2;
-                double I_term = Ki * integral;
-                
-                // Término Derivativo
-                double D_term = Kd * (error_pid[k] - error_prev) / DT;
-                
-                // Señal de control total
-                u_pid[k] = P_term + I_term + D_term;
-                u_pid[k] = Math.max(Math.min(u_pid[k], U_MAX), U_MIN);
-                
-                // Anti-windup
-                if (u_pid[k] >= U_MAX || u_pid[k] <= U_MIN) {
-                    integral -= (error_pid[k] + error_prev) * DT / 2;
-                }
-                
-                error_prev = error_pid[k];
-                
-                // Simulación del sistema
-                T_pid[k] = (-coef_Tk1 * T_pid[k-1] - coef_Tk2 * T_pid[k-2] + 
-                           (K/(TAU*TAU)) * u_pid[k] + (1/(TAU*TAU)) * T_AMB) / coef_Tk;
+        // Simulación del control PID: todas las configuraciones avanzan juntas
+        SimuladorLotePID lote = new SimuladorLotePID(SimuladorLotePID.PID_ERROR_TRAPEZOIDAL,
+                kp, ki, kd, K, TAU, ZETA_NATURAL, DT, T_AMB, T_INICIAL, T_REF, U_MIN, U_MAX);
+        
+        // Arrays de simulación (condiciones iniciales en k = 0 y k = 1)
+        double[][] T_pid = new double[nConfig][N];
+        double[][] u_pid = new double[nConfig][N];
+        double[][] error_pid = new double[nConfig][N];
+        for (int c = 0; c < nConfig; c++) {
+            T_pid[c][0] = T_INICIAL;
+            T_pid[c][1] = T_INICIAL;
+        }
+        
+        for (int k = 2; k < N; k++) {
+            lote.avanzar();
+            for (int c = 0; c < nConfig; c++) {
+                T_pid[c][k] = lote.salida[c];
+                u_pid[c][k] = lote.control[c];
+                error_pid[c][k] = lote.error[c];
             }
+        }
+        
+        for (int c = 0; c < nConfig; c++) {
+            ConfiguracionPID config = CONFIGS[c];
+            String nombre = config.nombre;
+            int color = config.color;
             
             // Calcular métricas
-            double maxTemp = Arrays.stream(T_pid).max().orElse(T_REF);
-            double sobrespico = Math.max(0, maxTemp - T_REF);
-            double t_settle = calcularTiempoEstablecimiento(T_pid, tiempo);
-            double error_ss = Math.abs(T_pid[N-1] - T_REF);
+            double sobrespico = lote.sobrepico(c);
+            double t_settle = lote.tiempoEstablecimiento(c);
+            double error_ss = Math.abs(T_pid[c][N-1] - T_REF);
             
             // Almacenar resultados
-            resultados.add(new ResultadoSimulacion(nombre, color, T_pid, u_pid, error_pid,
+            resultados.add(new ResultadoSimulacion(nombre, color, T_pid[c], u_pid[c], error_pid[c],
                                                   sobrespico, t_settle, error_ss));
             
             // Mostrar resultados en consola
@@ -156,16 +166,6 @@ public class C_extra_01_ControlSinSobrepico {
         }
     }
     
-    private static double calcularTiempoEstablecimiento(double[] T, double[] t) {
-        double tolerance = 0.02 * T_REF;
-        for (int i = T.length - 1; i >= 0; i--) {
-            if (Math.abs(T[i] - T_REF) > tolerance) {
-                return t[Math.min(i + 1, t.length - 1)];
-            }
-        }
-        return t[0];
-    }
-    
     private static void mostrarResultados() {
         System.out.println("\n=== RESUMEN DE RESULTADOS ===");
         System.out.println("┌──────────────────────┬────────────┬──────────────────┬────────────────┐");
@@ -180,6 +180,36 @@ public class C_extra_01_ControlSinSobrepico {
         System.out.println("└──────────────────────┴────────────┴──────────────────┴────────────────┘");
     }
     
+    // Enjambre de partículas sobre la misma planta: sobrepico <= 0.05 °C, error final <= 0.01 °C
+    // (exige acción integral) y a lo sumo 2 s con el actuador saturado, minimizando el tiempo de
+    // establecimiento o el ISE encarecidos por el ruido de un sensor de 0.05 °C que llega al
+    // actuador. Un resultado sobre el borde de la caja no se presenta como sintonía
+    private static void sintonizarAutomaticamente() {
+        System.out.println("\n=== SINTONIZACIÓN AUTOMÁTICA (ENJAMBRE DE PARTÍCULAS) ===");
+        AutoSintonizadorPID sintonizador = new AutoSintonizadorPID(SimuladorLotePID.PID_ERROR_TRAPEZOIDAL,
+                K, TAU, ZETA_NATURAL, DT, T_SIM, T_AMB, T_INICIAL, T_REF, U_MIN, U_MAX);
+        sintonizador.setSobrepicoMaximo(0.05);
+        sintonizador.setSaturacionMaxima(2.0);
+        sintonizador.setErrorFinalMaximo(0.01);
+        sintonizador.setEsfuerzo(0.05, 1.0);
+        
+        for (AutoSintonizadorPID.Objetivo objetivo : AutoSintonizadorPID.Objetivo.values()) {
+            sintonizador.setObjetivo(objetivo);
+            AutoSintonizadorPID.Resultado r = sintonizador.sintonizar();
+            String nombre = objetivo == AutoSintonizadorPID.Objetivo.ISE ? "Mínimo ISE" : "Mínimo t_est";
+            if (r.convergida()) {
+                System.out.printf("%s: Kp=%.3f, Ki=%.3f, Kd=%.3f\n", nombre, r.kp, r.ki, r.kd);
+            } else {
+                System.out.printf("%s: sin sintonía%s; mejor punto Kp=%.3f, Ki=%.3f, Kd=%.3f\n",
+                        nombre, AutoSintonizadorPID.estado(r), r.kp, r.ki, r.kd);
+            }
+            System.out.printf("  Sobrepico: %.3f°C, t_est: %.2f s, ISE: %.2f, error final: %.4f°C, saturación: %.2f s\n",
+                    r.sobrepico, r.tEstablecimiento, r.ise, r.errorFinal, r.tSaturacion);
+            System.out.printf("  Ruido en el actuador: %.1f%% de su rango (%d simulaciones, %d ampliaciones de la caja)\n",
+                    100 * r.esfuerzo, r.evaluaciones, r.ampliaciones);
+        }
+    }
+    
     private static void mostrarGuia() {
         System.out.println("\n=== GUÍA PARA ELIMINAR SOBREPICO ===");
         System.out.println("Para ELIMINAR OSCILACIONES y tener respuesta GRADUAL:");
@@ -205,23 +235,26 @@ public class C_extra_01_ControlSinSobrepico {
         System.out.println("- Reducir Ki en 50-70%");
     }
     
-    private static void mostrarGraficos() {
-        JFrame frame = new JFrame("Control Sin Sobrepico - Respuesta Gradual");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(1200, 800);
-        
-        JTabbedPane tabbedPane = new JTabbedPane();
-        tabbedPane.addTab("Comparación", new PanelComparacion());
-        tabbedPane.addTab("Análisis Detallado", new PanelAnalisisDetallado());
-        
-        frame.add(tabbedPane);
-        frame.setVisible(true);
+    // Interfaz gráfica en una clase aparte: en modo sin interfaz nunca se carga AWT/Swing
+    static class Interfaz {
+        static void mostrarGraficos() {
+            JFrame frame = new JFrame("Control Sin Sobrepico - Respuesta Gradual");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setSize(1200, 800);
+            
+            JTabbedPane tabbedPane = new JTabbedPane();
+            tabbedPane.addTab("Comparación", new PanelComparacion());
+            tabbedPane.addTab("Análisis Detallado", new PanelAnalisisDetallado());
+            
+            frame.add(tabbedPane);
+            frame.setVisible(true);
+        }
     }
     
     // Clase para almacenar resultados de simulación
     static class ResultadoSimulacion {
         String nombre;
-        Color color;
+        int color;
         double[] temperatura;
         double[] control;
         double[] error;
@@ -229,7 +262,7 @@ public class C_extra_01_ControlSinSobrepico {
         double tiempoEstablecimiento;
         double errorEstacionario;
         
-        public ResultadoSimulacion(String nombre, Color color, double[] temp, 
+        public ResultadoSimulacion(String nombre, int color, double[] temp, 
                                   double[] ctrl, double[] err, double sobresp, 
                                   double tEst, double errSS) {
             this.nombre = nombre;
@@ -243,6 +276,15 @@ public class C_extra_01_ControlSinSobrepico {
         }
     }
     
+    // Series decimadas de una señal para todas las configuraciones (primeras n muestras)
+    static SerieDecimada[] decimar(Function<ResultadoSimulacion, double[]> senal, int n) {
+        SerieDecimada[] series = new SerieDecimada[resultados.size()];
+        for (int r = 0; r < series.length; r++) {
+            series[r] = new SerieDecimada(tiempo, senal.apply(resultados.get(r)), n);
+        }
+        return series;
+    }
+    
     // Panel de comparación principal
     static class PanelComparacion extends JPanel {
         public PanelComparacion() {
@@ -257,10 +299,19 @@ public class C_extra_01_ControlSinSobrepico {
     }
     
     static class GraficoTemperatura extends JPanel {
+        // Series decimadas a ~2 puntos por píxel (se recalculan solo si cambia el ancho)
+        private final SerieDecimada[] series = decimar(r -> r.temperatura, tiempo.length);
+        
+        // El gráfico es estático: se rasteriza una vez por tamaño del panel y luego solo se copia
+        private final CapaEstatica capa = new CapaEstatica(this::dibujar);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            capa.pintar(this, g);
+        }
+        
+        private void dibujar(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -279,19 +330,21 @@ public class C_extra_01_ControlSinSobrepico {
             
             // Dibujar referencia
             g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 
-                0, new float[]{5}, 0));
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1);
             int yRef = (int)(height - padding - ((T_REF - 14) / 11.0) * (height - 2 * padding));
             g2.drawLine(padding, yRef, width - padding, yRef);
             
             // Dibujar curvas de temperatura
-            for (ResultadoSimulacion resultado : resultados) {
-                g2.setColor(resultado.color);
-                g2.setStroke(new BasicStroke(2));
+            for (int r = 0; r < resultados.size(); r++) {
+                ResultadoSimulacion resultado = resultados.get(r);
+                g2.setColor(EstiloGrafico.color(resultado.color));
+                g2.setStroke(EstiloGrafico.TRAZO_2);
                 
-                for (int i = 1; i < tiempo.length; i++) {
-                    int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                    int y1 = (int)(height - padding - ((resultado.temperatura[i-1] - 14) / 11.0) * (height - 2 * padding));
+                int[] puntos = series[r].indices(width - 2 * padding);
+                for (int j = 1; j < puntos.length; j++) {
+                    int i0 = puntos[j-1], i = puntos[j];
+                    int x1 = (int)(padding + (tiempo[i0] / T_SIM) * (width - 2 * padding));
+                    int y1 = (int)(height - padding - ((resultado.temperatura[i0] - 14) / 11.0) * (height - 2 * padding));
                     int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
                     int y2 = (int)(height - padding - ((resultado.temperatura[i] - 14) / 11.0) * (height - 2 * padding));
                     g2.drawLine(x1, y1, x2, y2);
@@ -302,7 +355,7 @@ public class C_extra_01_ControlSinSobrepico {
             int legendX = width - 180;
             int legendY = padding + 20;
             for (ResultadoSimulacion resultado : resultados) {
-                g2.setColor(resultado.color);
+                g2.setColor(EstiloGrafico.color(resultado.color));
                 g2.drawString(resultado.nombre, legendX, legendY);
                 legendY += 20;
             }
@@ -312,10 +365,18 @@ public class C_extra_01_ControlSinSobrepico {
     }
     
     static class GraficoControl extends JPanel {
+        private final SerieDecimada[] series = decimar(r -> r.control, tiempo.length);
+        
+        // El gráfico es estático: se rasteriza una vez por tamaño del panel y luego solo se copia
+        private final CapaEstatica capa = new CapaEstatica(this::dibujar);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            capa.pintar(this, g);
+        }
+        
+        private void dibujar(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -333,13 +394,16 @@ public class C_extra_01_ControlSinSobrepico {
             g2.drawString("Potencia [W]", 10, height/2);
             
             // Dibujar curvas de control
-            for (ResultadoSimulacion resultado : resultados) {
-                g2.setColor(resultado.color);
-                g2.setStroke(new BasicStroke(2));
+            for (int r = 0; r < resultados.size(); r++) {
+                ResultadoSimulacion resultado = resultados.get(r);
+                g2.setColor(EstiloGrafico.color(resultado.color));
+                g2.setStroke(EstiloGrafico.TRAZO_2);
                 
-                for (int i = 1; i < tiempo.length; i++) {
-                    int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                    int y1 = (int)(height - padding - (resultado.control[i-1] / U_MAX) * (height - 2 * padding));
+                int[] puntos = series[r].indices(width - 2 * padding);
+                for (int j = 1; j < puntos.length; j++) {
+                    int i0 = puntos[j-1], i = puntos[j];
+                    int x1 = (int)(padding + (tiempo[i0] / T_SIM) * (width - 2 * padding));
+                    int y1 = (int)(height - padding - (resultado.control[i0] / U_MAX) * (height - 2 * padding));
                     int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
                     int y2 = (int)(height - padding - (resultado.control[i] / U_MAX) * (height - 2 * padding));
                     g2.drawLine(x1, y1, x2, y2);
@@ -349,10 +413,22 @@ public class C_extra_01_ControlSinSobrepico {
     }
     
     static class GraficoError extends JPanel {
+        private final SerieDecimada[] series = decimar(r -> r.error, tiempo.length);
+        
+        // Máximo error para escalado (calculado una sola vez)
+        private final double maxError = resultados.stream()
+                .mapToDouble(r -> Arrays.stream(r.error).map(Math::abs).max().orElse(0.0)).max().orElse(0.0);
+        
+        // El gráfico es estático: se rasteriza una vez por tamaño del panel y luego solo se copia
+        private final CapaEstatica capa = new CapaEstatica(this::dibujar);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            capa.pintar(this, g);
+        }
+        
+        private void dibujar(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
@@ -369,21 +445,17 @@ public class C_extra_01_ControlSinSobrepico {
             g2.drawString("Tiempo [s]", width/2 - 30, height - 20);
             g2.drawString("Error [°C]", 10, height/2);
             
-            // Encontrar máximo error para escalado
-            double maxError = 0;
-            for (ResultadoSimulacion resultado : resultados) {
-                double configMaxError = Arrays.stream(resultado.error).map(Math::abs).max().orElse(0.0);
-                maxError = Math.max(maxError, configMaxError);
-            }
-            
             // Dibujar curvas de error
-            for (ResultadoSimulacion resultado : resultados) {
-                g2.setColor(resultado.color);
-                g2.setStroke(new BasicStroke(2));
+            for (int r = 0; r < resultados.size(); r++) {
+                ResultadoSimulacion resultado = resultados.get(r);
+                g2.setColor(EstiloGrafico.color(resultado.color));
+                g2.setStroke(EstiloGrafico.TRAZO_2);
                 
-                for (int i = 1; i < tiempo.length; i++) {
-                    int x1 = (int)(padding + (tiempo[i-1] / T_SIM) * (width - 2 * padding));
-                    int y1 = (int)(height - padding - ((resultado.error[i-1] + maxError) / (2 * maxError)) * (height - 2 * padding));
+                int[] puntos = series[r].indices(width - 2 * padding);
+                for (int j = 1; j < puntos.length; j++) {
+                    int i0 = puntos[j-1], i = puntos[j];
+                    int x1 = (int)(padding + (tiempo[i0] / T_SIM) * (width - 2 * padding));
+                    int y1 = (int)(height - padding - ((resultado.error[i0] + maxError) / (2 * maxError)) * (height - 2 * padding));
                     int x2 = (int)(padding + (tiempo[i] / T_SIM) * (width - 2 * padding));
                     int y2 = (int)(height - padding - ((resultado.error[i] + maxError) / (2 * maxError)) * (height - 2 * padding));
                     g2.drawLine(x1, y1, x2, y2);
@@ -392,27 +464,33 @@ public class C_extra_01_ControlSinSobrepico {
             
             // Línea de error cero
             g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 
-                0, new float[]{3}, 0));
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1_CORTO);
             int zeroY = (int)(height - padding - (height - 2 * padding) / 2);
             g2.drawLine(padding, zeroY, width - padding, zeroY);
         }
     }
     
     static class GraficoZoom extends JPanel {
+        // Zoom en los primeros 15 segundos
+        private final double t_zoom = 15.0;
+        private final SerieDecimada[] series = decimar(r -> r.temperatura, Math.min(tiempo.length, (int)(t_zoom / DT) + 1));
+        
+        // El gráfico es estático: se rasteriza una vez por tamaño del panel y luego solo se copia
+        private final CapaEstatica capa = new CapaEstatica(this::dibujar);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
+            capa.pintar(this, g);
+        }
+        
+        private void dibujar(Graphics2D g2) {
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             int width = getWidth();
             int height = getHeight();
             int padding = 60;
             
-            // Zoom en los primeros 15 segundos
-            double t_zoom = 15.0;
-            
             // Dibujar ejes
             g2.setColor(Color.BLACK);
             g2.drawLine(padding, height - padding, width - padding, height - padding);
@@ -425,20 +503,22 @@ public class C_extra_01_ControlSinSobrepico {
             
             // Dibujar referencia
             g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 
-                0, new float[]{5}, 0));
+            g2.setStroke(EstiloGrafico.DISCONTINUO_1);
             int yRef = (int)(height - padding - ((T_REF - 15) / 8.0) * (height - 2 * padding));
             g2.drawLine(padding, yRef, width - padding, yRef);
             
             // Dibujar curvas de temperatura (zoom)
-            for (ResultadoSimulacion resultado : resultados) {
-                g2.setColor(resultado.color);
-                g2.setStroke(new BasicStroke(3));
+            for (int r = 0; r < resultados.size(); r++) {
+                ResultadoSimulacion resultado = resultados.get(r);
+                g2.setColor(EstiloGrafico.color(resultado.color));
+                g2.setStroke(EstiloGrafico.TRAZO_3);
                 
-                for (int i = 1; i < tiempo.length; i++) {
+                int[] puntos = series[r].indices(width - 2 * padding);
+                for (int j = 1; j < puntos.length; j++) {
+                    int i0 = puntos[j-1], i = puntos[j];
                     if (tiempo[i] <= t_zoom) {
-                        int x1 = (int)(padding + (tiempo[i-1] / t_zoom) * (width - 2 * padding));
-                        int y1 = (int)(height - padding - ((resultado.temperatura[i-1] - 15) / 8.0) * (height - 2 * padding));
+                        int x1 = (int)(padding + (tiempo[i0] / t_zoom) * (width - 2 * padding));
+                        int y1 = (int)(height - padding - ((resultado.temperatura[i0] - 15) / 8.0) * (height - 2 * padding));
                         int x2 = (int)(padding + (tiempo[i] / t_zoom) * (width - 2 * padding));
                         int y2 = (int)(height - padding - ((resultado.temperatura[i] - 15) / 8.0) * (height - 2 * padding));
                         g2.drawLine(x1, y1, x2, y2);
@@ -456,7 +536,7 @@ public class C_extra_01_ControlSinSobrepico {
             
             JTextArea textArea = new JTextArea();
             textArea.setEditable(false);
-            textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            textArea.setFont(EstiloGrafico.MONOESPACIADA_12);
             
             StringBuilder sb = new StringBuilder();
             sb.append("=== ANÁLISIS DETALLADO - CONTROL SIN SOBREPICO ===\n\n");
@@ -0,0 +1,41 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class CapaEstatica {
+    // Contenido de la capa: se dibuja con el tamaño actual del componente
+    public interface Dibujo {
+        void dibujar(Graphics2D g2);
+    }
+    
+    private final Dibujo dibujo;
+    private BufferedImage imagen;
+    
+    public CapaEstatica(Dibujo dibujo) {
+        this.dibujo = dibujo;
+    }
+    
+    // Copia la capa en g; solo se vuelve a rasterizar si el componente cambió de tamaño. Las
+    // series que se llenan en vivo van en una capa aparte (SerieEnVivo) dibujada encima
+    public void pintar(Component componente, Graphics g) {
+        int ancho = Math.max(1, componente.getWidth());
+        int alto = Math.max(1, componente.getHeight());
+        if (imagen == null || imagen.getWidth() != ancho || imagen.getHeight() != alto) {
+            // Imagen compatible con la pantalla para que la copia sea directa
+            GraphicsConfiguration gc = componente.getGraphicsConfiguration();
+            imagen = gc != null
+                    ? gc.createCompatibleImage(ancho, alto, Transparency.TRANSLUCENT)
+                    : new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = imagen.createGraphics();
+            g2.setFont(componente.getFont());
+            g2.setColor(componente.getForeground());
+            dibujo.dibujar(g2);
+            g2.dispose();
+        }
+        g.drawImage(imagen, 0, 0, null);
+    }
+    
+    // Fuerza a redibujar la capa en el próximo repintado (por ejemplo, si cambian los datos)
+    public void invalidar() {
+        imagen = null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+public class ControladorPID {
+    // Ganancias del controlador
+    private double kp;
+    private double ki;
+    private double kd;
+    
+    // Periodo de muestreo y límites del actuador
+    private final double dt;
+    private final double uMin;
+    private final double uMax;
+    
+    // Integración trapezoidal (true) o rectangular (false)
+    private final boolean trapezoidal;
+    
+    // Estado interno
+    private double integral = 0.0;
+    private double errorPrev = 0.0;
+    
+    public ControladorPID(double kp, double ki, double kd, double dt, double uMin, double uMax) {
+        this(kp, ki, kd, dt, uMin, uMax, true);
+    }
+    
+    public ControladorPID(double kp, double ki, double kd, double dt, double uMin, double uMax,
+                          boolean trapezoidal) {
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        this.dt = dt;
+        this.uMin = uMin;
+        this.uMax = uMax;
+        this.trapezoidal = trapezoidal;
+    }
+    
+    // Calcula la señal de control de una muestra (sin crear objetos)
+    public double paso(double referencia, double medicion) {
+        double error = referencia - medicion;
+        
+        double incremento = incrementoIntegral(error, errorPrev, dt, trapezoidal);
+        double integ = integral + incremento;
+        double u = senalSaturada(kp, ki, kd, error, integ, (error - errorPrev) / dt, uMin, uMax);
+        
+        integral = integralTrasSaturacion(integ, incremento, u, uMin, uMax);
+        errorPrev = error;
+        return u;
+    }
+    
+    // Las tres funciones siguientes son la ley de control sin estado: la usan esta clase y los
+    // simuladores en lote, que guardan la integral y el error previo de cada carril en arreglos
+    
+    // Incremento del término integral, trapezoidal o rectangular
+    static double incrementoIntegral(double error, double errorPrev, double dt, boolean trapezoidal) {
+        return trapezoidal ? (error + errorPrev) * dt / 2 : error * dt;
+    }
+    
+    // Señal de control total con saturación del actuador
+    static double senalSaturada(double kp, double ki, double kd, double error, double integ,
+                                double derivativo, double uMin, double uMax) {
+        double u = kp * error + ki * integ + kd * derivativo;
+        return Math.max(Math.min(u, uMax), uMin);
+    }
+    
+    // Anti-windup: se deshace el incremento si el actuador está saturado
+    static double integralTrasSaturacion(double integ, double incremento, double u,
+                                         double uMin, double uMax) {
+        return (u >= uMax || u <= uMin) ? integ - incremento : integ;
+    }
+    
+    // Derivada de la medición con el filtro de primer orden 0.8/0.2 de C_02
+    static double derivadaFiltrada(double derivativoPrev, double medicion, double medicionPrev, double dt) {
+        return 0.8 * derivativoPrev + 0.2 * ((medicion - medicionPrev) / dt);
+    }
+    
+    // Reinicia el estado para reutilizar el controlador en otra simulación
+    public void reiniciar() {
+        integral = 0.0;
+        errorPrev = 0.0;
+    }
+    
+    public void setGanancias(double kp, double ki, double kd) {
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+    }
+    
+    public double getErrorPrevio() {
+        return errorPrev;
+    }
+    
+    public double getIntegral() {
+        return integral;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,253 @@
+import java.util.*;
+import java.util.function.Supplier;
+
+public class DiscretizacionZOH {
+    // Modelos ya calculados por (tipo, K, TAU, ZETA, DT). LRU acotada:
+    // quien recorra parámetros de la planta (barridos, Monte Carlo) no la hace crecer sin límite
+    private static final int CAPACIDAD_CACHE = 256;
+    private static final LinkedHashMap<Clave, ModeloZOH> CACHE =
+            new LinkedHashMap<Clave, ModeloZOH>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Clave, ModeloZOH> mayor) {
+            return size() > CAPACIDAD_CACHE;
+        }
+    };
+    
+    private static final int SEGUNDO_ORDEN = 2;
+    private static final int PRIMER_ORDEN = 1;
+    private static final int INTEGRADOR = 0;
+    
+    // Modelo discreto exacto con retenedor de orden cero:
+    //   x[k+1] = Phi x[k] + gammaU u[k] + gammaD d[k]
+    // con x = [y, dy/dt] (en primer orden e integrador solo se usa x1)
+    static class ModeloZOH {
+        final double phi11, phi12, phi21, phi22;
+        final double gammaU1, gammaU2;
+        final double gammaD1, gammaD2;
+        
+        ModeloZOH(double phi11, double phi12, double phi21, double phi22,
+                  double gammaU1, double gammaU2, double gammaD1, double gammaD2) {
+            this.phi11 = phi11;
+            this.phi12 = phi12;
+            this.phi21 = phi21;
+            this.phi22 = phi22;
+            this.gammaU1 = gammaU1;
+            this.gammaU2 = gammaU2;
+            this.gammaD1 = gammaD1;
+            this.gammaD2 = gammaD2;
+        }
+        
+        // Avanza el estado en el mismo arreglo (sin crear objetos)
+        void avanzar(double[] x, double u, double d) {
+            double x1 = phi11 * x[0] + phi12 * x[1] + gammaU1 * u + gammaD1 * d;
+            double x2 = phi21 * x[0] + phi22 * x[1] + gammaU2 * u + gammaD2 * d;
+            x[0] = x1;
+            x[1] = x2;
+        }
+    }
+    
+    // G(s) = K / (tau^2 s^2 + 2*zeta*tau*s + 1), perturbación d sumada a K*u
+    public static ModeloZOH segundoOrden(double K, double tau, double zeta, double dt) {
+        return obtener(new Clave(SEGUNDO_ORDEN, K, tau, zeta, dt),
+                () -> calcularSegundoOrden(K, tau, zeta, dt));
+    }
+    
+    // G(s) = K / (tau s + 1)
+    public static ModeloZOH primerOrden(double K, double tau, double dt) {
+        return obtener(new Clave(PRIMER_ORDEN, K, tau, 0, dt), () -> {
+            double phi = Math.exp(-dt / tau);
+            double gamma = -Math.expm1(-dt / tau);
+            return new ModeloZOH(phi, 0, 0, 0, K * gamma, 0, gamma, 0);
+        });
+    }
+    
+    // G(s) = K / s
+    public static ModeloZOH integrador(double K, double dt) {
+        return obtener(new Clave(INTEGRADOR, K, 0, 0, dt),
+                () -> new ModeloZOH(1, 0, 0, 0, K * dt, 0, dt, 0));
+    }
+    
+    // Busca bajo el bloqueo y calcula fuera de él; si dos hilos calculan la misma clave, ambos
+    // obtienen el mismo resultado y el segundo solo lo reemplaza
+    private static ModeloZOH obtener(Clave clave, Supplier<ModeloZOH> calculo) {
+        synchronized (CACHE) {
+            ModeloZOH modelo = CACHE.get(clave);
+            if (modelo != null) {
+                return modelo;
+            }
+        }
+        ModeloZOH modelo = calculo.get();
+        synchronized (CACHE) {
+            CACHE.put(clave, modelo);
+        }
+        return modelo;
+    }
+    
+    public static int tamanoCache() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+    
+    private static ModeloZOH calcularSegundoOrden(double K, double tau, double zeta, double dt) {
+        // Matriz aumentada M = [[A, B], [0, 0]] * dt; exp(M) = [[Phi, Gamma], [0, 1]]
+        double[][] M = new double[3][3];
+        M[0][1] = dt;
+        M[1][0] = -dt / (tau * tau);
+        M[1][1] = -2 * zeta * dt / tau;
+        M[1][2] = dt / (tau * tau);
+        
+        double[][] E = exponencialMatriz(M);
+        return new ModeloZOH(E[0][0], E[0][1], E[1][0], E[1][1],
+                             K * E[0][2], K * E[1][2], E[0][2], E[1][2]);
+    }
+    
+    // Exponencial de matriz por escalamiento y cuadrado con aproximante de Padé (6,6)
+    static double[][] exponencialMatriz(double[][] A) {
+        int n = A.length;
+        
+        // Escalar para que la norma sea menor que 0.5
+        double norma = 0;
+        for (int i = 0; i < n; i++) {
+            double fila = 0;
+            for (int j = 0; j < n; j++) {
+                fila += Math.abs(A[i][j]);
+            }
+            norma = Math.max(norma, fila);
+        }
+        int s = Math.max(0, (int)Math.ceil(Math.log(norma / 0.5) / Math.log(2)));
+        double escala = Math.pow(2, -s);
+        
+        double[][] X = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                X[i][j] = A[i][j] * escala;
+            }
+        }
+        
+        // Padé: N = sum c_k X^k, D = sum (-1)^k c_k X^k
+        int q = 6;
+        double c = 1.0;
+        double[][] potencia = identidad(n);
+        double[][] Nm = identidad(n);
+        double[][] Dm = identidad(n);
+        for (int k = 1; k <= q; k++) {
+            c = c * (q - k + 1) / (k * (2.0 * q - k + 1));
+            potencia = multiplicar(potencia, X);
+            double signo = (k % 2 == 0) ? 1 : -1;
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    Nm[i][j] += c * potencia[i][j];
+                    Dm[i][j] += signo * c * potencia[i][j];
+                }
+            }
+        }
+        
+        double[][] E = resolver(Dm, Nm);
+        
+        // Deshacer el escalamiento
+        for (int k = 0; k < s; k++) {
+            E = multiplicar(E, E);
+        }
+        return E;
+    }
+    
+    private static double[][] identidad(int n) {
+        double[][] I = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            I[i][i] = 1.0;
+        }
+        return I;
+    }
+    
+    private static double[][] multiplicar(double[][] A, double[][] B) {
+        int n = A.length;
+        double[][] C = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < n; k++) {
+                double a = A[i][k];
+                for (int j = 0; j < n; j++) {
+                    C[i][j] += a * B[k][j];
+                }
+            }
+        }
+        return C;
+    }
+    
+    // Resuelve D X = N por eliminación gaussiana con pivoteo parcial
+    private static double[][] resolver(double[][] D, double[][] N) {
+        int n = D.length;
+        double[][] A = new double[n][];
+        double[][] B = new double[n][];
+        for (int i = 0; i < n; i++) {
+            A[i] = D[i].clone();
+            B[i] = N[i].clone();
+        }
+        
+        for (int i = 0; i < n; i++) {
+            int maxRow = i;
+            for (int k = i + 1; k < n; k++) {
+                if (Math.abs(A[k][i]) > Math.abs(A[maxRow][i])) {
+                    maxRow = k;
+                }
+            }
+            double[] tmp = A[i]; A[i] = A[maxRow]; A[maxRow] = tmp;
+            tmp = B[i]; B[i] = B[maxRow]; B[maxRow] = tmp;
+            
+            for (int k = i + 1; k < n; k++) {
+                double factor = A[k][i] / A[i][i];
+                for (int j = i; j < n; j++) {
+                    A[k][j] -= factor * A[i][j];
+                }
+                for (int j = 0; j < n; j++) {
+                    B[k][j] -= factor * B[i][j];
+                }
+            }
+        }
+        
+        double[][] X = new double[n][n];
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = 0; j < n; j++) {
+                double suma = B[i][j];
+                for (int k = i + 1; k < n; k++) {
+                    suma -= A[i][k] * X[k][j];
+                }
+                X[i][j] = suma / A[i][i];
+            }
+        }
+        return X;
+    }
+    
+    // Clave de la caché: compara los valores exactos de los parámetros
+    private static final class Clave {
+        private final int tipo;
+        private final long k, tau, zeta, dt;
+        
+        Clave(int tipo, double K, double tau, double zeta, double dt) {
+            this.tipo = tipo;
+            this.k = Double.doubleToLongBits(K);
+            this.tau = Double.doubleToLongBits(tau);
+            this.zeta = Double.doubleToLongBits(zeta);
+            this.dt = Double.doubleToLongBits(dt);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Clave)) {
+                return false;
+            }
+            Clave c = (Clave) o;
+            return tipo == c.tipo && k == c.k && tau == c.tau && zeta == c.zeta && dt == c.dt;
+        }
+        
+        @Override
+        public int hashCode() {
+            long h = tipo;
+            h = 31 * h + k;
+            h = 31 * h + tau;
+            h = 31 * h + zeta;
+            h = 31 * h + dt;
+            return (int)(h ^ (h >>> 32));
+        }
+    }
+}
\ No newline at end of file
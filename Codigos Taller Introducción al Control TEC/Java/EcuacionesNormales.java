@@ -0,0 +1,414 @@
+import java.util.Arrays;
+import java.util.concurrent.*;
+
+public class EcuacionesNormales {
+    // Mínimos cuadrados sin guardar la matriz de regresión: se acumulan AᵀA (p x p), Aᵀy e yᵀy
+    // fila por fila, así la memoria es O(p²) sin importar el número de muestras
+    private final int p;
+    private final double[] AtA;     // por filas; solo se actualiza el triángulo superior
+    private final double[] Aty;
+    private double yty = 0;
+    private long filas = 0;
+    
+    // Regresor de la fila actual (reutilizado)
+    private final double[] phi;
+    
+    // Filas por bloque de la acumulación paralela. Es fijo (no depende del número de hilos):
+    // los bloques se suman siempre con el mismo árbol y el resultado es reproducible
+    private static final int FILAS_BLOQUE = 8192;
+    
+    // Columnas por bloque de la factorización de Cholesky y mínimo de filas para repartirla entre hilos
+    private static final int TAM_BLOQUE = 64;
+    private static final int FILAS_HOJA = 16;
+    
+    public EcuacionesNormales(int p) {
+        this.p = p;
+        this.AtA = new double[p * p];
+        this.Aty = new double[p];
+        this.phi = new double[p];
+    }
+    
+    public int getParametros() {
+        return p;
+    }
+    
+    public long getFilas() {
+        return filas;
+    }
+    
+    // Agrega la fila phiᵀ theta ≈ y (actualización de rango 1 aprovechando la simetría)
+    public void agregarFila(double[] phi, double y) {
+        for (int i = 0; i < p; i++) {
+            double pi = phi[i];
+            if (pi != 0) {
+                int fila = i * p;
+                for (int j = i; j < p; j++) {
+                    AtA[fila + j] += pi * phi[j];
+                }
+                Aty[i] += pi * y;
+            }
+        }
+        yty += y * y;
+        filas++;
+    }
+    
+    // Primera muestra con todos los regresores disponibles para un ARX(na, nb, nk)
+    public static int primeraFilaARX(int na, int nb, int nk) {
+        return Math.max(na, nb + nk - 1);
+    }
+    
+    // Agrega las filas k = desde..hasta-1 del modelo ARX
+    //   y(k) = -a1 y(k-1) - ... - a_na y(k-na) + b1 u(k-nk) + ... + b_nb u(k-nk-nb+1)
+    // leyendo los regresores directamente de y y u (theta = [a1..a_na, b1..b_nb])
+    public void acumularARX(double[] y, double[] u, int desde, int hasta, int na, int nb, int nk) {
+        if (na + nb != p) {
+            throw new IllegalArgumentException("El modelo ARX tiene " + (na + nb) + " parámetros, se esperaban " + p);
+        }
+        for (int k = Math.max(desde, primeraFilaARX(na, nb, nk)); k < hasta; k++) {
+            for (int i = 0; i < na; i++) {
+                phi[i] = -y[k - (i + 1)];
+            }
+            for (int j = 0; j < nb; j++) {
+                phi[na + j] = u[k - (j + nk)];
+            }
+            agregarFila(phi, y[k]);
+        }
+    }
+    
+    // Suma las acumulaciones de otro conjunto de filas (mismo número de parámetros)
+    public void combinar(EcuacionesNormales otra) {
+        if (otra.p != p) {
+            throw new IllegalArgumentException("Se esperaban " + p + " parámetros");
+        }
+        for (int i = 0; i < AtA.length; i++) {
+            AtA[i] += otra.AtA[i];
+        }
+        for (int i = 0; i < p; i++) {
+            Aty[i] += otra.Aty[i];
+        }
+        yty += otra.yty;
+        filas += otra.filas;
+    }
+    
+    // Ecuaciones normales de un ARX(na, nb, nk) sobre las muestras 0..n-1, repartiendo las filas
+    // en bloques que se acumulan en paralelo con fork-join
+    public static EcuacionesNormales acumularARXParalelo(double[] y, double[] u, int n,
+                                                         int na, int nb, int nk) {
+        return acumularARXParalelo(y, u, 0, n, na, nb, nk, ForkJoinPool.commonPool());
+    }
+    
+    // Solo las filas k = desde..hasta-1 (por ejemplo, el tramo de estimación de un registro)
+    public static EcuacionesNormales acumularARXParalelo(double[] y, double[] u, int desde, int hasta,
+                                                         int na, int nb, int nk, ForkJoinPool pool) {
+        int inicio = Math.max(desde, primeraFilaARX(na, nb, nk));
+        int nBloques = Math.max(1, (hasta - inicio + FILAS_BLOQUE - 1) / FILAS_BLOQUE);
+        return pool.invoke(new TareaARX(y, u, hasta, na, nb, nk, inicio, 0, nBloques));
+    }
+    
+    // Divide el rango de bloques en mitades; el resultado es siempre izquierda + derecha
+    private static class TareaARX extends RecursiveTask<EcuacionesNormales> {
+        private static final long serialVersionUID = 1L;
+        private final double[] y, u;
+        private final int n, na, nb, nk, inicio;
+        private final int bloqueDesde, bloqueHasta;
+        
+        TareaARX(double[] y, double[] u, int n, int na, int nb, int nk, int inicio,
+                 int bloqueDesde, int bloqueHasta) {
+            this.y = y;
+            this.u = u;
+            this.n = n;
+            this.na = na;
+            this.nb = nb;
+            this.nk = nk;
+            this.inicio = inicio;
+            this.bloqueDesde = bloqueDesde;
+            this.bloqueHasta = bloqueHasta;
+        }
+        
+        @Override
+        protected EcuacionesNormales compute() {
+            if (bloqueHasta - bloqueDesde == 1) {
+                EcuacionesNormales normales = new EcuacionesNormales(na + nb);
+                int desde = inicio + bloqueDesde * FILAS_BLOQUE;
+                normales.acumularBloqueARX(y, u, desde, Math.min(n, desde + FILAS_BLOQUE), na, nb, nk);
+                return normales;
+            }
+            int medio = (bloqueDesde + bloqueHasta) >>> 1;
+            TareaARX izquierda = new TareaARX(y, u, n, na, nb, nk, inicio, bloqueDesde, medio);
+            izquierda.fork();
+            EcuacionesNormales derecha = new TareaARX(y, u, n, na, nb, nk, inicio, medio, bloqueHasta).compute();
+            EcuacionesNormales resultado = izquierda.join();
+            resultado.combinar(derecha);
+            return resultado;
+        }
+    }
+    
+    // Acumula un bloque de filas por columnas: en un ARX cada columna de la matriz de regresión es
+    // un tramo contiguo de y o u desplazado, así cada elemento de AᵀA es un producto punto entre
+    // dos tramos de los arreglos originales. Además, dos columnas del mismo tipo con un retardo
+    // más difieren del par anterior solo en la primera y la última fila del bloque, por lo que
+    // basta un producto punto por columna y el resto sale de una recurrencia: O(p·filas + p²)
+    private void acumularBloqueARX(double[] y, double[] u, int desde, int hasta, int na, int nb, int nk) {
+        int largo = hasta - desde;
+        if (largo <= 0) {
+            return;
+        }
+        // Sumas del bloque sin signo: S(c, d) = Σ x_c[k - retardo_c] · x_d[k - retardo_d]
+        double[] S = new double[p * p];
+        for (int c = 0; c < p; c++) {
+            double[] xc = c < na ? y : u;
+            int rc = c < na ? c + 1 : c - na + nk;
+            boolean primeraC = c == 0 || c == na;
+            for (int d = c; d < p; d++) {
+                double[] xd = d < na ? y : u;
+                int rd = d < na ? d + 1 : d - na + nk;
+                if (primeraC || d == na) {
+                    S[c * p + d] = productoPunto(xc, desde - rc, xd, desde - rd, largo);
+                } else {
+                    S[c * p + d] = S[(c - 1) * p + d - 1]
+                            + xc[desde - rc] * xd[desde - rd] - xc[hasta - rc] * xd[hasta - rd];
+                }
+            }
+        }
+        
+        // Las columnas AR llevan signo negativo (-y(k-i))
+        for (int c = 0; c < p; c++) {
+            double sc = c < na ? -1 : 1;
+            double[] xc = c < na ? y : u;
+            int rc = c < na ? c + 1 : c - na + nk;
+            for (int d = c; d < p; d++) {
+                double sd = d < na ? -1 : 1;
+                AtA[c * p + d] += sc * sd * S[c * p + d];
+            }
+            Aty[c] += sc * productoPunto(xc, desde - rc, y, desde, largo);
+        }
+        yty += productoPunto(y, desde, y, desde, largo);
+        filas += largo;
+    }
+    
+    // Producto punto con cuatro acumuladores (orden de suma fijo)
+    private static double productoPunto(double[] a, int oa, double[] b, int ob, int n) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += a[oa + i] * b[ob + i];
+            s1 += a[oa + i + 1] * b[ob + i + 1];
+            s2 += a[oa + i + 2] * b[ob + i + 2];
+            s3 += a[oa + i + 3] * b[ob + i + 3];
+        }
+        for (; i < n; i++) {
+            s0 += a[oa + i] * b[ob + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+    
+    // Ecuaciones normales del modelo que usa solo las columnas indicadas (submatriz principal):
+    // un modelo con menos regresores sale de las mismas sumas, sin volver a recorrer los datos
+    public EcuacionesNormales subsistema(int[] columnas) {
+        EcuacionesNormales sub = new EcuacionesNormales(columnas.length);
+        for (int i = 0; i < columnas.length; i++) {
+            for (int j = i; j < columnas.length; j++) {
+                int a = Math.min(columnas[i], columnas[j]);
+                int b = Math.max(columnas[i], columnas[j]);
+                sub.AtA[i * sub.p + j] = AtA[a * p + b];
+            }
+            sub.Aty[i] = Aty[columnas[i]];
+        }
+        sub.yty = yty;
+        sub.filas = filas;
+        return sub;
+    }
+    
+    // Suma de cuadrados de los residuos para theta: yᵀy - 2 thetaᵀAᵀy + thetaᵀAᵀA theta
+    public double sumaCuadradosResidual(double[] theta) {
+        double s = yty;
+        for (int i = 0; i < p; i++) {
+            s -= 2 * theta[i] * Aty[i];
+            s += theta[i] * theta[i] * AtA[i * p + i];
+            for (int j = i + 1; j < p; j++) {
+                s += 2 * theta[i] * theta[j] * AtA[i * p + j];
+            }
+        }
+        return Math.max(s, 0);
+    }
+    
+    // Resuelve AᵀA theta = Aᵀy por Cholesky (AᵀA = L Lᵀ); las acumulaciones no se modifican
+    public double[] resolver() {
+        return resolver(ForkJoinPool.commonPool());
+    }
+    
+    public double[] resolver(ForkJoinPool pool) {
+        // Factorización en una copia: L se guarda en el triángulo inferior
+        double[] L = new double[p * p];
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j <= i; j++) {
+                L[i * p + j] = AtA[j * p + i];
+            }
+        }
+        int rango = factorizarCholesky(L, p, pool);
+        if (rango < p) {
+            throw new IllegalStateException("La matriz de regresión no tiene rango completo (columna " + rango
+                    + "): falta excitación o hay regresores repetidos");
+        }
+        
+        // L z = Aᵀy (sustitución hacia adelante) y Lᵀ theta = z (hacia atrás)
+        double[] theta = new double[p];
+        for (int i = 0; i < p; i++) {
+            double s = Aty[i];
+            for (int k = 0; k < i; k++) {
+                s -= L[i * p + k] * theta[k];
+            }
+            theta[i] = s / L[i * p + i];
+        }
+        for (int i = p - 1; i >= 0; i--) {
+            double s = theta[i];
+            for (int k = i + 1; k < p; k++) {
+                s -= L[k * p + i] * theta[k];
+            }
+            theta[i] = s / L[i * p + i];
+        }
+        return theta;
+    }
+    
+    // Soluciones de los p modelos anidados que usan las primeras q columnas (q = 1..p) con una sola
+    // factorización: el factor de Cholesky de la submatriz principal q x q es el bloque superior
+    // izquierdo del factor completo. Con z = L⁻¹ Aᵀy, la suma de cuadrados de los residuos del
+    // modelo q es yᵀy - (z_1² + ... + z_q²), que se guarda en residuales[q - 1].
+    // Si la columna r es linealmente dependiente de las anteriores, solo los modelos q <= r tienen
+    // solución: se devuelven esos r (el arreglo puede ser más corto que p, incluso vacío)
+    public double[][] resolverAnidados(double[] residuales, ForkJoinPool pool) {
+        double[] L = new double[p * p];
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j <= i; j++) {
+                L[i * p + j] = AtA[j * p + i];
+            }
+        }
+        int rango = factorizarCholesky(L, p, pool);
+        
+        double[] z = new double[rango];
+        double acumulado = 0;
+        for (int i = 0; i < rango; i++) {
+            double s = Aty[i];
+            for (int k = 0; k < i; k++) {
+                s -= L[i * p + k] * z[k];
+            }
+            z[i] = s / L[i * p + i];
+            acumulado += z[i] * z[i];
+            residuales[i] = Math.max(yty - acumulado, 0);
+        }
+        
+        double[][] soluciones = new double[rango][];
+        for (int q = 1; q <= rango; q++) {
+            double[] theta = Arrays.copyOf(z, q);
+            for (int i = q - 1; i >= 0; i--) {
+                double s = theta[i];
+                for (int k = i + 1; k < q; k++) {
+                    s -= L[k * p + i] * theta[k];
+                }
+                theta[i] = s / L[i * p + i];
+            }
+            soluciones[q - 1] = theta;
+        }
+        return soluciones;
+    }
+    
+    // Cholesky por bloques de columnas sobre el triángulo inferior de A (n x n, por filas).
+    // Por cada bloque: se factoriza el bloque diagonal, se resuelve el panel de abajo y se
+    // actualiza el resto de la matriz. Panel y actualización se reparten por filas entre los hilos;
+    // cada elemento lo calcula un solo hilo con un orden fijo, así el resultado no depende del paralelismo.
+    // Devuelve n, o la primera columna j con pivote no positivo (falta excitación o regresores
+    // repetidos): en ese caso solo el bloque principal j x j queda factorizado
+    static int factorizarCholesky(double[] A, int n, ForkJoinPool pool) {
+        for (int k0 = 0; k0 < n; k0 += TAM_BLOQUE) {
+            int k1 = Math.min(k0 + TAM_BLOQUE, n);
+            
+            // Bloque diagonal (columnas anteriores a k0 ya descontadas)
+            for (int j = k0; j < k1; j++) {
+                double d = A[j * n + j];
+                for (int k = k0; k < j; k++) {
+                    d -= A[j * n + k] * A[j * n + k];
+                }
+                if (!(d > 0)) {
+                    return j;
+                }
+                double ljj = Math.sqrt(d);
+                A[j * n + j] = ljj;
+                for (int i = j + 1; i < k1; i++) {
+                    double s = A[i * n + j];
+                    for (int k = k0; k < j; k++) {
+                        s -= A[i * n + k] * A[j * n + k];
+                    }
+                    A[i * n + j] = s / ljj;
+                }
+            }
+            if (k1 == n) {
+                break;
+            }
+            
+            int bloque0 = k0, bloque1 = k1;
+            enFilas(pool, k1, n, (desde, hasta) -> {
+                for (int i = desde; i < hasta; i++) {
+                    int fi = i * n;
+                    // Panel: L21 = A21 L11⁻ᵀ
+                    for (int j = bloque0; j < bloque1; j++) {
+                        double s = A[fi + j];
+                        for (int k = bloque0; k < j; k++) {
+                            s -= A[fi + k] * A[j * n + k];
+                        }
+                        A[fi + j] = s / A[j * n + j];
+                    }
+                }
+            });
+            enFilas(pool, k1, n, (desde, hasta) -> {
+                for (int i = desde; i < hasta; i++) {
+                    int fi = i * n;
+                    // Resto: A22 -= L21 L21ᵀ (solo el triángulo inferior)
+                    for (int j = bloque1; j <= i; j++) {
+                        int fj = j * n;
+                        double s = 0;
+                        for (int k = bloque0; k < bloque1; k++) {
+                            s += A[fi + k] * A[fj + k];
+                        }
+                        A[fi + j] -= s;
+                    }
+                }
+            });
+        }
+        return n;
+    }
+    
+    private interface OperacionFilas {
+        void aplicar(int desde, int hasta);
+    }
+    
+    // Aplica la operación a las filas desde..hasta-1; en paralelo solo si hay suficientes filas
+    private static void enFilas(ForkJoinPool pool, int desde, int hasta, OperacionFilas operacion) {
+        if (hasta - desde <= 2 * TAM_BLOQUE) {
+            operacion.aplicar(desde, hasta);
+        } else {
+            pool.invoke(new TareaFilas(desde, hasta, operacion));
+        }
+    }
+    
+    private static class TareaFilas extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int desde, hasta;
+        private final OperacionFilas operacion;
+        
+        TareaFilas(int desde, int hasta, OperacionFilas operacion) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.operacion = operacion;
+        }
+        
+        @Override
+        protected void compute() {
+            if (hasta - desde <= FILAS_HOJA) {
+                operacion.aplicar(desde, hasta);
+            } else {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaFilas(desde, medio, operacion), new TareaFilas(medio, hasta, operacion));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+import java.awt.*;
+import java.util.Arrays;
+
+public class EstiloGrafico {
+    // Trazos, fuentes y colores compartidos: se crean una sola vez, no en cada repintado
+    static final BasicStroke TRAZO_1 = new BasicStroke(1);
+    static final BasicStroke TRAZO_2 = new BasicStroke(2);
+    static final BasicStroke TRAZO_3 = new BasicStroke(3);
+    static final BasicStroke TRAZO_8 = new BasicStroke(8);
+    static final BasicStroke DISCONTINUO_1 = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL,
+            0, new float[]{5}, 0);
+    static final BasicStroke DISCONTINUO_1_CORTO = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL,
+            0, new float[]{3}, 0);
+    static final BasicStroke DISCONTINUO_2 = new BasicStroke(2, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL,
+            0, new float[]{5}, 0);
+    
+    static final Font ARIAL_12 = new Font("Arial", Font.PLAIN, 12);
+    static final Font ARIAL_NEGRITA_12 = new Font("Arial", Font.BOLD, 12);
+    static final Font ARIAL_NEGRITA_14 = new Font("Arial", Font.BOLD, 14);
+    static final Font ARIAL_NEGRITA_16 = new Font("Arial", Font.BOLD, 16);
+    static final Font MONOESPACIADA_12 = new Font("Monospaced", Font.PLAIN, 12);
+    
+    // Colores indexados por su valor RGB (los datos de simulación guardan solo el entero)
+    private static int[] rgbs = new int[0];
+    private static Color[] colores = new Color[0];
+    
+    // Solo se llama desde el hilo de eventos de Swing
+    static Color color(int rgb) {
+        for (int i = 0; i < rgbs.length; i++) {
+            if (rgbs[i] == rgb) {
+                return colores[i];
+            }
+        }
+        int n = rgbs.length;
+        rgbs = Arrays.copyOf(rgbs, n + 1);
+        colores = Arrays.copyOf(colores, n + 1);
+        rgbs[n] = rgb;
+        colores[n] = new Color(rgb);
+        return colores[n];
+    }
+}
\ No newline at end of file
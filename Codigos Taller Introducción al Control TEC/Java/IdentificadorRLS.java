@@ -0,0 +1,124 @@
+public class IdentificadorRLS {
+    // Mínimos cuadrados recursivos con factor de olvido: y(k) = phi(k)ᵀ theta + e(k)
+    private final int p;
+    private final double lambda;
+    private final double trazaMaxima;
+    
+    // Estimación actual y covarianza factorizada P = U D Uᵀ (U triangular superior con unos en la
+    // diagonal, guardada por filas; D diagonal). Actualizar los factores (Bierman) en lugar de P
+    // mantiene P simétrica y definida positiva aunque falte excitación: D nunca se vuelve negativa
+    private final double[] theta;
+    private final double[] U;
+    private final double[] D;
+    
+    // Buffers preasignados: cada actualización cuesta O(p²) y no crea objetos
+    private final double[] f;
+    private final double[] v;
+    private final double[] ganancia;
+    
+    private long muestras = 0;
+    
+    // lambda = 1 no olvida; lambda < 1 da una ventana efectiva de ~1/(1 - lambda) muestras.
+    // P se inicia en p0·I (p0 grande = poca confianza en theta = 0)
+    public IdentificadorRLS(int p, double lambda, double p0) {
+        if (lambda <= 0 || lambda > 1) {
+            throw new IllegalArgumentException("El factor de olvido debe estar en (0, 1]: " + lambda);
+        }
+        this.p = p;
+        this.lambda = lambda;
+        // Con poca excitación el olvido infla P sin límite: se acota su traza a la inicial
+        this.trazaMaxima = p0 * p;
+        this.theta = new double[p];
+        this.U = new double[p * p];
+        this.D = new double[p];
+        this.f = new double[p];
+        this.v = new double[p];
+        this.ganancia = new double[p];
+        for (int i = 0; i < p; i++) {
+            U[i * p + i] = 1.0;
+            D[i] = p0;
+        }
+    }
+    
+    // Incorpora una muestra y devuelve el error de predicción a priori y - phiᵀ theta
+    public double actualizar(double[] phi, double y) {
+        // f = Uᵀ phi, v = D f y predicción phiᵀ theta
+        double prediccion = 0;
+        for (int j = 0; j < p; j++) {
+            double suma = phi[j];
+            for (int i = 0; i < j; i++) {
+                suma += U[i * p + j] * phi[i];
+            }
+            f[j] = suma;
+            v[j] = D[j] * suma;
+            prediccion += phi[j] * theta[j];
+        }
+        
+        // Actualización UD de Bierman con varianza de medición lambda: deja
+        // U D Uᵀ = P - P phi phiᵀ P / (lambda + phiᵀ P phi) y la ganancia sin normalizar en 'ganancia'.
+        // alfa termina siendo el denominador lambda + phiᵀ P phi
+        double alfa = lambda + v[0] * f[0];
+        D[0] *= lambda / alfa;
+        ganancia[0] = v[0];
+        for (int j = 1; j < p; j++) {
+            double beta = alfa;
+            alfa += v[j] * f[j];
+            double mu = -f[j] / beta;
+            D[j] *= beta / alfa;
+            ganancia[j] = v[j];
+            for (int i = 0; i < j; i++) {
+                int ij = i * p + j;
+                double u = U[ij];
+                U[ij] = u + ganancia[i] * mu;
+                ganancia[i] += u * v[j];
+            }
+        }
+        
+        double error = y - prediccion;
+        for (int i = 0; i < p; i++) {
+            theta[i] += ganancia[i] / alfa * error;
+        }
+        
+        // Olvido: P = P / lambda solo escala D. traza(P) = sum_j D_j sum_{i<=j} U_ij²
+        double traza = 0;
+        for (int j = 0; j < p; j++) {
+            D[j] /= lambda;
+            double columna = 1.0;
+            for (int i = 0; i < j; i++) {
+                columna += U[i * p + j] * U[i * p + j];
+            }
+            traza += D[j] * columna;
+        }
+        if (traza > trazaMaxima) {
+            double escala = trazaMaxima / traza;
+            for (int j = 0; j < p; j++) {
+                D[j] *= escala;
+            }
+        }
+        
+        muestras++;
+        return error;
+    }
+    
+    public double getParametro(int i) {
+        return theta[i];
+    }
+    
+    // Copia de la estimación actual
+    public double[] getTheta() {
+        return theta.clone();
+    }
+    
+    // Elemento (i, j) de P = U D Uᵀ
+    public double getCovarianza(int i, int j) {
+        double suma = 0;
+        for (int k = Math.max(i, j); k < p; k++) {
+            suma += U[i * p + k] * D[k] * U[j * p + k];
+        }
+        return suma;
+    }
+    
+    public long getMuestras() {
+        return muestras;
+    }
+}
\ No newline at end of file
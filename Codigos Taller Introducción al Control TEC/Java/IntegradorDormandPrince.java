@@ -0,0 +1,168 @@
+public class IntegradorDormandPrince {
+    // Sistema de ecuaciones diferenciales dx/dt = f(t, x)
+    public interface Sistema {
+        void derivadas(double t, double[] x, double[] dxdt);
+    }
+    
+    // Coeficientes de Dormand-Prince 5(4)
+    private static final double C2 = 1.0/5, C3 = 3.0/10, C4 = 4.0/5, C5 = 8.0/9;
+    private static final double A21 = 1.0/5;
+    private static final double A31 = 3.0/40, A32 = 9.0/40;
+    private static final double A41 = 44.0/45, A42 = -56.0/15, A43 = 32.0/9;
+    private static final double A51 = 19372.0/6561, A52 = -25360.0/2187, A53 = 64448.0/6561, A54 = -212.0/729;
+    private static final double A61 = 9017.0/3168, A62 = -355.0/33, A63 = 46732.0/5247, A64 = 49.0/176, A65 = -5103.0/18656;
+    private static final double A71 = 35.0/384, A73 = 500.0/1113, A74 = 125.0/192, A75 = -2187.0/6784, A76 = 11.0/84;
+    // Diferencia entre las soluciones de orden 5 y 4 (estimación del error)
+    private static final double E1 = 71.0/57600, E3 = -71.0/16695, E4 = 71.0/1920,
+                                E5 = -17253.0/339200, E6 = 22.0/525, E7 = -1.0/40;
+    
+    // El paso no puede bajar de este número de ulp del tiempo
+    private static final double PASOS_ULP_MINIMO = 16;
+    
+    private final Sistema sistema;
+    private final int n;
+    private final double tolRel, tolAbs;
+    
+    // Paso actual: se conserva entre llamadas para reutilizar pasos grandes
+    private double h = 0.0;
+    
+    // Buffers preasignados: la integración no crea objetos
+    private final double[] k1, k2, k3, k4, k5, k6, k7;
+    private final double[] xTemp, xNuevo;
+    private boolean k1Valido = false;
+    
+    // Estadísticas
+    private long evaluaciones = 0;
+    private long pasosAceptados = 0;
+    private long pasosRechazados = 0;
+    
+    public IntegradorDormandPrince(Sistema sistema, int n, double tolRel, double tolAbs) {
+        this.sistema = sistema;
+        this.n = n;
+        this.tolRel = tolRel;
+        this.tolAbs = tolAbs;
+        k1 = new double[n]; k2 = new double[n]; k3 = new double[n]; k4 = new double[n];
+        k5 = new double[n]; k6 = new double[n]; k7 = new double[n];
+        xTemp = new double[n];
+        xNuevo = new double[n];
+    }
+    
+    // Debe llamarse cuando la entrada del sistema cambia de forma discontinua
+    // (por ejemplo, un nuevo torque del controlador): invalida la derivada guardada
+    public void entradaCambiada() {
+        k1Valido = false;
+    }
+    
+    // Integra x (en el mismo arreglo) desde t0 hasta t1 con control de error.
+    // Lanza IllegalStateException si el error deja de ser finito o el paso cae por debajo
+    // de unos pocos ulp de t (sistema rígido o solución que diverge)
+    public void integrar(double[] x, double t0, double t1) {
+        double t = t0;
+        if (!k1Valido) {
+            sistema.derivadas(t, x, k1);
+            evaluaciones++;
+            k1Valido = true;
+        }
+        if (h <= 0) {
+            h = pasoInicial(x, t, t1 - t0);
+        }
+        
+        while (t < t1) {
+            double paso = Math.min(h, t1 - t);
+            // Evitar un último paso diminuto por redondeo
+            if (t + paso >= t1 - 1e-12 * Math.abs(t1)) {
+                paso = t1 - t;
+            }
+            
+            double err = intentarPaso(x, t, paso);
+            if (Double.isNaN(err) || Double.isInfinite(err)) {
+                throw new IllegalStateException("Error de integración no finito en t = " + t + ", h = " + paso);
+            }
+            
+            if (err <= 1.0) {
+                // Paso aceptado: FSAL, k7 es la derivada en el nuevo punto
+                t = (paso == t1 - t) ? t1 : t + paso;
+                System.arraycopy(xNuevo, 0, x, 0, n);
+                System.arraycopy(k7, 0, k1, 0, n);
+                pasosAceptados++;
+                // Un paso recortado por el final del intervalo no debe reducir h
+                double hNuevo = paso * Math.min(5.0, Math.max(0.2, 0.9 * Math.pow(Math.max(err, 1e-10), -0.2)));
+                boolean recortado = paso < h;
+                h = recortado ? Math.max(h, hNuevo) : hNuevo;
+            } else {
+                pasosRechazados++;
+                h = paso * Math.max(0.2, 0.9 * Math.pow(err, -0.2));
+                // Paso mínimo relativo a t: por debajo, t + h ya no avanza de forma útil
+                double hMin = PASOS_ULP_MINIMO * Math.ulp(Math.max(Math.abs(t), Math.abs(t1)));
+                if (h < hMin) {
+                    throw new IllegalStateException("Paso de integración por debajo del mínimo en t = " + t +
+                            ", h = " + h + " (tolerancia inalcanzable o sistema rígido)");
+                }
+            }
+        }
+    }
+    
+    // Calcula la solución de orden 5 en xNuevo y devuelve el error normalizado
+    private double intentarPaso(double[] x, double t, double paso) {
+        for (int i = 0; i < n; i++) {
+            xTemp[i] = x[i] + paso * (A21 * k1[i]);
+        }
+        sistema.derivadas(t + C2 * paso, xTemp, k2);
+        for (int i = 0; i < n; i++) {
+            xTemp[i] = x[i] + paso * (A31 * k1[i] + A32 * k2[i]);
+        }
+        sistema.derivadas(t + C3 * paso, xTemp, k3);
+        for (int i = 0; i < n; i++) {
+            xTemp[i] = x[i] + paso * (A41 * k1[i] + A42 * k2[i] + A43 * k3[i]);
+        }
+        sistema.derivadas(t + C4 * paso, xTemp, k4);
+        for (int i = 0; i < n; i++) {
+            xTemp[i] = x[i] + paso * (A51 * k1[i] + A52 * k2[i] + A53 * k3[i] + A54 * k4[i]);
+        }
+        sistema.derivadas(t + C5 * paso, xTemp, k5);
+        for (int i = 0; i < n; i++) {
+            xTemp[i] = x[i] + paso * (A61 * k1[i] + A62 * k2[i] + A63 * k3[i] + A64 * k4[i] + A65 * k5[i]);
+        }
+        sistema.derivadas(t + paso, xTemp, k6);
+        for (int i = 0; i < n; i++) {
+            xNuevo[i] = x[i] + paso * (A71 * k1[i] + A73 * k3[i] + A74 * k4[i] + A75 * k5[i] + A76 * k6[i]);
+        }
+        sistema.derivadas(t + paso, xNuevo, k7);
+        evaluaciones += 6;
+        
+        // Norma RMS del error relativo a la tolerancia
+        double suma = 0;
+        for (int i = 0; i < n; i++) {
+            double e = paso * (E1 * k1[i] + E3 * k3[i] + E4 * k4[i] + E5 * k5[i] + E6 * k6[i] + E7 * k7[i]);
+            double escala = tolAbs + tolRel * Math.max(Math.abs(x[i]), Math.abs(xNuevo[i]));
+            suma += (e / escala) * (e / escala);
+        }
+        return Math.sqrt(suma / n);
+    }
+    
+    // Estimación del primer paso (Hairer, Nørsett y Wanner)
+    private double pasoInicial(double[] x, double t, double intervalo) {
+        double d0 = 0, d1 = 0;
+        for (int i = 0; i < n; i++) {
+            double escala = tolAbs + tolRel * Math.abs(x[i]);
+            d0 += (x[i] / escala) * (x[i] / escala);
+            d1 += (k1[i] / escala) * (k1[i] / escala);
+        }
+        d0 = Math.sqrt(d0 / n);
+        d1 = Math.sqrt(d1 / n);
+        double h0 = (d0 < 1e-5 || d1 < 1e-5) ? 1e-6 : 0.01 * d0 / d1;
+        return Math.min(h0, intervalo);
+    }
+    
+    public long getEvaluaciones() {
+        return evaluaciones;
+    }
+    
+    public long getPasosAceptados() {
+        return pasosAceptados;
+    }
+    
+    public long getPasosRechazados() {
+        return pasosRechazados;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,257 @@
+import java.io.*;
+import java.util.concurrent.*;
+
+public class MapaEstabilidadPID {
+    // Celdas de la malla resueltas por cada tarea hoja del fork-join
+    private static final int TAM_HOJA = 4096;
+    
+    // Malla de ganancias
+    private final double[] valoresKp, valoresKi, valoresKd;
+    private final int nKp, nKi, nKd, total;
+    
+    // Planta K/(τ²s² + 2ζτs + 1) con PID: τ²s³ + (2ζτ + KKd)s² + (1 + KKp)s + KKi
+    private final double K, tau, zeta;
+    
+    // Resultados densos en float (la mitad de memoria que double, suficiente para un mapa),
+    // índice = (iKp * nKi + iKi) * nKd + iKd
+    final float[] amortiguamiento;      // ζ del polo dominante (el de mayor parte real)
+    final float[] frecuenciaNatural;    // ωn = |s| del polo dominante
+    final float[] margen;               // -max Re(s): positivo si es estable (tasa de decaimiento)
+                                        // NaN en los tres si Aberth no convergió en esa celda
+    
+    public MapaEstabilidadPID(double[] valoresKp, double[] valoresKi, double[] valoresKd,
+                              double K, double tau, double zeta) {
+        this.valoresKp = valoresKp.clone();
+        this.valoresKi = valoresKi.clone();
+        this.valoresKd = valoresKd.clone();
+        this.nKp = valoresKp.length;
+        this.nKi = valoresKi.length;
+        this.nKd = valoresKd.length;
+        this.total = nKp * nKi * nKd;
+        this.K = K;
+        this.tau = tau;
+        this.zeta = zeta;
+        
+        amortiguamiento = new float[total];
+        frecuenciaNatural = new float[total];
+        margen = new float[total];
+    }
+    
+    // Calcula el mapa usando todos los núcleos disponibles
+    public void ejecutar() {
+        ejecutar(ForkJoinPool.commonPool());
+    }
+    
+    public void ejecutar(ForkJoinPool pool) {
+        pool.invoke(new TareaMapa(0, total));
+    }
+    
+    // Divide el rango de la malla en mitades hasta llegar a bloques de TAM_HOJA. Los bloques no
+    // dependen del número de hilos, así el arranque en caliente da siempre el mismo resultado
+    private class TareaMapa extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int desde, hasta;
+        
+        TareaMapa(int desde, int hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+        
+        @Override
+        protected void compute() {
+            if (hasta - desde <= TAM_HOJA) {
+                resolverBloque(desde, hasta);
+            } else {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaMapa(desde, medio), new TareaMapa(medio, hasta));
+            }
+        }
+    }
+    
+    // Polinomios del bloque en un lote: Kd es el índice más interno, así cada polinomio arranca
+    // desde las raíces de su vecino en Kd
+    private void resolverBloque(int desde, int hasta) {
+        int n = hasta - desde;
+        double[] coef = new double[4 * n];
+        double tau2 = tau * tau;
+        for (int c = 0; c < n; c++) {
+            int idx = desde + c;
+            coef[4 * c] = tau2;
+            coef[4 * c + 1] = 2 * zeta * tau + K * kdDe(idx);
+            coef[4 * c + 2] = 1 + K * kpDe(idx);
+            coef[4 * c + 3] = K * kiDe(idx);
+        }
+        
+        RaicesPolinomios raices = new RaicesPolinomios(3);
+        double[] re = new double[3 * n];
+        double[] im = new double[3 * n];
+        
+        // Cada tarea escribe un rango disjunto: no hace falta sincronizar
+        for (int c = 0; c < n; c++) {
+            if (!raices.resolver(coef, 4 * c, re, im, 3 * c)) {
+                // Sin raíces confiables la celda no es ni estable ni inestable
+                amortiguamiento[desde + c] = Float.NaN;
+                frecuenciaNatural[desde + c] = Float.NaN;
+                margen[desde + c] = Float.NaN;
+                continue;
+            }
+            int dominante = 3 * c;
+            for (int k = 3 * c + 1; k < 3 * c + 3; k++) {
+                if (re[k] > re[dominante]) {
+                    dominante = k;
+                }
+            }
+            double modulo = Math.hypot(re[dominante], im[dominante]);
+            double parteReal = re[dominante];
+            if (Math.abs(parteReal) <= 1e-9 * (1 + modulo)) {
+                // Polo sobre el eje imaginario (por ejemplo, Ki = 0): marginal, no estable
+                parteReal = 0;
+            }
+            amortiguamiento[desde + c] = modulo > 0 ? (float) (-parteReal / modulo) : 0f;
+            frecuenciaNatural[desde + c] = (float) modulo;
+            margen[desde + c] = (float) -parteReal;
+        }
+    }
+    
+    public int indice(int iKp, int iKi, int iKd) {
+        return (iKp * nKi + iKi) * nKd + iKd;
+    }
+    
+    public boolean esEstable(int idx) {
+        return margen[idx] > 0;
+    }
+    
+    public double getAmortiguamiento(int iKp, int iKi, int iKd) {
+        return amortiguamiento[indice(iKp, iKi, iKd)];
+    }
+    
+    public double getFrecuenciaNatural(int iKp, int iKi, int iKd) {
+        return frecuenciaNatural[indice(iKp, iKi, iKd)];
+    }
+    
+    public double getMargen(int iKp, int iKi, int iKd) {
+        return margen[indice(iKp, iKi, iKd)];
+    }
+    
+    // Celdas sin convergencia (NaN): no cuentan como estables ni entran en mejorPorMargen
+    public int contarSinConvergencia() {
+        int n = 0;
+        for (int idx = 0; idx < total; idx++) {
+            if (Float.isNaN(margen[idx])) {
+                n++;
+            }
+        }
+        return n;
+    }
+    
+    public int contarEstables() {
+        int n = 0;
+        for (int idx = 0; idx < total; idx++) {
+            if (margen[idx] > 0) {
+                n++;
+            }
+        }
+        return n;
+    }
+    
+    // Índice de la combinación estable más rápida (mayor margen) con ζ dominante de al menos el mínimo dado
+    public int mejorPorMargen(double amortiguamientoMinimo) {
+        int mejor = -1;
+        for (int idx = 0; idx < total; idx++) {
+            if (margen[idx] > 0 && amortiguamiento[idx] >= amortiguamientoMinimo
+                    && (mejor < 0 || margen[idx] > margen[mejor])) {
+                mejor = idx;
+            }
+        }
+        return mejor;
+    }
+    
+    public double kpDe(int idx) {
+        return valoresKp[idx / (nKi * nKd)];
+    }
+    
+    public double kiDe(int idx) {
+        return valoresKi[(idx / nKd) % nKi];
+    }
+    
+    public double kdDe(int idx) {
+        return valoresKd[idx % nKd];
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    // Exporta la malla completa en CSV (una fila por combinación de ganancias)
+    public void exportarCSV(String archivo) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(archivo), 1 << 16)) {
+            out.write("Kp,Ki,Kd,zeta_dominante,wn_dominante,margen\n");
+            StringBuilder sb = new StringBuilder(128);
+            for (int idx = 0; idx < total; idx++) {
+                sb.setLength(0);
+                sb.append(kpDe(idx)).append(',').append(kiDe(idx)).append(',').append(kdDe(idx)).append(',')
+                  .append(amortiguamiento[idx]).append(',').append(frecuenciaNatural[idx]).append(',')
+                  .append(margen[idx]).append('\n');
+                out.append(sb);
+            }
+        }
+    }
+    
+    // Mapa de caracteres del plano Kp (filas) x Ki (columnas) para un Kd:
+    // '#' inestable, '+' estable con ζ < 0.7, '.' estable con ζ >= 0.7, '?' sin convergencia
+    public String mapaTexto(int iKd) {
+        StringBuilder sb = new StringBuilder((nKi + 1) * nKp);
+        for (int iKp = nKp - 1; iKp >= 0; iKp--) {
+            for (int iKi = 0; iKi < nKi; iKi++) {
+                int idx = indice(iKp, iKi, iKd);
+                sb.append(Float.isNaN(margen[idx]) ? '?' : margen[idx] <= 0 ? '#'
+                        : amortiguamiento[idx] < 0.7 ? '+' : '.');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+    
+    // Mapa de ejemplo sobre la planta de C_02
+    public static void main(String[] args) throws IOException {
+        MapaEstabilidadPID mapa = new MapaEstabilidadPID(
+                BarridoGananciasPID.linspace(0.0, 10.0, 200), BarridoGananciasPID.linspace(0.0, 20.0, 200),
+                BarridoGananciasPID.linspace(0.0, 5.0, 50), 1.0, 1.0, 0.5);
+        
+        System.out.println("=== MAPA DE ESTABILIDAD PID ===");
+        System.out.printf("Combinaciones: %d, núcleos: %d\n",
+                mapa.getTotal(), ForkJoinPool.commonPool().getParallelism());
+        
+        long inicio = System.nanoTime();
+        mapa.ejecutar();
+        System.out.printf("Tiempo del mapa: %.1f ms\n", (System.nanoTime() - inicio) / 1e6);
+        System.out.printf("Combinaciones estables: %d (%.1f%%)\n",
+                mapa.contarEstables(), 100.0 * mapa.contarEstables() / mapa.getTotal());
+        int sinConvergencia = mapa.contarSinConvergencia();
+        if (sinConvergencia > 0) {
+            System.out.printf("Sin convergencia (NaN, excluidas): %d\n", sinConvergencia);
+        }
+        
+        int mejor = mapa.mejorPorMargen(0.7);
+        if (mejor >= 0) {
+            System.out.println("\nCombinación más rápida con ζ dominante >= 0.7:");
+            System.out.printf("  Kp = %.3f, Ki = %.3f, Kd = %.3f\n", mapa.kpDe(mejor), mapa.kiDe(mejor), mapa.kdDe(mejor));
+            System.out.printf("  ζ = %.3f, ωn = %.3f rad/s, margen = %.3f 1/s\n",
+                    mapa.amortiguamiento[mejor], mapa.frecuenciaNatural[mejor], mapa.margen[mejor]);
+        }
+        
+        // Plano Kp x Ki con Kd = 0 en una malla gruesa de 25 x 50
+        MapaEstabilidadPID vista = new MapaEstabilidadPID(
+                BarridoGananciasPID.linspace(0.0, 10.0, 25), BarridoGananciasPID.linspace(0.0, 20.0, 50),
+                new double[]{0.0}, 1.0, 1.0, 0.5);
+        vista.ejecutar();
+        System.out.println("\nKd = 0, Kp (filas, 10 arriba) x Ki (columnas, 0..20):");
+        System.out.println("'#' inestable, '+' ζ < 0.7, '.' ζ >= 0.7, '?' sin convergencia");
+        System.out.print(vista.mapaTexto(0));
+        
+        if (args.length > 0) {
+            mapa.exportarCSV(args[0]);
+            System.out.println("\nResultados exportados a " + args[0]);
+        }
+    }
+}
\ No newline at end of file
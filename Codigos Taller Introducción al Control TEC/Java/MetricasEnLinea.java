@@ -0,0 +1,127 @@
+public class MetricasEnLinea {
+    private final double referencia;
+    private final double valorInicial;
+    private final double tolerancia;
+    private final double dt;
+    
+    // Sentido del escalón (+1 subida, -1 bajada) para pico y tiempo de subida
+    private final double signo;
+    
+    // Índices integrales
+    private double ise = 0.0;
+    private double iae = 0.0;
+    private double itae = 0.0;
+    
+    // Pico y error máximo
+    private double pico;
+    private double errorAbsMax = 0.0;
+    
+    // Banda de establecimiento
+    private double tEstablecimiento = Double.NaN;
+    private boolean fueraDeBanda = false;
+    
+    // Tiempo de subida (10% a 90% del cambio)
+    private double t10 = Double.NaN;
+    private double t90 = Double.NaN;
+    
+    // Última muestra
+    private double ultimoTiempo = 0.0;
+    private double ultimoError = 0.0;
+    private double ultimaSalida;
+    private long muestras = 0;
+    
+    public MetricasEnLinea(double referencia, double valorInicial, double tolerancia, double dt) {
+        this.referencia = referencia;
+        this.valorInicial = valorInicial;
+        this.tolerancia = tolerancia;
+        this.dt = dt;
+        this.signo = referencia >= valorInicial ? 1.0 : -1.0;
+        this.pico = valorInicial;
+        this.ultimaSalida = valorInicial;
+    }
+    
+    // Actualiza todas las métricas con una muestra: O(1) en tiempo y memoria
+    public void agregar(double t, double error, double salida) {
+        // Índices integrales sobre el error del lazo
+        double errorAbs = Math.abs(error);
+        ise += error * error * dt;
+        iae += errorAbs * dt;
+        itae += t * errorAbs * dt;
+        errorAbsMax = Math.max(errorAbsMax, errorAbs);
+        
+        // Pico en el sentido del escalón
+        if (signo * salida > signo * pico) {
+            pico = salida;
+        }
+        
+        // Banda de establecimiento: se guarda la primera muestra tras la última salida
+        if (Math.abs(salida - referencia) > tolerancia) {
+            fueraDeBanda = true;
+        } else if (fueraDeBanda || muestras == 0) {
+            tEstablecimiento = t;
+            fueraDeBanda = false;
+        }
+        
+        // Tiempo de subida (sin escalón, referencia == valorInicial, no está definido y queda NaN)
+        if (referencia != valorInicial) {
+            double avance = (salida - valorInicial) / (referencia - valorInicial);
+            if (Double.isNaN(t10) && avance >= 0.1) {
+                t10 = t;
+            }
+            if (Double.isNaN(t90) && avance >= 0.9) {
+                t90 = t;
+            }
+        }
+        
+        ultimoTiempo = t;
+        ultimoError = error;
+        ultimaSalida = salida;
+        muestras++;
+    }
+    
+    public double getISE() {
+        return ise;
+    }
+    
+    public double getIAE() {
+        return iae;
+    }
+    
+    public double getITAE() {
+        return itae;
+    }
+    
+    public double getPico() {
+        return pico;
+    }
+    
+    public double getSobrepico() {
+        return Math.max(0, signo * (pico - referencia));
+    }
+    
+    public double getErrorAbsMaximo() {
+        return errorAbsMax;
+    }
+    
+    // Si la salida sigue fuera de la banda se devuelve el tiempo de la última muestra
+    public double getTiempoEstablecimiento() {
+        return fueraDeBanda ? ultimoTiempo : tEstablecimiento;
+    }
+    
+    // NaN si la salida no llegó al 90% del cambio
+    public double getTiempoSubida() {
+        return t90 - t10;
+    }
+    
+    public double getErrorFinal() {
+        return ultimoError;
+    }
+    
+    public double getValorFinal() {
+        return ultimaSalida;
+    }
+    
+    public long getMuestras() {
+        return muestras;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,246 @@
+import java.io.*;
+
+public class ModoLote {
+    // Opciones de línea de comandos comunes a todos los programas:
+    //   --sin-interfaz     no abre ventanas (AWT/Swing nunca se carga)
+    //   --csv <archivo>    exporta las series simuladas en CSV
+    //   --traza <archivo>  exporta las series en una traza binaria columnar (TrazaBinaria)
+    // Opciones propias, que solo acepta el programa que las declara en desdeArgumentos:
+    //   --registro <archivo> [--columnas u,y] [--estimacion n]
+    //                      identifica desde un registro medido (CSV o .trz) en lugar de simular;
+    //                      las primeras n muestras estiman y el resto valida (por omisión, el 70%)
+    //   --semilla <n>      semilla del ruido simulado: la corrida se repite bit a bit
+    // También se trabaja sin interfaz si la JVM se lanzó con -Djava.awt.headless=true
+    public static final String OPCION_REGISTRO = "--registro";
+    public static final String OPCION_SEMILLA = "--semilla";
+    
+    private final boolean sinInterfaz;
+    private final String archivoCSV;
+    private final String archivoTraza;
+    private final String archivoRegistro;
+    private final String[] columnasRegistro;
+    private final Long muestrasEstimacion;
+    private final Long semilla;
+    
+    private ModoLote(boolean sinInterfaz, String archivoCSV, String archivoTraza,
+                     String archivoRegistro, String[] columnasRegistro, Long muestrasEstimacion, Long semilla) {
+        this.sinInterfaz = sinInterfaz;
+        this.archivoCSV = archivoCSV;
+        this.archivoTraza = archivoTraza;
+        this.archivoRegistro = archivoRegistro;
+        this.columnasRegistro = columnasRegistro;
+        this.muestrasEstimacion = muestrasEstimacion;
+        this.semilla = semilla;
+    }
+    
+    // Las opciones propias que el programa no declara se rechazan como no reconocidas
+    public static ModoLote desdeArgumentos(String[] args, String... opcionesPropias) {
+        boolean conRegistro = false, conSemilla = false;
+        for (String opcion : opcionesPropias) {
+            if (opcion.equals(OPCION_REGISTRO)) {
+                conRegistro = true;
+            } else if (opcion.equals(OPCION_SEMILLA)) {
+                conSemilla = true;
+            } else {
+                throw new IllegalArgumentException("Opción propia desconocida: " + opcion);
+            }
+        }
+        
+        // Se lee la propiedad como texto: GraphicsEnvironment.isHeadless() cargaría AWT
+        boolean sinInterfaz = "true".equalsIgnoreCase(System.getProperty("java.awt.headless"));
+        String archivoCSV = null;
+        String archivoTraza = null;
+        String archivoRegistro = null;
+        String[] columnasRegistro = {"u", "y_medida"};   // nombres que exporta C_03
+        Long muestrasEstimacion = null;
+        Long semilla = null;
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--sin-interfaz")) {
+                sinInterfaz = true;
+            } else if (args[i].equals("--csv") && i + 1 < args.length) {
+                archivoCSV = args[++i];
+            } else if (args[i].equals("--traza") && i + 1 < args.length) {
+                archivoTraza = args[++i];
+            } else if (conRegistro && args[i].equals(OPCION_REGISTRO) && i + 1 < args.length) {
+                archivoRegistro = args[++i];
+            } else if (conRegistro && args[i].equals("--columnas") && i + 1 < args.length) {
+                String[] columnas = args[++i].split(",", -1);
+                if (columnas.length != 2 || columnas[0].isEmpty() || columnas[1].isEmpty()) {
+                    throw new IllegalArgumentException("--columnas espera u,y: " + args[i]);
+                }
+                columnasRegistro = columnas;
+            } else if (conRegistro && args[i].equals("--estimacion") && i + 1 < args.length) {
+                try {
+                    muestrasEstimacion = Long.parseLong(args[++i]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Número de muestras de estimación no válido: " + args[i]);
+                }
+                if (muestrasEstimacion <= 0) {
+                    throw new IllegalArgumentException("--estimacion espera un número de muestras positivo: " + args[i]);
+                }
+            } else if (conSemilla && args[i].equals(OPCION_SEMILLA) && i + 1 < args.length) {
+                try {
+                    semilla = Long.parseLong(args[++i]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Semilla no válida: " + args[i]);
+                }
+            } else {
+                throw new IllegalArgumentException("Opción no reconocida: " + args[i] +
+                        " (uso: [--sin-interfaz] [--csv archivo] [--traza archivo]" +
+                        (conRegistro ? " [--registro archivo [--columnas u,y] [--estimacion n]]" : "") +
+                        (conSemilla ? " [--semilla n]" : "") + ")");
+            }
+        }
+        return new ModoLote(sinInterfaz, archivoCSV, archivoTraza, archivoRegistro, columnasRegistro,
+                muestrasEstimacion, semilla);
+    }
+    
+    public boolean conInterfaz() {
+        return !sinInterfaz;
+    }
+    
+    // Registro medido indicado con --registro (null si no hay)
+    public String getArchivoRegistro() {
+        return archivoRegistro;
+    }
+    
+    // Nombres (o índices) de las columnas de entrada y salida del registro
+    public String[] getColumnasRegistro() {
+        return columnasRegistro;
+    }
+    
+    // Muestras del tramo de estimación indicadas con --estimacion (null si no hay)
+    public Long getMuestrasEstimacion() {
+        return muestrasEstimacion;
+    }
+    
+    // Semilla indicada con --semilla (null si no hay)
+    public Long getSemilla() {
+        return semilla;
+    }
+    
+    // Exporta las series a los formatos pedidos; todas las columnas deben tener la misma longitud
+    public void exportar(String[] encabezados, double[]... columnas) throws IOException {
+        if (encabezados.length != columnas.length) {
+            throw new IllegalArgumentException("Se esperaban " + columnas.length + " encabezados");
+        }
+        if (archivoCSV != null) {
+            exportarCSV(encabezados, columnas);
+        }
+        if (archivoTraza != null) {
+            try (TrazaBinaria.Escritor traza = new TrazaBinaria.Escritor(archivoTraza, encabezados,
+                    columnas[0].length)) {
+                traza.escribirColumnas(columnas);
+            }
+            System.out.println("\nTraza binaria exportada a " + archivoTraza);
+        }
+    }
+    
+    // Exportación fila a fila a los formatos pedidos, para series que se producen en vivo y no se
+    // guardan completas. filasMaximas dimensiona la traza binaria (al cerrar se recorta a las que hubo)
+    public Exportacion abrirExportacion(String[] encabezados, long filasMaximas) throws IOException {
+        return new Exportacion(encabezados, filasMaximas);
+    }
+    
+    public class Exportacion implements Closeable {
+        private final int columnas;
+        private final Writer csv;
+        private final TrazaBinaria.Escritor traza;
+        private final StringBuilder sb;
+        // agregar se llama desde un Consumer (sin excepciones comprobadas): el primer error de
+        // escritura del CSV se guarda y se lanza al cerrar
+        private IOException error;
+        
+        private Exportacion(String[] encabezados, long filasMaximas) throws IOException {
+            columnas = encabezados.length;
+            sb = new StringBuilder(32 * columnas);
+            Writer out = null;
+            if (archivoCSV != null) {
+                out = new BufferedWriter(new FileWriter(archivoCSV), 1 << 16);
+                out.write(String.join(",", encabezados));
+                out.write('\n');
+            }
+            TrazaBinaria.Escritor t = null;
+            if (archivoTraza != null) {
+                try {
+                    t = new TrazaBinaria.Escritor(archivoTraza, encabezados, filasMaximas);
+                } catch (IOException | RuntimeException e) {
+                    if (out != null) {
+                        out.close();
+                    }
+                    throw e;
+                }
+            }
+            csv = out;
+            traza = t;
+        }
+        
+        // Una muestra: los primeros 'columnas' valores de la fila
+        public void agregar(double[] fila) {
+            if (csv != null && error == null) {
+                sb.setLength(0);
+                for (int c = 0; c < columnas; c++) {
+                    if (c > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(fila[c]);
+                }
+                sb.append('\n');
+                try {
+                    csv.append(sb);
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            if (traza != null) {
+                traza.agregar(fila);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (csv != null) {
+                try {
+                    csv.close();
+                } catch (IOException e) {
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+                if (error == null) {
+                    System.out.println("\nSeries exportadas a " + archivoCSV);
+                }
+            }
+            if (traza != null) {
+                traza.close();
+                System.out.println("\nTraza binaria exportada a " + archivoTraza);
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+    
+    // Una fila por muestra
+    private void exportarCSV(String[] encabezados, double[][] columnas) throws IOException {
+        int filas = columnas[0].length;
+        try (Writer out = new BufferedWriter(new FileWriter(archivoCSV), 1 << 16)) {
+            out.write(String.join(",", encabezados));
+            out.write('\n');
+            StringBuilder sb = new StringBuilder(32 * columnas.length);
+            for (int i = 0; i < filas; i++) {
+                sb.setLength(0);
+                for (int c = 0; c < columnas.length; c++) {
+                    if (c > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(columnas[c][i]);
+                }
+                sb.append('\n');
+                out.append(sb);
+            }
+        }
+        System.out.println("\nSeries exportadas a " + archivoCSV);
+    }
+}
\ No newline at end of file
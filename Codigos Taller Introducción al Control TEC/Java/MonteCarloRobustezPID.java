@@ -0,0 +1,272 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+public class MonteCarloRobustezPID {
+    // Robustez de un PID frente a la incertidumbre de la planta: cada muestra toma K, τ y ζ de
+    // distribuciones configurables, agrega ruido de medición y simula el lazo cerrado completo.
+    // Cada tarea del fork-join recibe su propio generador (split del de su padre): no hay estado
+    // compartido ni bloqueos, y como la división de rangos es fija los resultados son los mismos
+    // con cualquier número de hilos
+    public interface Distribucion {
+        double muestrear(SplittableRandom rng);
+    }
+    
+    public static Distribucion fija(double valor) {
+        return rng -> valor;
+    }
+    
+    public static Distribucion normal(double media, double desvio) {
+        return rng -> media + desvio * gaussiana(rng);
+    }
+    
+    public static Distribucion uniforme(double minimo, double maximo) {
+        return rng -> minimo + (maximo - minimo) * rng.nextDouble();
+    }
+    
+    // Normal estándar por el método polar de Marsaglia (SplittableRandom no trae nextGaussian)
+    static double gaussiana(SplittableRandom rng) {
+        double v1, v2, s;
+        do {
+            v1 = 2 * rng.nextDouble() - 1;
+            v2 = 2 * rng.nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        return v1 * Math.sqrt(-2 * Math.log(s) / s);
+    }
+    
+    // Muestras simuladas por cada tarea hoja del fork-join
+    private static final int TAM_HOJA = 64;
+    // Intentos para obtener una planta física (τ > 0, ζ >= 0) antes de rechazar la distribución
+    private static final int MAX_RECHAZOS = 1000;
+    // |y - referencia| por encima de esto se considera divergencia
+    private static final double LIMITE_DIVERGENCIA = 1e6;
+    
+    // Controlador (variantes de SimuladorLotePID) y escenario
+    private final int tipo;
+    private final double kp, ki, kd;
+    private final Distribucion distK, distTau, distZeta;
+    private final double ruidoMedicion;                 // desvío del ruido gaussiano del sensor
+    private final double dt, tSim, tAmb, yInicial, referencia, uMin, uMax;
+    private final int n;
+    private final long semilla;
+    
+    // Resultados por muestra
+    final double[] K, tau, zeta;
+    final double[] sobrepico, tEstablecimiento, ise;
+    final boolean[] fallida;                            // divergió o no se estableció dentro de tSim
+    
+    public MonteCarloRobustezPID(int tipo, double kp, double ki, double kd,
+                                 Distribucion distK, Distribucion distTau, Distribucion distZeta,
+                                 double ruidoMedicion, double dt, double tSim, double tAmb,
+                                 double yInicial, double referencia, double uMin, double uMax,
+                                 int muestras, long semilla) {
+        this.tipo = tipo;
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        this.distK = distK;
+        this.distTau = distTau;
+        this.distZeta = distZeta;
+        this.ruidoMedicion = ruidoMedicion;
+        this.dt = dt;
+        this.tSim = tSim;
+        this.tAmb = tAmb;
+        this.yInicial = yInicial;
+        this.referencia = referencia;
+        this.uMin = uMin;
+        this.uMax = uMax;
+        this.n = muestras;
+        this.semilla = semilla;
+        
+        K = new double[n];
+        tau = new double[n];
+        zeta = new double[n];
+        sobrepico = new double[n];
+        tEstablecimiento = new double[n];
+        ise = new double[n];
+        fallida = new boolean[n];
+    }
+    
+    // Simula todas las muestras usando todos los núcleos disponibles
+    public void ejecutar() {
+        ejecutar(ForkJoinPool.commonPool());
+    }
+    
+    public void ejecutar(ForkJoinPool pool) {
+        pool.invoke(new TareaMonteCarlo(0, n, new SplittableRandom(semilla)));
+    }
+    
+    // Divide las muestras en mitades; la mitad derecha recibe un generador separado del de la
+    // izquierda. El árbol de divisiones (y por lo tanto cada flujo) solo depende de n y TAM_HOJA
+    private class TareaMonteCarlo extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int desde, hasta;
+        private final SplittableRandom rng;
+        
+        TareaMonteCarlo(int desde, int hasta, SplittableRandom rng) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.rng = rng;
+        }
+        
+        @Override
+        protected void compute() {
+            if (hasta - desde <= TAM_HOJA) {
+                for (int i = desde; i < hasta; i++) {
+                    simular(i, rng);
+                }
+            } else {
+                int medio = (desde + hasta) >>> 1;
+                SplittableRandom derecha = rng.split();
+                invokeAll(new TareaMonteCarlo(desde, medio, rng), new TareaMonteCarlo(medio, hasta, derecha));
+            }
+        }
+    }
+    
+    // Una planta perturbada en lazo cerrado. Cada muestra tiene su propia planta, así que no sirve
+    // el lote de SimuladorLotePID (una planta, muchos controladores), pero se usan su misma
+    // discretización y el mismo paso de ControladorPID, con el ruido sumado a la medición que ve
+    // el controlador. Las métricas usan la salida real, no la medida
+    private void simular(int i, SplittableRandom rng) {
+        double k, t, z;
+        int intentos = 0;
+        do {
+            if (++intentos > MAX_RECHAZOS) {
+                throw new IllegalArgumentException("Las distribuciones no generan plantas con τ > 0 y ζ >= 0");
+            }
+            k = distK.muestrear(rng);
+            t = distTau.muestrear(rng);
+            z = distZeta.muestrear(rng);
+        } while (!(t > 0) || !(z >= 0));
+        K[i] = k;
+        tau[i] = t;
+        zeta[i] = z;
+        
+        SimuladorLotePID.PlantaDiferencias planta = new SimuladorLotePID.PlantaDiferencias(k, t, z, dt, tAmb);
+        double tolerancia = 0.02 * referencia;
+        
+        double y1 = yInicial, yPrev = yInicial;
+        double medidaPrev = yInicial;
+        // Estado del controlador; la ley de control son las funciones puras de ControladorPID
+        double integral = 0.0, errorPrev = 0.0, derivativo = 0.0;
+        boolean filtrada = tipo == SimuladorLotePID.PID_MEDICION_FILTRADA;
+        double maximo = yInicial, suma = 0;
+        double tEst = Math.abs(yInicial - referencia) > tolerancia ? 2 * dt : 0.0;
+        boolean diverge = false;
+        
+        int pasos = (int) Math.round(tSim / dt);
+        for (int m = 2; m <= pasos; m++) {
+            double medida = ruidoMedicion > 0 ? y1 + ruidoMedicion * gaussiana(rng) : y1;
+            double e = referencia - medida;
+            
+            double incremento = ControladorPID.incrementoIntegral(e, errorPrev, dt, !filtrada);
+            double integ = integral + incremento;
+            double u;
+            if (filtrada) {
+                derivativo = ControladorPID.derivadaFiltrada(derivativo, medida, medidaPrev, dt);
+                u = ControladorPID.senalSaturada(kp, ki, -kd, e, integ, derivativo, uMin, uMax);
+            } else {
+                u = ControladorPID.senalSaturada(kp, ki, kd, e, integ, (e - errorPrev) / dt, uMin, uMax);
+            }
+            integral = ControladorPID.integralTrasSaturacion(integ, incremento, u, uMin, uMax);
+            errorPrev = e;
+            medidaPrev = medida;
+            
+            double y = planta.siguiente(y1, yPrev, u);
+            double errorReal = referencia - y1;
+            suma += errorReal * errorReal * dt;
+            yPrev = y1;
+            y1 = y;
+            
+            if (!(Math.abs(y - referencia) <= LIMITE_DIVERGENCIA)) {
+                diverge = true;
+                break;
+            }
+            maximo = Math.max(maximo, y);
+            if (Math.abs(y - referencia) > tolerancia) {
+                tEst = (m + 1) * dt;
+            }
+        }
+        
+        sobrepico[i] = Math.max(0, maximo - referencia);
+        tEstablecimiento[i] = Math.min(tEst, pasos * dt);
+        ise[i] = suma;
+        // Si la última muestra sigue fuera de la banda, no se estableció
+        fallida[i] = diverge || tEst > pasos * dt;
+    }
+    
+    public int getTotal() {
+        return n;
+    }
+    
+    public int contarFallidas() {
+        int c = 0;
+        for (int i = 0; i < n; i++) {
+            if (fallida[i]) {
+                c++;
+            }
+        }
+        return c;
+    }
+    
+    public double getFraccionFallos() {
+        return n > 0 ? (double) contarFallidas() / n : 0.0;
+    }
+    
+    // Percentil p (0..100) de una métrica sobre las muestras no fallidas, interpolando entre
+    // valores ordenados. NaN si todas fallaron
+    public double percentil(double[] metrica, double p) {
+        double[] validos = new double[n];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (!fallida[i]) {
+                validos[m++] = metrica[i];
+            }
+        }
+        if (m == 0) {
+            return Double.NaN;
+        }
+        Arrays.sort(validos, 0, m);
+        double posicion = p / 100.0 * (m - 1);
+        int j = (int) Math.floor(posicion);
+        if (j >= m - 1) {
+            return validos[m - 1];
+        }
+        return validos[j] + (posicion - j) * (validos[j + 1] - validos[j]);
+    }
+    
+    public double percentilSobrepico(double p) {
+        return percentil(sobrepico, p);
+    }
+    
+    public double percentilEstablecimiento(double p) {
+        return percentil(tEstablecimiento, p);
+    }
+    
+    public double percentilISE(double p) {
+        return percentil(ise, p);
+    }
+    
+    // Ejemplo sobre la planta de C_02: K ±10 %, τ ±20 %, ζ ±30 % y ruido de 0.05 °C
+    public static void main(String[] args) {
+        int muestras = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        MonteCarloRobustezPID mc = new MonteCarloRobustezPID(SimuladorLotePID.PID_MEDICION_FILTRADA,
+                2.0, 1.0, 0.5, normal(1.0, 0.1), uniforme(0.8, 1.2), uniforme(0.35, 0.65),
+                0.05, 0.01, 50, 15, 15, 22, 0, 50, muestras, 12345L);
+        
+        System.out.println("=== ROBUSTEZ MONTE CARLO DE UN PID ===");
+        System.out.printf("Muestras: %d, núcleos: %d\n", muestras, ForkJoinPool.commonPool().getParallelism());
+        
+        long inicio = System.nanoTime();
+        mc.ejecutar();
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("Tiempo: %.1f ms (%.1f µs por simulación)\n", ms, 1000 * ms / muestras);
+        
+        System.out.printf("Fallidas: %d (%.2f%%)\n", mc.contarFallidas(), 100 * mc.getFraccionFallos());
+        System.out.println("Percentil   Sobrepico(°C)   T.Estab.(s)         ISE");
+        for (double p : new double[]{50, 90, 95, 99}) {
+            System.out.printf("P%-9.0f %14.3f %13.2f %11.3f\n", p,
+                    mc.percentilSobrepico(p), mc.percentilEstablecimiento(p), mc.percentilISE(p));
+        }
+    }
+}
\ No newline at end of file
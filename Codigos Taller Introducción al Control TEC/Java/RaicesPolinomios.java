@@ -0,0 +1,212 @@
+public class RaicesPolinomios {
+    // Raíces de lotes de polinomios de un mismo grado por iteración de Aberth-Ehrlich: todas las
+    // raíces se refinan a la vez con aritmética compleja en arreglos primitivos (re, im).
+    // Cada polinomio arranca desde las raíces del anterior del lote (arranque en caliente): en un
+    // barrido de ganancias los polinomios vecinos tienen raíces cercanas y bastan pocas iteraciones.
+    // Una instancia reutiliza sus buffers: no debe compartirse entre hilos
+    private static final int MAX_ITERACIONES = 100;
+    private static final double TOLERANCIA = 1e-12;
+    private static final double EPSILON = Math.ulp(1.0);
+    
+    private final int grado;
+    private final double[] a;                   // coeficientes normalizados (a[0] = 1)
+    private final double[] zr, zi;              // raíces en iteración
+    private final boolean[] convergida;
+    private boolean hayAnterior = false;
+    private long iteraciones = 0;
+    
+    public RaicesPolinomios(int grado) {
+        if (grado < 1) {
+            throw new IllegalArgumentException("El grado debe ser al menos 1: " + grado);
+        }
+        this.grado = grado;
+        this.a = new double[grado + 1];
+        this.zr = new double[grado];
+        this.zi = new double[grado];
+        this.convergida = new boolean[grado];
+    }
+    
+    public int getGrado() {
+        return grado;
+    }
+    
+    // Iteraciones de Aberth acumuladas (para medir el efecto del arranque en caliente)
+    public long getIteraciones() {
+        return iteraciones;
+    }
+    
+    // El siguiente polinomio arranca en frío (por ejemplo, al saltar a otra fila de una grilla)
+    public void reiniciar() {
+        hayAnterior = false;
+    }
+    
+    // Resuelve m polinomios. coef[i*(grado+1) + j] es el coeficiente de s^(grado-j) del polinomio i;
+    // sus raíces quedan en re/im[i*grado .. i*grado + grado-1]. Devuelve cuántos no convergieron
+    public int resolver(double[] coef, int m, double[] re, double[] im) {
+        int fallidos = 0;
+        for (int i = 0; i < m; i++) {
+            if (!resolver(coef, i * (grado + 1), re, im, i * grado)) {
+                fallidos++;
+            }
+        }
+        return fallidos;
+    }
+    
+    // Un polinomio: coef[desde .. desde+grado] -> re/im[destino .. destino+grado-1]
+    public boolean resolver(double[] coef, int desde, double[] re, double[] im, int destino) {
+        double principal = coef[desde];
+        if (principal == 0) {
+            throw new IllegalArgumentException("El coeficiente principal no puede ser cero");
+        }
+        for (int j = 0; j <= grado; j++) {
+            a[j] = coef[desde + j] / principal;
+        }
+        
+        boolean ok;
+        if (grado == 1) {
+            zr[0] = -a[1];
+            zi[0] = 0;
+            ok = true;
+        } else {
+            if (hayAnterior) {
+                separarIniciales();
+            } else {
+                iniciarEnCirculo();
+            }
+            ok = iterar();
+            if (!ok && hayAnterior) {
+                // Las raíces del vecino no sirvieron (por ejemplo, un salto grande de ganancias)
+                iniciarEnCirculo();
+                ok = iterar();
+            }
+        }
+        
+        System.arraycopy(zr, 0, re, destino, grado);
+        System.arraycopy(zi, 0, im, destino, grado);
+        hayAnterior = ok;
+        return ok;
+    }
+    
+    // Arranque en frío: puntos en un círculo del radio medio de las raíces (|a_n|^(1/n)), girados
+    // para no caer sobre el eje real
+    private void iniciarEnCirculo() {
+        double radio = Math.pow(Math.abs(a[grado]), 1.0 / grado);
+        if (radio == 0 || Double.isNaN(radio) || Double.isInfinite(radio)) {
+            radio = 1;
+        }
+        double centro = -a[1] / grado;
+        for (int k = 0; k < grado; k++) {
+            double angulo = 2 * Math.PI * k / grado + 0.4;
+            zr[k] = centro + radio * Math.cos(angulo);
+            zi[k] = radio * Math.sin(angulo);
+        }
+    }
+    
+    // Aberth necesita aproximaciones distintas: las raíces dobles del vecino se separan un poco
+    private void separarIniciales() {
+        for (int k = 0; k < grado; k++) {
+            for (int j = 0; j < k; j++) {
+                double escala = 1e-6 * (1 + Math.abs(zr[k]) + Math.abs(zi[k]));
+                if (Math.abs(zr[k] - zr[j]) + Math.abs(zi[k] - zi[j]) < escala) {
+                    zi[k] += escala * (k + 1);
+                }
+            }
+        }
+    }
+    
+    // Corrección de Aberth z_k -= w / (1 - w Σ_{j≠k} 1/(z_k - z_j)), con w = p(z_k)/p'(z_k),
+    // aplicando cada corrección en cuanto se calcula (estilo Gauss-Seidel)
+    private boolean iterar() {
+        for (int k = 0; k < grado; k++) {
+            convergida[k] = false;
+        }
+        for (int it = 0; it < MAX_ITERACIONES; it++) {
+            iteraciones++;
+            boolean todas = true;
+            for (int k = 0; k < grado; k++) {
+                if (convergida[k]) {
+                    continue;
+                }
+                double xr = zr[k], xi = zi[k];
+                
+                // Horner para p y p' en z_k, y cota del error de redondeo de p (Σ|a_j| |z|^(n-j))
+                double pr = 1, pi = 0, dr = 0, di = 0;
+                double modulo = Math.hypot(xr, xi), cota = 1;
+                for (int j = 1; j <= grado; j++) {
+                    cota = cota * modulo + Math.abs(a[j]);
+                    double t = dr * xr - di * xi + pr;
+                    di = dr * xi + di * xr + pi;
+                    dr = t;
+                    t = pr * xr - pi * xi + a[j];
+                    pi = pr * xi + pi * xr;
+                    pr = t;
+                }
+                if (Math.hypot(pr, pi) <= 4 * EPSILON * cota) {
+                    // p(z_k) ya es ruido de redondeo: la corrección no puede mejorar la raíz
+                    convergida[k] = true;
+                    continue;
+                }
+                
+                // w = p / p'
+                double dd = dr * dr + di * di;
+                double wr, wi;
+                if (dd == 0) {
+                    wr = 1e-3 * (1 + Math.abs(xr));
+                    wi = 0;
+                } else {
+                    wr = (pr * dr + pi * di) / dd;
+                    wi = (pi * dr - pr * di) / dd;
+                }
+                
+                // S = Σ 1/(z_k - z_j)
+                double sr = 0, si = 0;
+                for (int j = 0; j < grado; j++) {
+                    if (j != k) {
+                        double er = xr - zr[j], ei = xi - zi[j];
+                        double ee = er * er + ei * ei;
+                        sr += er / ee;
+                        si -= ei / ee;
+                    }
+                }
+                
+                // c = w / (1 - w S)
+                double qr = 1 - (wr * sr - wi * si);
+                double qi = -(wr * si + wi * sr);
+                double qq = qr * qr + qi * qi;
+                double cr = (wr * qr + wi * qi) / qq;
+                double ci = (wi * qr - wr * qi) / qq;
+                
+                zr[k] = xr - cr;
+                zi[k] = xi - ci;
+                if (Math.abs(cr) + Math.abs(ci) <= TOLERANCIA * (1 + Math.abs(zr[k]) + Math.abs(zi[k]))) {
+                    convergida[k] = true;
+                } else {
+                    todas = false;
+                }
+            }
+            if (todas) {
+                limpiarConjugadas();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Coeficientes reales: las partes imaginarias residuales de las raíces reales se anulan
+    private void limpiarConjugadas() {
+        for (int k = 0; k < grado; k++) {
+            if (Math.abs(zi[k]) <= 1e-10 * (1 + Math.abs(zr[k]))) {
+                zi[k] = 0;
+            }
+        }
+    }
+    
+    // Mayor parte real de las raíces del polinomio i (estable si es negativa)
+    public static double maximaParteReal(double[] re, int i, int grado) {
+        double maximo = Double.NEGATIVE_INFINITY;
+        for (int k = i * grado; k < (i + 1) * grado; k++) {
+            maximo = Math.max(maximo, re[k]);
+        }
+        return maximo;
+    }
+}
\ No newline at end of file
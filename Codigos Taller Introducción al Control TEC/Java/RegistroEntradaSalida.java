@@ -0,0 +1,420 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class RegistroEntradaSalida {
+    // Lectura por bloques de registros u/y medidos (CSV o traza binaria .trz): los valores se
+    // entregan en arreglos primitivos reutilizados, sin cargar el archivo completo en memoria
+    public interface Destino {
+        // u[0..n-1] e y[0..n-1] son muestras consecutivas; los arreglos se reutilizan
+        void bloque(double[] u, double[] y, int n);
+    }
+    
+    private static final int MUESTRAS_BLOQUE = 4096;
+    private static final int TAM_LECTURA = 1 << 20;
+    
+    // Potencias de 10 representables exactamente en un double
+    private static final double[] POTENCIAS_10 = new double[23];
+    static {
+        POTENCIAS_10[0] = 1;
+        for (int i = 1; i < POTENCIAS_10.length; i++) {
+            POTENCIAS_10[i] = POTENCIAS_10[i - 1] * 10;
+        }
+    }
+    
+    // Recorre el registro y devuelve el número de muestras. Las columnas se indican por nombre
+    // (encabezado del CSV o de la traza) o por índice desde 0
+    public static long leer(String archivo, String columnaU, String columnaY, Destino destino) throws IOException {
+        if (esTraza(archivo)) {
+            return leerTraza(archivo, columnaU, columnaY, destino);
+        }
+        return leerCSV(archivo, columnaU, columnaY, destino);
+    }
+    
+    // Número de muestras sin convertir los valores (la traza lo guarda en la cabecera)
+    public static long contarMuestras(String archivo) throws IOException {
+        if (esTraza(archivo)) {
+            try (TrazaBinaria.Lector lector = new TrazaBinaria.Lector(archivo)) {
+                return lector.getMuestras();
+            }
+        }
+        return leerCSV(archivo, null, null, null);
+    }
+    
+    private static boolean esTraza(String archivo) {
+        return archivo.toLowerCase(Locale.ROOT).endsWith(".trz");
+    }
+    
+    private static long leerTraza(String archivo, String columnaU, String columnaY, Destino destino) throws IOException {
+        try (TrazaBinaria.Lector lector = new TrazaBinaria.Lector(archivo)) {
+            String[] nombres = new String[lector.getNumeroColumnas()];
+            for (int c = 0; c < nombres.length; c++) {
+                nombres[c] = lector.getNombre(c);
+            }
+            int cu = indiceColumna(nombres, columnaU);
+            int cy = indiceColumna(nombres, columnaY);
+            
+            double[] u = new double[MUESTRAS_BLOQUE];
+            double[] y = new double[MUESTRAS_BLOQUE];
+            long total = lector.getMuestras();
+            for (long i = 0; i < total; i += MUESTRAS_BLOQUE) {
+                int n = (int) Math.min(MUESTRAS_BLOQUE, total - i);
+                lector.leer(cu, i, u, 0, n);
+                lector.leer(cy, i, y, 0, n);
+                destino.bloque(u, y, n);
+            }
+            return total;
+        }
+    }
+    
+    private static int indiceColumna(String[] nombres, String columna) {
+        if (nombres != null) {
+            for (int c = 0; c < nombres.length; c++) {
+                if (nombres[c].replace("\"", "").trim().equals(columna)) {
+                    return c;
+                }
+            }
+        }
+        try {
+            return Integer.parseInt(columna);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Columna inexistente en el registro: " + columna);
+        }
+    }
+    
+    // CSV separado por ',', ';' o tabulador, con encabezado opcional en la primera línea no vacía
+    // (sin la marca BOM de UTF-8, si la hay). Se lee el canal en bloques de 1 MiB y se convierten
+    // solo las dos columnas pedidas, directamente desde los bytes. Con destino null solo se cuentan
+    // las filas de datos
+    private static long leerCSV(String archivo, String columnaU, String columnaY, Destino destino) throws IOException {
+        double[] u = new double[MUESTRAS_BLOQUE];
+        double[] y = new double[MUESTRAS_BLOQUE];
+        int enBloque = 0;
+        long total = 0;
+        long linea = 0;
+        boolean primeraConDatos = true;     // el encabezado se busca en la primera línea no vacía
+        int cu = -1, cy = -1;
+        
+        try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAM_LECTURA);
+            byte[] b = buffer.array();
+            boolean fin = false;
+            while (!fin) {
+                fin = canal.read(buffer) < 0;
+                int limite = buffer.position();
+                int inicio = 0;
+                while (inicio < limite) {
+                    int salto = inicio;
+                    while (salto < limite && b[salto] != '\n') {
+                        salto++;
+                    }
+                    if (salto == limite && !fin) {
+                        break;      // línea incompleta: se completa con la siguiente lectura
+                    }
+                    linea++;
+                    int desde = inicio;
+                    // Marca de orden de bytes UTF-8 (EF BB BF) al principio del archivo
+                    if (linea == 1 && salto - desde >= 3 && b[desde] == (byte) 0xEF
+                            && b[desde + 1] == (byte) 0xBB && b[desde + 2] == (byte) 0xBF) {
+                        desde += 3;
+                    }
+                    int finLinea = salto;
+                    if (finLinea > desde && b[finLinea - 1] == '\r') {
+                        finLinea--;
+                    }
+                    
+                    if (finLinea > desde) {
+                        boolean encabezado = primeraConDatos && esEncabezado(b, desde, finLinea);
+                        primeraConDatos = false;
+                        if (encabezado) {
+                            if (destino != null) {
+                                String[] nombres = new String(b, desde, finLinea - desde, StandardCharsets.UTF_8)
+                                        .split("[,;\t]");
+                                cu = indiceColumna(nombres, columnaU);
+                                cy = indiceColumna(nombres, columnaY);
+                            }
+                        } else if (destino == null) {
+                            total++;
+                        } else {
+                            if (cu < 0) {
+                                cu = indiceColumna(null, columnaU);
+                                cy = indiceColumna(null, columnaY);
+                            }
+                            if (!leerFila(b, desde, finLinea, cu, cy, u, y, enBloque)) {
+                                throw new IOException("Fila inválida en la línea " + linea + " de " + archivo);
+                            }
+                            total++;
+                            if (++enBloque == MUESTRAS_BLOQUE) {
+                                destino.bloque(u, y, enBloque);
+                                enBloque = 0;
+                            }
+                        }
+                    }
+                    inicio = salto + 1;
+                }
+                
+                // Los bytes de la línea incompleta pasan al principio del buffer
+                if (inicio == 0 && limite == b.length) {
+                    throw new IOException("Línea " + (linea + 1) + " de " + archivo + " demasiado larga");
+                }
+                if (inicio < limite) {
+                    System.arraycopy(b, inicio, b, 0, limite - inicio);
+                }
+                buffer.position(Math.max(0, limite - inicio));
+            }
+        }
+        if (enBloque > 0) {
+            destino.bloque(u, y, enBloque);
+        }
+        return total;
+    }
+    
+    // La primera línea no vacía es encabezado si su primer campo no empieza como un número
+    private static boolean esEncabezado(byte[] b, int inicio, int fin) {
+        int i = inicio;
+        while (i < fin && (b[i] == ' ' || b[i] == '"')) {
+            i++;
+        }
+        if (i == fin) {
+            return true;
+        }
+        byte c = b[i];
+        return !((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.');
+    }
+    
+    // Convierte los campos cu y cy de la línea y los guarda en u[i], y[i]
+    private static boolean leerFila(byte[] b, int inicio, int fin, int cu, int cy,
+                                    double[] u, double[] y, int i) {
+        int campo = 0;
+        int desde = inicio;
+        int encontrados = 0;
+        for (int k = inicio; k <= fin; k++) {
+            if (k == fin || b[k] == ',' || b[k] == ';' || b[k] == '\t') {
+                if (campo == cu) {
+                    u[i] = convertir(b, desde, k);
+                    encontrados++;
+                }
+                if (campo == cy) {
+                    y[i] = convertir(b, desde, k);
+                    encontrados++;
+                }
+                if (encontrados == 2) {
+                    return !Double.isNaN(u[i]) && !Double.isNaN(y[i]);
+                }
+                campo++;
+                desde = k + 1;
+            }
+        }
+        return false;
+    }
+    
+    // Número decimal desde bytes. Con hasta 15 dígitos significativos y exponente decimal de hasta
+    // ±22 el resultado de un solo producto o cociente es exacto (el mismo que Double.parseDouble);
+    // los demás casos, poco comunes en registros, usan Double.parseDouble. NaN si no es un número
+    static double convertir(byte[] b, int desde, int hasta) {
+        while (desde < hasta && (b[desde] == ' ' || b[desde] == '"')) {
+            desde++;
+        }
+        while (hasta > desde && (b[hasta - 1] == ' ' || b[hasta - 1] == '"')) {
+            hasta--;
+        }
+        int i = desde;
+        boolean negativo = false;
+        if (i < hasta && (b[i] == '-' || b[i] == '+')) {
+            negativo = b[i] == '-';
+            i++;
+        }
+        
+        long mantisa = 0;
+        int digitos = 0;        // significativos (sin ceros a la izquierda)
+        int exponente = 0;
+        boolean hayDigitos = false;
+        boolean exacto = true;
+        for (; i < hasta && b[i] >= '0' && b[i] <= '9'; i++) {
+            hayDigitos = true;
+            if (mantisa != 0 || b[i] != '0') {
+                if (++digitos > 15) {
+                    exacto = false;
+                    break;
+                }
+                mantisa = mantisa * 10 + (b[i] - '0');
+            }
+        }
+        if (exacto && i < hasta && b[i] == '.') {
+            for (i++; i < hasta && b[i] >= '0' && b[i] <= '9'; i++) {
+                hayDigitos = true;
+                if (mantisa != 0 || b[i] != '0') {
+                    if (++digitos > 15) {
+                        exacto = false;
+                        break;
+                    }
+                    mantisa = mantisa * 10 + (b[i] - '0');
+                }
+                exponente--;
+            }
+        }
+        if (exacto && hayDigitos && i < hasta && (b[i] == 'e' || b[i] == 'E')) {
+            i++;
+            boolean expNegativo = false;
+            if (i < hasta && (b[i] == '-' || b[i] == '+')) {
+                expNegativo = b[i] == '-';
+                i++;
+            }
+            int e = 0;
+            int inicioExp = i;
+            for (; i < hasta && b[i] >= '0' && b[i] <= '9' && e < 1000; i++) {
+                e = e * 10 + (b[i] - '0');
+            }
+            exacto = i > inicioExp;
+            exponente += expNegativo ? -e : e;
+        }
+        
+        if (exacto && hayDigitos && i == hasta && Math.abs(exponente) < POTENCIAS_10.length) {
+            double v = exponente >= 0 ? mantisa * POTENCIAS_10[exponente] : mantisa / POTENCIAS_10[-exponente];
+            return negativo ? -v : v;
+        }
+        try {
+            return Double.parseDouble(new String(b, desde, hasta - desde, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+    
+    // Últimas muestras de una señal en un anillo (para los regresores con retardo)
+    private static class Historial {
+        private final double[] valores;
+        private final int mascara;
+        private long n = 0;
+        
+        Historial(int retardoMaximo) {
+            int c = Integer.highestOneBit(Math.max(1, retardoMaximo)) << 1;
+            this.valores = new double[c];
+            this.mascara = c - 1;
+        }
+        
+        void agregar(double v) {
+            valores[(int) (n++ & mascara)] = v;
+        }
+        
+        // Valor agregado hace 'atras' muestras (0 = el último)
+        double get(int atras) {
+            return valores[(int) ((n - 1 - atras) & mascara)];
+        }
+    }
+    
+    // Ecuaciones normales de un ARX(na, nb, nk) con las muestras k < hasta del registro
+    public static class AcumuladorARX implements Destino {
+        private final EcuacionesNormales normales;
+        private final int na, nb, nk;
+        private final long hasta;
+        private final int primera;
+        private final Historial hu, hy;
+        private final double[] phi;
+        private long muestras = 0;
+        
+        public AcumuladorARX(int na, int nb, int nk, long hasta) {
+            this.normales = new EcuacionesNormales(na + nb);
+            this.na = na;
+            this.nb = nb;
+            this.nk = nk;
+            this.hasta = hasta;
+            this.primera = EcuacionesNormales.primeraFilaARX(na, nb, nk);
+            this.hu = new Historial(nb + nk);
+            this.hy = new Historial(na + 1);
+            this.phi = new double[na + nb];
+        }
+        
+        @Override
+        public void bloque(double[] u, double[] y, int n) {
+            for (int i = 0; i < n && muestras < hasta; i++) {
+                // y(k-1).. se leen antes de agregar y(k); u(k-nk).. después de agregar u(k)
+                hu.agregar(u[i]);
+                if (muestras >= primera) {
+                    for (int a = 0; a < na; a++) {
+                        phi[a] = -hy.get(a);
+                    }
+                    for (int j = 0; j < nb; j++) {
+                        phi[na + j] = hu.get(j + nk);
+                    }
+                    normales.agregarFila(phi, y[i]);
+                }
+                hy.agregar(y[i]);
+                muestras++;
+            }
+        }
+        
+        public EcuacionesNormales getNormales() {
+            return normales;
+        }
+    }
+    
+    // Simulación libre del modelo ARX theta = [a1..a_na, b1..b_nb] desde la muestra 'desde' (las
+    // anteriores son las condiciones iniciales medidas) y métricas de validación en flujo
+    public static class ValidadorARX implements Destino {
+        private final double[] theta;
+        private final int na, nb, nk;
+        private final long desde;
+        private final int primera;
+        private final Historial hu, hy;
+        private long muestras = 0;
+        
+        // Errores y media/varianza de la salida medida (Welford) del tramo de validación
+        private long n = 0;
+        private double sse = 0, media = 0, m2 = 0;
+        
+        public ValidadorARX(double[] theta, int na, int nb, int nk, long desde) {
+            this.theta = theta.clone();
+            this.na = na;
+            this.nb = nb;
+            this.nk = nk;
+            this.desde = desde;
+            this.primera = EcuacionesNormales.primeraFilaARX(na, nb, nk);
+            this.hu = new Historial(nb + nk);
+            this.hy = new Historial(na + 1);
+        }
+        
+        @Override
+        public void bloque(double[] u, double[] y, int cantidad) {
+            for (int i = 0; i < cantidad; i++) {
+                hu.agregar(u[i]);
+                double yModelo = y[i];
+                if (muestras >= desde && muestras >= primera) {
+                    double s = 0;
+                    for (int a = 0; a < na; a++) {
+                        s -= theta[a] * hy.get(a);
+                    }
+                    for (int j = 0; j < nb; j++) {
+                        s += theta[na + j] * hu.get(j + nk);
+                    }
+                    yModelo = s;
+                }
+                hy.agregar(yModelo);
+                
+                if (muestras >= desde) {
+                    double e = y[i] - yModelo;
+                    sse += e * e;
+                    n++;
+                    double d = y[i] - media;
+                    media += d / n;
+                    m2 += d * (y[i] - media);
+                }
+                muestras++;
+            }
+        }
+        
+        public long getMuestras() {
+            return n;
+        }
+        
+        // [R², RMSE, fit %] como calcularMetricasValidacion de C_03
+        public double[] getMetricas() {
+            double R2 = 1 - sse / m2;
+            double RMSE = Math.sqrt(sse / n);
+            double fit = (1 - Math.sqrt(sse) / Math.sqrt(m2)) * 100;
+            return new double[]{R2, RMSE, fit};
+        }
+    }
+}
\ No newline at end of file
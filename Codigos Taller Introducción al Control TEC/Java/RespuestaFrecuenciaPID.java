@@ -0,0 +1,237 @@
+import java.util.concurrent.*;
+
+public class RespuestaFrecuenciaPID {
+    // Controladores evaluados por cada tarea hoja del fork-join
+    private static final int TAM_HOJA = 256;
+    
+    // Controladores C(s) = Kp + Ki/s + Kd s/(1 + Tf s), uno por índice
+    private final double[] kp, ki, kd;
+    private final int n;
+    
+    // Malla logarítmica de frecuencias y planta G(jω) = K/(1 - τ²ω² + j2ζτω) precalculadas:
+    // por cada controlador y frecuencia solo quedan unas pocas multiplicaciones
+    private final double[] omega, inversaOmega, logOmega;
+    private final double[] gRe, gIm;
+    private final double[] derivativoRe, derivativoIm;     // jω/(1 + jωTf)
+    
+    // Resultados por controlador
+    final double[] margenGanancia;          // dB (+∞ si la fase no cruza -180°)
+    final double[] frecuenciaCruceFase;     // rad/s
+    final double[] margenFase;              // grados (+∞ si |L| no cruza 1)
+    final double[] frecuenciaCruceGanancia; // rad/s
+    final double[] anchoBanda;              // rad/s, |T| cae 3 dB respecto de baja frecuencia
+    final double[] picoSensibilidad;        // Ms = max |1/(1 + L)|
+    
+    // tf: constante de tiempo del filtro derivativo (0 = derivada ideal)
+    public RespuestaFrecuenciaPID(double[] kp, double[] ki, double[] kd, double tf,
+                                  double K, double tau, double zeta,
+                                  double omegaMin, double omegaMax, int nFrecuencias) {
+        this.kp = kp.clone();
+        this.ki = ki.clone();
+        this.kd = kd.clone();
+        this.n = kp.length;
+        
+        omega = new double[nFrecuencias];
+        inversaOmega = new double[nFrecuencias];
+        logOmega = new double[nFrecuencias];
+        gRe = new double[nFrecuencias];
+        gIm = new double[nFrecuencias];
+        derivativoRe = new double[nFrecuencias];
+        derivativoIm = new double[nFrecuencias];
+        double logMin = Math.log(omegaMin);
+        double paso = (Math.log(omegaMax) - logMin) / (nFrecuencias - 1);
+        for (int i = 0; i < nFrecuencias; i++) {
+            double w = Math.exp(logMin + i * paso);
+            omega[i] = w;
+            inversaOmega[i] = 1 / w;
+            logOmega[i] = logMin + i * paso;
+            
+            double dRe = 1 - tau * tau * w * w;
+            double dIm = 2 * zeta * tau * w;
+            double d2 = dRe * dRe + dIm * dIm;
+            gRe[i] = K * dRe / d2;
+            gIm[i] = -K * dIm / d2;
+            
+            double f = 1 / (1 + w * w * tf * tf);
+            derivativoRe[i] = w * w * tf * f;
+            derivativoIm[i] = w * f;
+        }
+        
+        margenGanancia = new double[n];
+        frecuenciaCruceFase = new double[n];
+        margenFase = new double[n];
+        frecuenciaCruceGanancia = new double[n];
+        anchoBanda = new double[n];
+        picoSensibilidad = new double[n];
+    }
+    
+    // Evalúa todos los controladores usando todos los núcleos disponibles
+    public void ejecutar() {
+        ejecutar(ForkJoinPool.commonPool());
+    }
+    
+    public void ejecutar(ForkJoinPool pool) {
+        pool.invoke(new TareaRespuesta(0, n));
+    }
+    
+    // Divide los controladores en mitades hasta llegar a bloques de TAM_HOJA
+    private class TareaRespuesta extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int desde, hasta;
+        
+        TareaRespuesta(int desde, int hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+        
+        @Override
+        protected void compute() {
+            if (hasta - desde <= TAM_HOJA) {
+                for (int c = desde; c < hasta; c++) {
+                    evaluar(c);
+                }
+            } else {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaRespuesta(desde, medio), new TareaRespuesta(medio, hasta));
+            }
+        }
+    }
+    
+    // Recorre la malla una vez por controlador. Los cruces se interpolan linealmente entre
+    // frecuencias vecinas (en log ω). Con ganancias no negativas ∠L está en (-270°, 90°): la fase
+    // cruza -180° justo donde L cruza el semieje real negativo, sin calcular ángulos punto a punto
+    private void evaluar(int c) {
+        double mg = Double.POSITIVE_INFINITY, wpc = Double.NaN;
+        double mf = Double.POSITIVE_INFINITY, wgc = Double.NaN;
+        double bw = Double.NaN;
+        double minimoS2 = Double.POSITIVE_INFINITY;
+        double reAnterior = 0, imAnterior = 0, mag2Anterior = 0, t2Anterior = 0, t2Referencia = 0;
+        
+        for (int i = 0; i < omega.length; i++) {
+            double cRe = kp[c] + kd[c] * derivativoRe[i];
+            double cIm = kd[c] * derivativoIm[i] - ki[c] * inversaOmega[i];
+            double lRe = cRe * gRe[i] - cIm * gIm[i];
+            double lIm = cRe * gIm[i] + cIm * gRe[i];
+            
+            double mag2 = lRe * lRe + lIm * lIm;
+            double s2 = (1 + lRe) * (1 + lRe) + lIm * lIm;       // |1 + L|²
+            double t2 = mag2 / s2;                                // |T|²
+            minimoS2 = Math.min(minimoS2, s2);
+            
+            if (i == 0) {
+                t2Referencia = t2;
+            } else {
+                // Cruce de fase: Im(L) cambia de signo con Re(L) < 0
+                if ((imAnterior < 0) != (lIm < 0)) {
+                    double t = imAnterior / (imAnterior - lIm);
+                    double re = reAnterior + t * (lRe - reAnterior);
+                    if (re < 0 && -1 / re < mg) {
+                        mg = -1 / re;
+                        wpc = Math.exp(logOmega[i - 1] + t * (logOmega[i] - logOmega[i - 1]));
+                    }
+                }
+                // Cruce de ganancia: |L| pasa por 1
+                if ((mag2Anterior >= 1) != (mag2 >= 1)) {
+                    double t = (mag2Anterior - 1) / (mag2Anterior - mag2);
+                    double re = reAnterior + t * (lRe - reAnterior);
+                    double im = imAnterior + t * (lIm - imAnterior);
+                    double fase = Math.toDegrees(Math.atan2(im, re));
+                    if (fase > 90) {
+                        fase -= 360;
+                    }
+                    if (180 + fase < mf) {
+                        mf = 180 + fase;
+                        wgc = Math.exp(logOmega[i - 1] + t * (logOmega[i] - logOmega[i - 1]));
+                    }
+                }
+                // Ancho de banda: primera caída de |T|² por debajo de la mitad de su valor inicial
+                if (Double.isNaN(bw) && t2 < 0.5 * t2Referencia) {
+                    double t = (t2Anterior - 0.5 * t2Referencia) / (t2Anterior - t2);
+                    bw = Math.exp(logOmega[i - 1] + t * (logOmega[i] - logOmega[i - 1]));
+                }
+            }
+            reAnterior = lRe;
+            imAnterior = lIm;
+            mag2Anterior = mag2;
+            t2Anterior = t2;
+        }
+        
+        margenGanancia[c] = 20 * Math.log10(mg);
+        frecuenciaCruceFase[c] = wpc;
+        margenFase[c] = mf;
+        frecuenciaCruceGanancia[c] = wgc;
+        anchoBanda[c] = bw;
+        picoSensibilidad[c] = 1 / Math.sqrt(minimoS2);
+    }
+    
+    public int getTotal() {
+        return n;
+    }
+    
+    public double getMargenGanancia(int c) {
+        return margenGanancia[c];
+    }
+    
+    public double getMargenFase(int c) {
+        return margenFase[c];
+    }
+    
+    public double getAnchoBanda(int c) {
+        return anchoBanda[c];
+    }
+    
+    public double getPicoSensibilidad(int c) {
+        return picoSensibilidad[c];
+    }
+    
+    // Cumple los márgenes clásicos de robustez
+    public boolean esRobusto(int c, double margenGananciaMinimo, double margenFaseMinimo, double picoMaximo) {
+        return margenGanancia[c] >= margenGananciaMinimo && margenFase[c] >= margenFaseMinimo
+                && picoSensibilidad[c] <= picoMaximo;
+    }
+    
+    // Tamizado de robustez de ejemplo sobre la planta de C_02 (filtro derivativo de C_02)
+    public static void main(String[] args) {
+        int nKp = 100, nKi = 100;
+        double[] kp = new double[nKp * nKi];
+        double[] ki = new double[kp.length];
+        double[] kd = new double[kp.length];
+        for (int i = 0; i < nKp; i++) {
+            for (int j = 0; j < nKi; j++) {
+                kp[i * nKi + j] = 0.1 + 10.0 * i / (nKp - 1);
+                ki[i * nKi + j] = 0.05 + 5.0 * j / (nKi - 1);
+                kd[i * nKi + j] = 0.5;
+            }
+        }
+        RespuestaFrecuenciaPID respuesta = new RespuestaFrecuenciaPID(kp, ki, kd, 0.04,
+                1.0, 1.0, 0.5, 1e-3, 1e3, 1000);
+        
+        System.out.println("=== RESPUESTA EN FRECUENCIA DE CONTROLADORES PID ===");
+        System.out.printf("Controladores: %d, frecuencias: %d, núcleos: %d\n",
+                respuesta.getTotal(), 1000, ForkJoinPool.commonPool().getParallelism());
+        
+        long inicio = System.nanoTime();
+        respuesta.ejecutar();
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("Tiempo: %.1f ms (%.2f µs por controlador)\n", ms, 1000 * ms / respuesta.getTotal());
+        
+        int robustos = 0;
+        int mejor = -1;
+        for (int c = 0; c < respuesta.getTotal(); c++) {
+            if (respuesta.esRobusto(c, 6, 45, 2)) {
+                robustos++;
+                if (mejor < 0 || respuesta.anchoBanda[c] > respuesta.anchoBanda[mejor]) {
+                    mejor = c;
+                }
+            }
+        }
+        System.out.printf("Robustos (MG >= 6 dB, MF >= 45°, Ms <= 2): %d\n", robustos);
+        if (mejor >= 0) {
+            System.out.printf("Mayor ancho de banda entre ellos: Kp = %.3f, Ki = %.3f, Kd = %.3f\n",
+                    kp[mejor], ki[mejor], kd[mejor]);
+            System.out.printf("  MG = %.2f dB, MF = %.1f°, ωb = %.3f rad/s, Ms = %.3f\n",
+                    respuesta.margenGanancia[mejor], respuesta.margenFase[mejor],
+                    respuesta.anchoBanda[mejor], respuesta.picoSensibilidad[mejor]);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+import java.util.concurrent.*;
+
+public class RuidoContador {
+    // Generador basado en contador: la muestra i del flujo s es una función pura de (semilla, s, i),
+    // sin estado que avance. Cualquier tramo de una secuencia se puede generar en cualquier orden
+    // o en paralelo, y una corrida con la misma semilla se repite bit a bit.
+    // La mezcla es la de SplitMix64 (la misma de java.util.SplittableRandom) evaluada directamente
+    // en la posición i: z = mezclar(semillaFlujo + (i + 1) * gammaFlujo)
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double ESCALA_53 = 0x1.0p-53;
+    
+    // Muestras generadas por cada tarea hoja del fork-join (siempre un número par)
+    private static final int TAM_HOJA = 1 << 14;
+    
+    private final long semilla;
+    
+    public RuidoContador(long semilla) {
+        this.semilla = semilla;
+    }
+    
+    public long getSemilla() {
+        return semilla;
+    }
+    
+    // Finalizador de SplitMix64
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    // Finalizador de MurmurHash3 (el que usa SplittableRandom para semillas y gammas nuevas)
+    private static long mezclar33(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+    
+    // Punto de partida de un flujo en su secuencia de Weyl
+    private long semillaFlujo(int flujo) {
+        return mezclar33(semilla ^ ((flujo + 1L) * 0xC2B2AE3D27D4EB4FL));
+    }
+    
+    // Incremento de Weyl propio de cada flujo, impar y con suficientes transiciones de bits, como
+    // en SplittableRandom.split. Con un incremento común todos los flujos serían la misma
+    // secuencia vista desde otro desplazamiento; con incrementos distintos son secuencias distintas
+    private long gammaFlujo(int flujo) {
+        long z = mezclar33(semillaFlujo(flujo) + GAMMA) | 1L;
+        return Long.bitCount(z ^ (z >>> 1)) < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+    
+    // 64 bits de la posición i del flujo
+    public long bits(int flujo, long i) {
+        return mezclar(semillaFlujo(flujo) + (i + 1) * gammaFlujo(flujo));
+    }
+    
+    // Uniforme en [0, 1)
+    public double uniforme(int flujo, long i) {
+        return (bits(flujo, i) >>> 11) * ESCALA_53;
+    }
+    
+    // Normal estándar por Box-Muller: el par (2j, 2j+1) sale de las posiciones 2j y 2j+1 del flujo,
+    // como coseno y seno del mismo ángulo
+    public double gaussiana(int flujo, long i) {
+        long base = semillaFlujo(flujo);
+        long gamma = gammaFlujo(flujo);
+        long j = i & ~1L;
+        double radio = radio(mezclar(base + (j + 1) * gamma));
+        double angulo = 2 * Math.PI * ((mezclar(base + (j + 2) * gamma) >>> 11) * ESCALA_53);
+        return radio * ((i & 1) == 0 ? Math.cos(angulo) : Math.sin(angulo));
+    }
+    
+    // √(-2 ln u) con u en (0, 1]: nunca log(0)
+    private static double radio(long bits) {
+        double u = ((bits >>> 11) + 1) * ESCALA_53;
+        return Math.sqrt(-2 * Math.log(u));
+    }
+    
+    // destino[desdeDestino + k] = desvio * gaussiana(flujo, desde + k), k = 0 .. n-1
+    public void llenarGaussiana(int flujo, long desde, double desvio, double[] destino, int desdeDestino, int n) {
+        long base = semillaFlujo(flujo);
+        long gamma = gammaFlujo(flujo);
+        int k = 0;
+        if ((desde & 1) != 0 && n > 0) {
+            // Tramo que empieza en la segunda mitad de un par
+            destino[desdeDestino] = desvio * gaussiana(flujo, desde);
+            k = 1;
+        }
+        for (; k + 1 < n; k += 2) {
+            long j = desde + k;
+            double radio = desvio * radio(mezclar(base + (j + 1) * gamma));
+            double angulo = 2 * Math.PI * ((mezclar(base + (j + 2) * gamma) >>> 11) * ESCALA_53);
+            destino[desdeDestino + k] = radio * Math.cos(angulo);
+            destino[desdeDestino + k + 1] = radio * Math.sin(angulo);
+        }
+        if (k < n) {
+            destino[desdeDestino + k] = desvio * gaussiana(flujo, desde + k);
+        }
+    }
+    
+    // n muestras del flujo a partir de la posición desde, generadas por tramos en todos los núcleos
+    public double[] gaussianaParalela(int flujo, long desde, double desvio, int n) {
+        return gaussianaParalela(flujo, desde, desvio, n, ForkJoinPool.commonPool());
+    }
+    
+    public double[] gaussianaParalela(int flujo, long desde, double desvio, int n, ForkJoinPool pool) {
+        double[] destino = new double[n];
+        pool.invoke(new TareaRuido(flujo, desde, desvio, destino, 0, n));
+        return destino;
+    }
+    
+    // Cada tarea escribe un tramo disjunto; el valor de cada muestra no depende de cómo se divida
+    private class TareaRuido extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int flujo;
+        private final long desde;
+        private final double desvio;
+        private final double[] destino;
+        private final int inicio, fin;
+        
+        TareaRuido(int flujo, long desde, double desvio, double[] destino, int inicio, int fin) {
+            this.flujo = flujo;
+            this.desde = desde;
+            this.desvio = desvio;
+            this.destino = destino;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+        
+        @Override
+        protected void compute() {
+            if (fin - inicio <= TAM_HOJA) {
+                llenarGaussiana(flujo, desde + inicio, desvio, destino, inicio, fin - inicio);
+            } else {
+                int medio = inicio + ((fin - inicio) / 2 & ~1);
+                invokeAll(new TareaRuido(flujo, desde, desvio, destino, inicio, medio),
+                          new TareaRuido(flujo, desde, desvio, destino, medio, fin));
+            }
+        }
+    }
+    
+    // Media y desvío de una secuencia larga, y verificación de que un tramo suelto la repite
+    public static void main(String[] args) {
+        RuidoContador ruido = new RuidoContador(args.length > 0 ? Long.parseLong(args[0]) : 2024L);
+        int n = 10_000_000;
+        
+        System.out.println("=== RUIDO GAUSSIANO BASADO EN CONTADOR ===");
+        System.out.printf("Muestras: %d, núcleos: %d\n", n, ForkJoinPool.commonPool().getParallelism());
+        
+        long inicio = System.nanoTime();
+        double[] g = ruido.gaussianaParalela(0, 0, 1.0, n);
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("Tiempo: %.1f ms (%.2f ns por muestra)\n", ms, 1e6 * ms / n);
+        
+        double suma = 0, suma2 = 0;
+        for (double x : g) {
+            suma += x;
+            suma2 += x * x;
+        }
+        double media = suma / n;
+        System.out.printf("Media: %.5f, desvío: %.5f\n", media, Math.sqrt(suma2 / n - media * media));
+        
+        // Un tramo en una posición arbitraria, calculado por separado, debe coincidir exactamente
+        long desde = 1_234_567;
+        double[] tramo = new double[1000];
+        ruido.llenarGaussiana(0, desde, 1.0, tramo, 0, tramo.length);
+        boolean iguales = true;
+        for (int k = 0; k < tramo.length; k++) {
+            iguales &= tramo[k] == g[(int) desde + k];
+        }
+        System.out.println("Tramo regenerado idéntico: " + (iguales ? "sí" : "no"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+public class SeleccionOrdenARX {
+    // Métricas de validación de la salida simulada: devuelve [R², RMSE, fit %]
+    public interface MetricaValidacion {
+        double[] evaluar(double[] yMedida, double[] ySimulada);
+    }
+    
+    // Criterios para ordenar los candidatos (menor es mejor, salvo el fit de validación)
+    public enum Criterio {
+        AIC, BIC, FPE, VALIDACION
+    }
+    
+    public static class Candidato {
+        final int na, nb, nk;
+        final double[] theta;           // [a1..a_na, b1..b_nb]
+        final double residual;          // suma de cuadrados de los residuos (tramo de estimación)
+        final double aic, bic, fpe;
+        double R2, RMSE, fit;           // validación con la salida simulada (NaN si es inestable)
+        
+        Candidato(int na, int nb, int nk, double[] theta, double residual, long n) {
+            this.na = na;
+            this.nb = nb;
+            this.nk = nk;
+            this.theta = theta;
+            this.residual = residual;
+            int d = na + nb;
+            double v = residual / n;
+            if (v > 0 && n > d) {
+                this.aic = n * Math.log(v) + 2 * d;
+                this.bic = n * Math.log(v) + d * Math.log(n);
+                this.fpe = v * (n + d) / (n - d);
+            } else {
+                // Residuo nulo (log(0) = -∞ ganaría siempre) o sin grados de libertad (FPE negativo o
+                // infinito): los criterios de información no están definidos y el candidato va al final
+                this.aic = this.bic = this.fpe = Double.NaN;
+            }
+        }
+        
+        double valor(Criterio criterio) {
+            switch (criterio) {
+                case AIC: return aic;
+                case BIC: return bic;
+                case FPE: return fpe;
+                default:  return Double.isNaN(fit) ? Double.POSITIVE_INFINITY : -fit;
+            }
+        }
+    }
+    
+    // Tareas de (nk, na) por hoja del fork-join
+    private static final int TAM_HOJA = 1;
+    
+    private final double[] y, u;
+    private final int nEstimacion;
+    private final int naMax, nbMax, nkMin, nkMax;
+    private final double limite;        // |y| simulada por encima de esto se considera divergente
+    
+    // y y u se dividen en estimación [0, nEstimacion) y validación [nEstimacion, n)
+    public SeleccionOrdenARX(double[] y, double[] u, int nEstimacion, int naMax, int nbMax, int nkMin, int nkMax) {
+        if (nEstimacion <= 0 || nEstimacion >= y.length) {
+            throw new IllegalArgumentException("El tramo de estimación debe dejar datos de validación");
+        }
+        this.y = y;
+        this.u = u;
+        this.nEstimacion = nEstimacion;
+        this.naMax = naMax;
+        this.nbMax = nbMax;
+        this.nkMin = nkMin;
+        this.nkMax = nkMax;
+        double maximo = 0;
+        for (double v : y) {
+            maximo = Math.max(maximo, Math.abs(v));
+        }
+        this.limite = 1e3 * Math.max(maximo, 1e-12);
+    }
+    
+    public int getTotal() {
+        return (nkMax - nkMin + 1) * (naMax + 1) * nbMax;
+    }
+    
+    public List<Candidato> evaluar(MetricaValidacion metrica) {
+        return evaluar(metrica, ForkJoinPool.commonPool());
+    }
+    
+    // Evalúa todos los candidatos na = 0..naMax, nb = 1..nbMax, nk = nkMin..nkMax
+    public List<Candidato> evaluar(MetricaValidacion metrica, ForkJoinPool pool) {
+        // Todos los candidatos usan las mismas filas de estimación, así sus criterios son comparables
+        int desde = EcuacionesNormales.primeraFilaARX(naMax, nbMax, nkMax);
+        
+        // Una sola pasada por los datos por cada retardo: el modelo más grande contiene a todos
+        // los demás del mismo nk como submatrices de sus ecuaciones normales
+        EcuacionesNormales[] maximos = new EcuacionesNormales[nkMax - nkMin + 1];
+        for (int nk = nkMin; nk <= nkMax; nk++) {
+            maximos[nk - nkMin] = EcuacionesNormales.acumularARXParalelo(y, u, desde, nEstimacion,
+                    naMax, nbMax, nk, pool);
+        }
+        
+        Candidato[] candidatos = new Candidato[getTotal()];
+        int tareas = (nkMax - nkMin + 1) * (naMax + 1);
+        pool.invoke(new TareaOrden(0, tareas, maximos, candidatos, metrica, pool));
+        return Arrays.asList(candidatos);
+    }
+    
+    // Divide las combinaciones (nk, na) en mitades; cada una escribe su propio rango de candidatos
+    private class TareaOrden extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int desde, hasta;
+        private final EcuacionesNormales[] maximos;
+        private final Candidato[] candidatos;
+        private final MetricaValidacion metrica;
+        private final ForkJoinPool pool;
+        
+        TareaOrden(int desde, int hasta, EcuacionesNormales[] maximos, Candidato[] candidatos,
+                   MetricaValidacion metrica, ForkJoinPool pool) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.maximos = maximos;
+            this.candidatos = candidatos;
+            this.metrica = metrica;
+            this.pool = pool;
+        }
+        
+        @Override
+        protected void compute() {
+            if (hasta - desde <= TAM_HOJA) {
+                for (int t = desde; t < hasta; t++) {
+                    evaluarFamilia(t / (naMax + 1) + nkMin, t % (naMax + 1), maximos, candidatos, metrica, pool);
+                }
+            } else {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaOrden(desde, medio, maximos, candidatos, metrica, pool),
+                          new TareaOrden(medio, hasta, maximos, candidatos, metrica, pool));
+            }
+        }
+    }
+    
+    // Todos los nb para un (nk, na): columnas [a1..a_na, b1..b_nbMax], anidadas en nb, así una
+    // sola factorización resuelve los nbMax modelos
+    private void evaluarFamilia(int nk, int na, EcuacionesNormales[] maximos, Candidato[] candidatos,
+                                MetricaValidacion metrica, ForkJoinPool pool) {
+        int[] columnas = new int[na + nbMax];
+        for (int i = 0; i < na; i++) {
+            columnas[i] = i;
+        }
+        for (int j = 0; j < nbMax; j++) {
+            columnas[na + j] = naMax + j;
+        }
+        EcuacionesNormales normales = maximos[nk - nkMin].subsistema(columnas);
+        double[] residuales = new double[columnas.length];
+        // Si una columna es linealmente dependiente de las anteriores (por ejemplo, sin excitación),
+        // solo se resuelven los modelos anidados previos a ella; los nb mayores quedan sin evaluar
+        double[][] soluciones = normales.resolverAnidados(residuales, pool);
+        
+        double[] yValidacion = Arrays.copyOfRange(y, nEstimacion, y.length);
+        double[] ySimulada = new double[yValidacion.length];
+        for (int nb = 1; nb <= nbMax; nb++) {
+            int indice = ((nk - nkMin) * (naMax + 1) + na) * nbMax + (nb - 1);
+            boolean resuelto = na + nb <= soluciones.length;
+            Candidato c;
+            if (!resuelto) {
+                c = new Candidato(na, nb, nk, new double[na + nb], Double.NaN, normales.getFilas());
+            } else {
+                c = new Candidato(na, nb, nk, soluciones[na + nb - 1], residuales[na + nb - 1],
+                        normales.getFilas());
+            }
+            c.R2 = c.RMSE = c.fit = Double.NaN;
+            if (resuelto && simular(c, ySimulada)) {
+                double[] m = metrica.evaluar(yValidacion, ySimulada);
+                c.R2 = m[0];
+                c.RMSE = m[1];
+                c.fit = m[2];
+            }
+            candidatos[indice] = c;
+        }
+    }
+    
+    // Simulación libre del candidato en el tramo de validación (las condiciones iniciales son las
+    // mediciones previas). Devuelve false si la salida diverge
+    private boolean simular(Candidato c, double[] ySimulada) {
+        for (int k = nEstimacion; k < y.length; k++) {
+            double s = 0;
+            for (int i = 1; i <= c.na; i++) {
+                int j = k - i;
+                double yAnterior = j >= nEstimacion ? ySimulada[j - nEstimacion] : y[j];
+                s -= c.theta[i - 1] * yAnterior;
+            }
+            for (int j = 0; j < c.nb; j++) {
+                s += c.theta[c.na + j] * u[k - (j + c.nk)];
+            }
+            if (!(Math.abs(s) <= limite)) {
+                return false;
+            }
+            ySimulada[k - nEstimacion] = s;
+        }
+        return true;
+    }
+    
+    // Candidatos ordenados de mejor a peor según el criterio (los que no se pudieron evaluar, al final)
+    public static List<Candidato> ordenar(List<Candidato> candidatos, Criterio criterio) {
+        List<Candidato> orden = new ArrayList<>(candidatos);
+        orden.sort(Comparator.comparingDouble((Candidato c) -> {
+            double v = c.valor(criterio);
+            return Double.isNaN(v) ? Double.POSITIVE_INFINITY : v;
+        }));
+        return orden;
+    }
+}
\ No newline at end of file
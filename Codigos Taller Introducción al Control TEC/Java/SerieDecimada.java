@@ -0,0 +1,115 @@
+import java.util.Arrays;
+
+public class SerieDecimada {
+    // Serie a dibujar: x creciente (normalmente el tiempo). La muestra i está en la posición
+    // (inicio + i) & mascara; con mascara = -1 es un arreglo común que empieza en 0
+    private final double[] x, y;
+    private int n;
+    private int inicio = 0;
+    private final int mascara;
+    
+    // Ventana circular de la que se toman inicio y n en cada pedido (null para arreglos comunes)
+    private final VentanaMuestras ventana;
+    
+    // Índices conservados para el último ancho pedido
+    private int[] indices = new int[0];
+    private int pixelesCache = -1;
+    
+    public SerieDecimada(double[] x, double[] y) {
+        this(x, y, x.length);
+    }
+    
+    // Solo se consideran las primeras n muestras (por ejemplo, una ventana de zoom)
+    public SerieDecimada(double[] x, double[] y, int n) {
+        this.x = x;
+        this.y = y;
+        this.n = n;
+        this.mascara = -1;
+        this.ventana = null;
+    }
+    
+    // Serie sobre las columnas cx, cy de una ventana que se llena en vivo; los índices que devuelve
+    // son posiciones dentro de la ventana (0 = la muestra más antigua, ver VentanaMuestras.valor)
+    public SerieDecimada(VentanaMuestras ventana, int cx, int cy) {
+        this.x = ventana.columna(cx);
+        this.y = ventana.columna(cy);
+        this.n = ventana.size();
+        this.mascara = ventana.getMascara();
+        this.ventana = ventana;
+    }
+    
+    // Índices de las muestras a unir con líneas para un gráfico de 'pixeles' de ancho.
+    // Se recalcula solo si cambia el ancho: el repintado cuesta O(pixeles), no O(n)
+    public int[] indices(int pixeles) {
+        if (ventana != null && (ventana.size() != n || ventana.getInicio() != inicio)) {
+            n = ventana.size();
+            inicio = ventana.getInicio();
+            pixelesCache = -1;
+        }
+        if (pixeles != pixelesCache) {
+            indices = decimarMinMax(x, y, inicio, mascara, n, Math.max(1, pixeles));
+            pixelesCache = pixeles;
+        }
+        return indices;
+    }
+    
+    // Decimación min/max: cada columna de píxeles conserva su mínimo y su máximo en el orden
+    // original, así los picos (sobrepico, saturación) se dibujan exactamente
+    static int[] decimarMinMax(double[] x, double[] y, int n, int pixeles) {
+        return decimarMinMax(x, y, 0, -1, n, pixeles);
+    }
+    
+    // Igual, con la muestra i en la posición (inicio + i) & mascara de los arreglos
+    static int[] decimarMinMax(double[] x, double[] y, int inicio, int mascara, int n, int pixeles) {
+        if (n <= 2 * pixeles + 2) {
+            int[] todos = new int[n];
+            for (int i = 0; i < n; i++) {
+                todos[i] = i;
+            }
+            return todos;
+        }
+        
+        int[] salida = new int[2 * pixeles + 2];
+        int m = 0;
+        salida[m++] = 0;
+        
+        double x0 = x[inicio & mascara];
+        double escala = pixeles / (x[(inicio + n - 1) & mascara] - x0);
+        int i = 1;
+        while (i < n - 1) {
+            // Muestras de la misma columna de píxeles
+            int columna = (int)((x[(inicio + i) & mascara] - x0) * escala);
+            int iMin = i, iMax = i;
+            double yMin = y[(inicio + i) & mascara], yMax = yMin;
+            i++;
+            while (i < n - 1 && (int)((x[(inicio + i) & mascara] - x0) * escala) == columna) {
+                double yi = y[(inicio + i) & mascara];
+                if (yi < yMin) {
+                    iMin = i;
+                    yMin = yi;
+                }
+                if (yi > yMax) {
+                    iMax = i;
+                    yMax = yi;
+                }
+                i++;
+            }
+            
+            if (m + 2 >= salida.length) {
+                salida = Arrays.copyOf(salida, salida.length * 2);
+            }
+            if (iMin == iMax) {
+                salida[m++] = iMin;
+            } else {
+                salida[m++] = Math.min(iMin, iMax);
+                salida[m++] = Math.max(iMin, iMax);
+            }
+        }
+        
+        if (m >= salida.length) {
+            salida = Arrays.copyOf(salida, m + 1);
+        }
+        salida[m++] = n - 1;
+        return Arrays.copyOf(salida, m);
+    }
+}
\ No newline at end of file
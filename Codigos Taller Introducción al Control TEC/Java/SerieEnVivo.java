@@ -0,0 +1,91 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class SerieEnVivo {
+    // Curva de las columnas cx, cy de una ventana que se llena en vivo, en una imagen propia que se
+    // copia sobre la capa estática del gráfico (ejes, títulos, leyenda). Mientras no cambien el
+    // tamaño, la escala ni el inicio de la ventana, cada repintado solo agrega los segmentos de las
+    // muestras nuevas, como TrayectoriaIncremental; si cambian, se redibuja la ventana decimada
+    private final VentanaMuestras ventana;
+    private final int cx, cy;
+    private final SerieDecimada serie;
+    private final Color color;
+    private final Stroke trazo;
+    
+    private BufferedImage imagen;
+    // Número absoluto (desde el principio) de la siguiente muestra a dibujar
+    private long siguiente;
+    // Escala con la que se dibujó la imagen
+    private long primera = -1;
+    private int pixeles;
+    private double izquierda, x0, escalaX, abajo, y0, escalaY;
+    
+    public SerieEnVivo(VentanaMuestras ventana, int cx, int cy, Color color, Stroke trazo) {
+        this.ventana = ventana;
+        this.cx = cx;
+        this.cy = cy;
+        this.serie = new SerieDecimada(ventana, cx, cy);
+        this.color = color;
+        this.trazo = trazo;
+    }
+    
+    // Dibuja las muestras nuevas y copia la imagen en g. Un punto (x, y) se dibuja en
+    // (izquierda + (x - x0)*escalaX, abajo - (y - y0)*escalaY); 'pixeles' es el ancho del área
+    // de la curva, para la decimación cuando hay que redibujar todo
+    public void pintar(Component componente, Graphics g, int pixeles,
+                       double izquierda, double x0, double escalaX,
+                       double abajo, double y0, double escalaY) {
+        int ancho = Math.max(1, componente.getWidth());
+        int alto = Math.max(1, componente.getHeight());
+        long primera = ventana.getTotal() - ventana.size();
+        if (imagen == null || imagen.getWidth() != ancho || imagen.getHeight() != alto
+                || primera != this.primera || pixeles != this.pixeles
+                || izquierda != this.izquierda || x0 != this.x0 || escalaX != this.escalaX
+                || abajo != this.abajo || y0 != this.y0 || escalaY != this.escalaY) {
+            GraphicsConfiguration gc = componente.getGraphicsConfiguration();
+            imagen = gc != null
+                    ? gc.createCompatibleImage(ancho, alto, Transparency.TRANSLUCENT)
+                    : new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB);
+            this.primera = primera;
+            this.pixeles = pixeles;
+            this.izquierda = izquierda;
+            this.x0 = x0;
+            this.escalaX = escalaX;
+            this.abajo = abajo;
+            this.y0 = y0;
+            this.escalaY = escalaY;
+            
+            Graphics2D g2 = preparar();
+            int[] puntos = serie.indices(pixeles);
+            for (int j = 1; j < puntos.length; j++) {
+                segmento(g2, ventana.valor(cx, puntos[j-1]), ventana.valor(cy, puntos[j-1]),
+                         ventana.valor(cx, puntos[j]), ventana.valor(cy, puntos[j]));
+            }
+            g2.dispose();
+            siguiente = ventana.getTotal();
+        } else if (siguiente < ventana.getTotal()) {
+            // El segmento de la muestra k la une con la k-1
+            Graphics2D g2 = preparar();
+            for (long k = Math.max(siguiente, primera + 1); k < ventana.getTotal(); k++) {
+                segmento(g2, ventana.valorAbsoluto(cx, k - 1), ventana.valorAbsoluto(cy, k - 1),
+                         ventana.valorAbsoluto(cx, k), ventana.valorAbsoluto(cy, k));
+            }
+            g2.dispose();
+            siguiente = ventana.getTotal();
+        }
+        g.drawImage(imagen, 0, 0, null);
+    }
+    
+    private Graphics2D preparar() {
+        Graphics2D g2 = imagen.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(color);
+        g2.setStroke(trazo);
+        return g2;
+    }
+    
+    private void segmento(Graphics2D g2, double xa, double ya, double xb, double yb) {
+        g2.drawLine((int)(izquierda + (xa - x0) * escalaX), (int)(abajo - (ya - y0) * escalaY),
+                    (int)(izquierda + (xb - x0) * escalaX), (int)(abajo - (yb - y0) * escalaY));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+public class SimulacionMultitasa {
+    // Controlador muestreado: calcula u a partir del estado medido (u se retiene hasta la siguiente muestra)
+    public interface Controlador {
+        void actualizar(double t, double[] x, double[] u);
+    }
+    
+    // Planta continua: avanza x de t0 a t1 con la entrada u constante
+    public interface Planta {
+        void avanzar(double[] x, double[] u, double t0, double t1);
+    }
+    
+    // Registro de resultados en instantes equiespaciados
+    public interface Observador {
+        void muestra(int k, double t, double[] x, double[] u);
+    }
+    
+    // Dinámica con entrada explícita: dx/dt = f(t, x, u)
+    public interface SistemaConEntrada {
+        void derivadas(double t, double[] x, double[] u, double[] dxdt);
+    }
+    
+    private final double periodoControl;
+    private final double periodoRegistro;
+    private final double tolerancia;
+    
+    public SimulacionMultitasa(double periodoControl, double periodoRegistro) {
+        this.periodoControl = periodoControl;
+        this.periodoRegistro = periodoRegistro;
+        this.tolerancia = 1e-9 * Math.min(periodoControl, periodoRegistro);
+    }
+    
+    // Ejecuta la simulación desde t = 0 hasta tFinal (x y u se modifican en el mismo arreglo)
+    public void ejecutar(double[] x, double[] u, double tFinal,
+                         Controlador controlador, Planta planta, Observador observador) {
+        // Los instantes se calculan con contadores enteros para no acumular redondeo
+        long kControl = 0;
+        int kRegistro = 0;
+        double t = 0.0;
+        
+        while (true) {
+            if (kControl * periodoControl <= t + tolerancia) {
+                controlador.actualizar(t, x, u);
+                kControl++;
+            }
+            if (kRegistro * periodoRegistro <= t + tolerancia) {
+                observador.muestra(kRegistro, t, x, u);
+                kRegistro++;
+            }
+            
+            double tSiguiente = Math.min(kControl * periodoControl, kRegistro * periodoRegistro);
+            if (tSiguiente > tFinal + tolerancia) {
+                break;
+            }
+            
+            // Entre eventos la planta avanza con su propio paso y la entrada retenida
+            planta.avanzar(x, u, t, tSiguiente);
+            t = tSiguiente;
+        }
+    }
+    
+    // G(s) = K / (tau^2 s^2 + 2*zeta*tau*s + 1) con ZOH exacto; x = [y, dy/dt]. Con la entrada
+    // retenida el modelo exacto es igual de preciso en un paso que en varios, así que avanza un
+    // solo paso por intervalo entre eventos
+    static class PlantaSegundoOrdenZOH implements Planta {
+        private final double K, tau, zeta;
+        private final double perturbacion;
+        
+        // Modelo del último intervalo: los intervalos entre eventos casi siempre se repiten
+        private DiscretizacionZOH.ModeloZOH modelo;
+        private double hModelo = Double.NaN;
+        
+        PlantaSegundoOrdenZOH(double K, double tau, double zeta, double perturbacion) {
+            this.K = K;
+            this.tau = tau;
+            this.zeta = zeta;
+            this.perturbacion = perturbacion;
+        }
+        
+        @Override
+        public void avanzar(double[] x, double[] u, double t0, double t1) {
+            double h = t1 - t0;
+            // Los instantes salen de contadores enteros: el mismo intervalo solo difiere en unos ulp
+            if (!(Math.abs(h - hModelo) <= 1e-9 * hModelo)) {
+                modelo = DiscretizacionZOH.segundoOrden(K, tau, zeta, h);
+                hModelo = h;
+            }
+            modelo.avanzar(x, u[0], perturbacion);
+        }
+    }
+    
+    // Planta no lineal integrada con Dormand-Prince; el paso se adapta dentro de cada intervalo
+    static class PlantaAdaptativa implements Planta {
+        private final IntegradorDormandPrince integrador;
+        private final double[] uAplicada;
+        
+        PlantaAdaptativa(SistemaConEntrada sistema, int nEstados, int nEntradas, double tolRel, double tolAbs) {
+            this.uAplicada = new double[nEntradas];
+            this.integrador = new IntegradorDormandPrince(
+                    (t, x, dxdt) -> sistema.derivadas(t, x, uAplicada, dxdt), nEstados, tolRel, tolAbs);
+        }
+        
+        @Override
+        public void avanzar(double[] x, double[] u, double t0, double t1) {
+            // Solo se descarta la derivada guardada si la entrada cambió
+            boolean cambio = false;
+            for (int i = 0; i < u.length; i++) {
+                if (u[i] != uAplicada[i]) {
+                    uAplicada[i] = u[i];
+                    cambio = true;
+                }
+            }
+            if (cambio) {
+                integrador.entradaCambiada();
+            }
+            integrador.integrar(x, t0, t1);
+        }
+        
+        IntegradorDormandPrince getIntegrador() {
+            return integrador;
+        }
+    }
+}
\ No newline at end of file
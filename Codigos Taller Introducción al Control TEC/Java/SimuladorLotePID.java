@@ -0,0 +1,307 @@
+public class SimuladorLotePID {
+    // Variantes del controlador
+    public static final int PID_ERROR_TRAPEZOIDAL = 0;   // Derivada del error, integral trapezoidal (C_01, C_extra_01)
+    public static final int PID_MEDICION_FILTRADA = 1;   // Derivada filtrada de la salida, integral rectangular (C_02)
+    
+    // Número de configuraciones que se procesan por bloque (cabe en caché)
+    private static final int TAM_BLOQUE = 1024;
+    
+    private final int tipo;
+    private final int n;
+    
+    // Discretización por diferencias de G(s) = K / (tau^2 s^2 + 2*zeta*tau*s + 1)
+    private final PlantaDiferencias planta;
+    
+    // Discretización exacta (ZOH) opcional: permite pasos mucho mayores
+    private final boolean exacta;
+    private final double phi11, phi12, phi21, phi22;
+    private final double gamma1, gamma2;
+    
+    private final double K, tAmb;
+    private final double dt, referencia, tolerancia, yInicial;
+    private final double uMin, uMax;
+    
+    // Índice de la siguiente muestra a calcular (k = 0 y k = 1 son condiciones iniciales)
+    private int k = 2;
+    
+    // Carriles: un elemento por configuración, en arreglos contiguos
+    final double[] kp, ki, kd;
+    final double[] integral, errorPrev, derivativo;
+    final double[] salida, salidaPrev;
+    final double[] velocidad;
+    final double[] control, error;
+    
+    // Métricas acumuladas en línea
+    final double[] ise, maximo, tEstablecimiento;
+    final double[] tSaturacion;         // tiempo con el actuador en uno de sus límites
+    
+    public SimuladorLotePID(int tipo, double[] kp, double[] ki, double[] kd,
+                            double K, double tau, double zeta, double dt, double tAmb,
+                            double yInicial, double referencia, double uMin, double uMax) {
+        this(tipo, kp, ki, kd, K, tau, zeta, dt, tAmb, yInicial, referencia, uMin, uMax, false);
+    }
+    
+    public SimuladorLotePID(int tipo, double[] kp, double[] ki, double[] kd,
+                            double K, double tau, double zeta, double dt, double tAmb,
+                            double yInicial, double referencia, double uMin, double uMax,
+                            boolean discretizacionExacta) {
+        if (kp.length != ki.length || kp.length != kd.length) {
+            throw new IllegalArgumentException("Los arreglos de ganancias deben tener la misma longitud");
+        }
+        this.tipo = tipo;
+        this.n = kp.length;
+        this.kp = kp.clone();
+        this.ki = ki.clone();
+        this.kd = kd.clone();
+        
+        this.planta = new PlantaDiferencias(K, tau, zeta, dt, tAmb);
+        
+        // Con ZOH se agrupan la entrada y la temperatura ambiente: w = K*u + tAmb
+        this.exacta = discretizacionExacta;
+        DiscretizacionZOH.ModeloZOH zoh = discretizacionExacta
+                ? DiscretizacionZOH.segundoOrden(K, tau, zeta, dt)
+                : new DiscretizacionZOH.ModeloZOH(0, 0, 0, 0, 0, 0, 0, 0);
+        this.phi11 = zoh.phi11;
+        this.phi12 = zoh.phi12;
+        this.phi21 = zoh.phi21;
+        this.phi22 = zoh.phi22;
+        this.gamma1 = zoh.gammaD1;
+        this.gamma2 = zoh.gammaD2;
+        this.K = K;
+        this.tAmb = tAmb;
+        
+        this.dt = dt;
+        this.referencia = referencia;
+        this.tolerancia = 0.02 * referencia;
+        this.yInicial = yInicial;
+        this.uMin = uMin;
+        this.uMax = uMax;
+        
+        integral = new double[n];
+        errorPrev = new double[n];
+        derivativo = new double[n];
+        salida = new double[n];
+        salidaPrev = new double[n];
+        velocidad = new double[n];
+        control = new double[n];
+        error = new double[n];
+        ise = new double[n];
+        maximo = new double[n];
+        tEstablecimiento = new double[n];
+        tSaturacion = new double[n];
+        
+        reiniciar();
+    }
+    
+    // Vuelve todas las configuraciones a las condiciones iniciales
+    public void reiniciar() {
+        k = 2;
+        // Las muestras 0 y 1 valen yInicial: si están fuera de la banda, el
+        // establecimiento no puede ocurrir antes de t[2]
+        double tEstInicial = Math.abs(yInicial - referencia) > tolerancia ? 2 * dt : 0.0;
+        for (int i = 0; i < n; i++) {
+            integral[i] = 0.0;
+            errorPrev[i] = 0.0;
+            derivativo[i] = 0.0;
+            salida[i] = yInicial;
+            salidaPrev[i] = yInicial;
+            velocidad[i] = 0.0;
+            control[i] = 0.0;
+            error[i] = 0.0;
+            ise[i] = 0.0;
+            maximo[i] = yInicial;
+            tEstablecimiento[i] = tEstInicial;
+            tSaturacion[i] = 0.0;
+        }
+    }
+    
+    // Avanza una muestra todas las configuraciones (paso sincronizado)
+    public void avanzar() {
+        avanzarBloque(0, n, k, 1);
+        k++;
+    }
+    
+    // Avanza varias muestras procesando bloques de configuraciones para aprovechar la caché
+    public void simular(int pasos) {
+        for (int desde = 0; desde < n; desde += TAM_BLOQUE) {
+            avanzarBloque(desde, Math.min(desde + TAM_BLOQUE, n), k, pasos);
+        }
+        k += pasos;
+    }
+    
+    private void avanzarBloque(int desde, int hasta, int kInicial, int pasos) {
+        for (int p = 0; p < pasos; p++) {
+            int kActual = kInicial + p;
+            double tSiguiente = (kActual + 1) * dt;
+            // Las decisiones por variante y por modelo de planta se toman fuera de los carriles
+            if (tipo == PID_MEDICION_FILTRADA) {
+                if (exacta) {
+                    pasoMedicionFiltradaZOH(desde, hasta, tSiguiente);
+                } else {
+                    pasoMedicionFiltrada(desde, hasta, tSiguiente);
+                }
+            } else {
+                if (exacta) {
+                    pasoErrorTrapezoidalZOH(desde, hasta, tSiguiente);
+                } else {
+                    pasoErrorTrapezoidal(desde, hasta, tSiguiente);
+                }
+            }
+        }
+    }
+    
+    // Un bucle recto por variante y por planta: sin llamadas ni ramas que dependan del carril
+    // (las condiciones son selecciones y min/max), así C2 puede vectorizarlo. La ley de control es
+    // la de ControladorPID escrita en línea, con las mismas operaciones en el mismo orden
+    private void pasoErrorTrapezoidal(int desde, int hasta, double tSiguiente) {
+        double a1 = -planta.coef_Tk1, a2 = -planta.coef_Tk2, bU = planta.coefU;
+        double c = planta.terminoAmb, den = planta.coef_Tk;
+        for (int i = desde; i < hasta; i++) {
+            double y1 = salida[i];
+            double e = referencia - y1;
+            double ePrev = errorPrev[i];
+            
+            double incremento = (e + ePrev) * dt / 2;
+            double integ = integral[i] + incremento;
+            double u = Math.max(Math.min(kp[i] * e + ki[i] * integ + kd[i] * ((e - ePrev) / dt), uMax), uMin);
+            boolean saturado = u >= uMax | u <= uMin;
+            integral[i] = saturado ? integ - incremento : integ;
+            errorPrev[i] = e;
+            tSaturacion[i] += saturado ? dt : 0.0;
+            
+            double y = (a1 * y1 + a2 * salidaPrev[i] + bU * u + c) / den;
+            salidaPrev[i] = y1;
+            salida[i] = y;
+            control[i] = u;
+            error[i] = e;
+            
+            ise[i] += e * e * dt;
+            maximo[i] = Math.max(maximo[i], y);
+            tEstablecimiento[i] = Math.abs(y - referencia) > tolerancia ? tSiguiente : tEstablecimiento[i];
+        }
+    }
+    
+    private void pasoErrorTrapezoidalZOH(int desde, int hasta, double tSiguiente) {
+        for (int i = desde; i < hasta; i++) {
+            double y1 = salida[i];
+            double e = referencia - y1;
+            double ePrev = errorPrev[i];
+            
+            double incremento = (e + ePrev) * dt / 2;
+            double integ = integral[i] + incremento;
+            double u = Math.max(Math.min(kp[i] * e + ki[i] * integ + kd[i] * ((e - ePrev) / dt), uMax), uMin);
+            boolean saturado = u >= uMax | u <= uMin;
+            integral[i] = saturado ? integ - incremento : integ;
+            errorPrev[i] = e;
+            tSaturacion[i] += saturado ? dt : 0.0;
+            
+            double w = K * u + tAmb;
+            double v = velocidad[i];
+            double y = phi11 * y1 + phi12 * v + gamma1 * w;
+            velocidad[i] = phi21 * y1 + phi22 * v + gamma2 * w;
+            salidaPrev[i] = y1;
+            salida[i] = y;
+            control[i] = u;
+            error[i] = e;
+            
+            ise[i] += e * e * dt;
+            maximo[i] = Math.max(maximo[i], y);
+            tEstablecimiento[i] = Math.abs(y - referencia) > tolerancia ? tSiguiente : tEstablecimiento[i];
+        }
+    }
+    
+    // Variante de C_02: integral rectangular y derivada de la medición filtrada
+    private void pasoMedicionFiltrada(int desde, int hasta, double tSiguiente) {
+        double a1 = -planta.coef_Tk1, a2 = -planta.coef_Tk2, bU = planta.coefU;
+        double c = planta.terminoAmb, den = planta.coef_Tk;
+        for (int i = desde; i < hasta; i++) {
+            double y1 = salida[i];
+            double e = referencia - y1;
+            double yPrev = salidaPrev[i];
+            
+            double incremento = e * dt;
+            double integ = integral[i] + incremento;
+            double deriv = 0.8 * derivativo[i] + 0.2 * ((y1 - yPrev) / dt);
+            double u = Math.max(Math.min(kp[i] * e + ki[i] * integ + -kd[i] * deriv, uMax), uMin);
+            boolean saturado = u >= uMax | u <= uMin;
+            integral[i] = saturado ? integ - incremento : integ;
+            derivativo[i] = deriv;
+            tSaturacion[i] += saturado ? dt : 0.0;
+            
+            double y = (a1 * y1 + a2 * yPrev + bU * u + c) / den;
+            salidaPrev[i] = y1;
+            salida[i] = y;
+            control[i] = u;
+            error[i] = e;
+            
+            ise[i] += e * e * dt;
+            maximo[i] = Math.max(maximo[i], y);
+            tEstablecimiento[i] = Math.abs(y - referencia) > tolerancia ? tSiguiente : tEstablecimiento[i];
+        }
+    }
+    
+    private void pasoMedicionFiltradaZOH(int desde, int hasta, double tSiguiente) {
+        for (int i = desde; i < hasta; i++) {
+            double y1 = salida[i];
+            double e = referencia - y1;
+            
+            double incremento = e * dt;
+            double integ = integral[i] + incremento;
+            double deriv = 0.8 * derivativo[i] + 0.2 * ((y1 - salidaPrev[i]) / dt);
+            double u = Math.max(Math.min(kp[i] * e + ki[i] * integ + -kd[i] * deriv, uMax), uMin);
+            boolean saturado = u >= uMax | u <= uMin;
+            integral[i] = saturado ? integ - incremento : integ;
+            derivativo[i] = deriv;
+            tSaturacion[i] += saturado ? dt : 0.0;
+            
+            double w = K * u + tAmb;
+            double v = velocidad[i];
+            double y = phi11 * y1 + phi12 * v + gamma1 * w;
+            velocidad[i] = phi21 * y1 + phi22 * v + gamma2 * w;
+            salidaPrev[i] = y1;
+            salida[i] = y;
+            control[i] = u;
+            error[i] = e;
+            
+            ise[i] += e * e * dt;
+            maximo[i] = Math.max(maximo[i], y);
+            tEstablecimiento[i] = Math.abs(y - referencia) > tolerancia ? tSiguiente : tEstablecimiento[i];
+        }
+    }
+    
+    // Planta de segundo orden discretizada por diferencias hacia atrás: y[k+1] a partir de y[k],
+    // y[k-1] y u[k]. La comparten los carriles de este simulador y MonteCarloRobustezPID
+    static final class PlantaDiferencias {
+        final double coef_Tk, coef_Tk1, coef_Tk2;
+        final double coefU, terminoAmb;
+        
+        PlantaDiferencias(double K, double tau, double zeta, double dt, double tAmb) {
+            coef_Tk = 1/(dt*dt) + (2*zeta)/(tau*dt) + 1/(tau*tau);
+            coef_Tk1 = -2/(dt*dt) - (2*zeta)/(tau*dt);
+            coef_Tk2 = 1/(dt*dt);
+            coefU = K/(tau*tau);
+            terminoAmb = (1/(tau*tau)) * tAmb;
+        }
+        
+        double siguiente(double y1, double yPrev, double u) {
+            return (-coef_Tk1 * y1 - coef_Tk2 * yPrev + coefU * u + terminoAmb) / coef_Tk;
+        }
+    }
+    
+    // Tiempo de establecimiento (2%) limitado al final de la simulación
+    public double tiempoEstablecimiento(int i) {
+        return Math.min(tEstablecimiento[i], (k - 1) * dt);
+    }
+    
+    public double sobrepico(int i) {
+        return Math.max(0, maximo[i] - referencia);
+    }
+    
+    public int getNumeroConfiguraciones() {
+        return n;
+    }
+    
+    public int getMuestraActual() {
+        return k;
+    }
+}
\ No newline at end of file
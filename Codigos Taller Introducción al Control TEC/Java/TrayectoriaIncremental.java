@@ -0,0 +1,76 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class TrayectoriaIncremental {
+    // Puntos de la trayectoria en arreglos primitivos (sin un objeto por punto). La capacidad es
+    // fija: al llenarse se descarta la mitad más antigua, así la memoria no crece con la simulación
+    private final double[] xs, ys;
+    private int n = 0;
+    
+    // Imagen con los segmentos ya dibujados: cada cuadro solo agrega los nuevos
+    private BufferedImage imagen;
+    private int dibujados = 0;
+    private int origenX, origenY;
+    private double escala;
+    
+    public TrayectoriaIncremental(int capacidad) {
+        xs = new double[Math.max(4, capacidad)];
+        ys = new double[xs.length];
+    }
+    
+    public void agregar(double x, double y) {
+        if (n == xs.length) {
+            // Se conserva la mitad más reciente y la imagen se redibuja en el próximo cuadro
+            // (una vez cada capacidad/2 puntos: sigue siendo O(1) amortizado por punto)
+            int mitad = n / 2;
+            System.arraycopy(xs, n - mitad, xs, 0, mitad);
+            System.arraycopy(ys, n - mitad, ys, 0, mitad);
+            n = mitad;
+            imagen = null;
+        }
+        xs[n] = x;
+        ys[n] = y;
+        n++;
+    }
+    
+    public int size() {
+        return n;
+    }
+    
+    public void limpiar() {
+        n = 0;
+        imagen = null;
+    }
+    
+    // Dibuja los segmentos nuevos en la imagen y la copia en g. Un punto (x, y) se dibuja en
+    // (origenX + x*escala, origenY - y*escala); si cambia el tamaño o la escala se redibuja todo
+    public void pintar(Component componente, Graphics g, int origenX, int origenY, double escala, Color color) {
+        int ancho = Math.max(1, componente.getWidth());
+        int alto = Math.max(1, componente.getHeight());
+        if (imagen == null || imagen.getWidth() != ancho || imagen.getHeight() != alto
+                || origenX != this.origenX || origenY != this.origenY || escala != this.escala) {
+            GraphicsConfiguration gc = componente.getGraphicsConfiguration();
+            imagen = gc != null
+                    ? gc.createCompatibleImage(ancho, alto, Transparency.TRANSLUCENT)
+                    : new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB);
+            this.origenX = origenX;
+            this.origenY = origenY;
+            this.escala = escala;
+            dibujados = 0;
+        }
+        
+        if (dibujados < n - 1) {
+            Graphics2D g2 = imagen.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(color);
+            // El segmento i une los puntos i-1 e i
+            for (int i = dibujados + 1; i < n; i++) {
+                g2.drawLine(origenX + (int)(xs[i-1] * escala), origenY - (int)(ys[i-1] * escala),
+                            origenX + (int)(xs[i] * escala), origenY - (int)(ys[i] * escala));
+            }
+            g2.dispose();
+            dibujados = n - 1;
+        }
+        g.drawImage(imagen, 0, 0, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,301 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+public class TrazaBinaria {
+    // Formato (little-endian):
+    //   [0, 64)    cabecera fija: "TRZ1", versión, nº de columnas, capacidad, nº de muestras
+    //   [64, D)    nombres de columna, 32 bytes UTF-8 cada uno (rellenos con ceros)
+    //   [D, ...)   una columna contigua de doubles por señal, cada una de 'capacidad' muestras
+    private static final int MAGICO = 0x315A5254;          // "TRZ1"
+    private static final int VERSION = 1;
+    private static final int TAM_CABECERA = 64;
+    private static final int TAM_NOMBRE = 32;
+    private static final int POS_CAPACIDAD = 16;
+    private static final int POS_MUESTRAS = 24;
+    
+    // Cada columna se mapea en segmentos de 2^27 muestras (1 GiB): un MappedByteBuffer
+    // no puede pasar de 2 GiB
+    private static final int BITS_SEGMENTO = 27;
+    private static final long MUESTRAS_SEGMENTO = 1L << BITS_SEGMENTO;
+    private static final long MASCARA_SEGMENTO = MUESTRAS_SEGMENTO - 1;
+    
+    private static long inicioDatos(int nColumnas) {
+        return TAM_CABECERA + (long) nColumnas * TAM_NOMBRE;
+    }
+    
+    private static MappedByteBuffer[][] mapearColumnas(FileChannel canal, FileChannel.MapMode modo,
+                                                       int nColumnas, long capacidad) throws IOException {
+        int nSegmentos = (int) Math.max(1, (capacidad + MUESTRAS_SEGMENTO - 1) >>> BITS_SEGMENTO);
+        MappedByteBuffer[][] columnas = new MappedByteBuffer[nColumnas][nSegmentos];
+        for (int c = 0; c < nColumnas; c++) {
+            long base = inicioDatos(nColumnas) + (long) c * capacidad * 8;
+            for (int s = 0; s < nSegmentos; s++) {
+                long muestras = Math.min(MUESTRAS_SEGMENTO, capacidad - (long) s * MUESTRAS_SEGMENTO);
+                columnas[c][s] = canal.map(modo, base + (long) s * MUESTRAS_SEGMENTO * 8, muestras * 8);
+                columnas[c][s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        return columnas;
+    }
+    
+    // Escritura: el archivo se dimensiona con la capacidad y se escribe directamente en la memoria mapeada
+    public static class Escritor implements Closeable {
+        private final FileChannel canal;
+        private final MappedByteBuffer cabecera;
+        private final MappedByteBuffer[][] columnas;
+        private final int nColumnas;
+        private final long capacidad;
+        private long muestras = 0;
+        
+        public Escritor(String archivo, String[] nombres, long capacidad) throws IOException {
+            this.nColumnas = nombres.length;
+            this.capacidad = capacidad;
+            // Los nombres se validan antes de abrir: un error no deja el archivo truncado a medias
+            byte[][] bytesNombres = new byte[nColumnas][];
+            for (int c = 0; c < nColumnas; c++) {
+                bytesNombres[c] = nombres[c].getBytes(StandardCharsets.UTF_8);
+                if (bytesNombres[c].length > TAM_NOMBRE) {
+                    throw new IllegalArgumentException("Nombre de columna demasiado largo: " + nombres[c]);
+                }
+            }
+            
+            this.canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                cabecera = canal.map(FileChannel.MapMode.READ_WRITE, 0, inicioDatos(nColumnas));
+                cabecera.order(ByteOrder.LITTLE_ENDIAN);
+                cabecera.putInt(0, MAGICO);
+                cabecera.putInt(4, VERSION);
+                cabecera.putInt(8, nColumnas);
+                cabecera.putLong(POS_CAPACIDAD, capacidad);
+                cabecera.putLong(POS_MUESTRAS, 0);
+                for (int c = 0; c < nColumnas; c++) {
+                    cabecera.position(TAM_CABECERA + c * TAM_NOMBRE);
+                    cabecera.put(bytesNombres[c]);
+                }
+                
+                columnas = mapearColumnas(canal, FileChannel.MapMode.READ_WRITE, nColumnas, capacidad);
+            } catch (IOException | RuntimeException e) {
+                canal.close();
+                throw e;
+            }
+        }
+        
+        // Agrega una muestra (un valor por columna)
+        public void agregar(double[] fila) {
+            if (muestras >= capacidad) {
+                throw new IllegalStateException("Capacidad de la traza agotada (" + capacidad + " muestras)");
+            }
+            int s = (int) (muestras >>> BITS_SEGMENTO);
+            int pos = (int) (muestras & MASCARA_SEGMENTO) << 3;
+            for (int c = 0; c < nColumnas; c++) {
+                columnas[c][s].putDouble(pos, fila[c]);
+            }
+            muestras++;
+            cabecera.putLong(POS_MUESTRAS, muestras);
+        }
+        
+        // Escribe columnas completas de una vez (copia en bloque, sin recorrer muestra a muestra)
+        public void escribirColumnas(double[]... datos) {
+            if (datos.length != nColumnas) {
+                throw new IllegalArgumentException("Se esperaban " + nColumnas + " columnas");
+            }
+            int n = datos[0].length;
+            if (muestras + n > capacidad) {
+                throw new IllegalStateException("Capacidad de la traza agotada (" + capacidad + " muestras)");
+            }
+            for (int c = 0; c < nColumnas; c++) {
+                long i = muestras;
+                int copiadas = 0;
+                while (copiadas < n) {
+                    int s = (int) (i >>> BITS_SEGMENTO);
+                    int pos = (int) (i & MASCARA_SEGMENTO);
+                    int cantidad = (int) Math.min(n - copiadas, MUESTRAS_SEGMENTO - pos);
+                    ByteBuffer b = columnas[c][s].duplicate();
+                    b.position(pos << 3);
+                    b.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(datos[c], copiadas, cantidad);
+                    copiadas += cantidad;
+                    i += cantidad;
+                }
+            }
+            muestras += n;
+            cabecera.putLong(POS_MUESTRAS, muestras);
+        }
+        
+        public long getMuestras() {
+            return muestras;
+        }
+        
+        // El número de muestras se actualiza después de cada fila o bloque completo: si el proceso se
+        // corta, la traza (aún con la capacidad reservada) se lee hasta la última muestra escrita.
+        // Al cerrar, las columnas se compactan a las muestras escritas y el archivo se recorta
+        @Override
+        public void close() throws IOException {
+            try {
+                if (muestras < capacidad) {
+                    compactar();
+                    cabecera.putLong(POS_CAPACIDAD, muestras);
+                    cabecera.putLong(POS_MUESTRAS, muestras);
+                }
+                try {
+                    canal.truncate(inicioDatos(nColumnas) + (long) nColumnas * muestras * 8);
+                } catch (IOException e) {
+                    // Algunos sistemas no recortan un archivo que sigue mapeado: los bytes sobrantes
+                    // quedan después de la última columna y el lector no los usa
+                }
+            } finally {
+                canal.close();
+            }
+        }
+        
+        // Mueve cada columna c > 0 de base + c*capacidad a base + c*muestras. El destino nunca está
+        // después del origen, así que copiar por bloques en orden creciente no pisa datos sin leer
+        private void compactar() throws IOException {
+            ByteBuffer bloque = ByteBuffer.allocateDirect(1 << 20);
+            long bytes = muestras * 8;
+            for (int c = 1; c < nColumnas; c++) {
+                long origen = inicioDatos(nColumnas) + (long) c * capacidad * 8;
+                long destino = inicioDatos(nColumnas) + (long) c * bytes;
+                for (long hecho = 0; hecho < bytes; ) {
+                    bloque.clear();
+                    bloque.limit((int) Math.min(bloque.capacity(), bytes - hecho));
+                    while (bloque.hasRemaining()) {
+                        if (canal.read(bloque, origen + hecho + bloque.position()) < 0) {
+                            throw new EOFException("Traza más corta que su capacidad");
+                        }
+                    }
+                    bloque.flip();
+                    while (bloque.hasRemaining()) {
+                        canal.write(bloque, destino + hecho + bloque.position());
+                    }
+                    hecho += bloque.limit();
+                }
+            }
+        }
+    }
+    
+    // Lectura: las columnas se mapean en solo lectura y se acceden sin copiar ni analizar texto
+    public static class Lector implements Closeable {
+        private final FileChannel canal;
+        private final MappedByteBuffer[][] columnas;
+        private final String[] nombres;
+        private final long capacidad;
+        private final long muestras;
+        
+        public Lector(String archivo) throws IOException {
+            canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ);
+            
+            MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAM_CABECERA);
+            cabecera.order(ByteOrder.LITTLE_ENDIAN);
+            if (cabecera.getInt(0) != MAGICO || cabecera.getInt(4) != VERSION) {
+                canal.close();
+                throw new IOException("El archivo no es una traza binaria válida: " + archivo);
+            }
+            int nColumnas = cabecera.getInt(8);
+            capacidad = cabecera.getLong(POS_CAPACIDAD);
+            muestras = cabecera.getLong(POS_MUESTRAS);
+            
+            MappedByteBuffer bloqueNombres = canal.map(FileChannel.MapMode.READ_ONLY, TAM_CABECERA,
+                    (long) nColumnas * TAM_NOMBRE);
+            nombres = new String[nColumnas];
+            byte[] nombre = new byte[TAM_NOMBRE];
+            for (int c = 0; c < nColumnas; c++) {
+                bloqueNombres.get(nombre);
+                int largo = 0;
+                while (largo < TAM_NOMBRE && nombre[largo] != 0) {
+                    largo++;
+                }
+                nombres[c] = new String(nombre, 0, largo, StandardCharsets.UTF_8);
+            }
+            
+            columnas = mapearColumnas(canal, FileChannel.MapMode.READ_ONLY, nColumnas, capacidad);
+        }
+        
+        public int getNumeroColumnas() {
+            return nombres.length;
+        }
+        
+        public String getNombre(int c) {
+            return nombres[c];
+        }
+        
+        public int indice(String nombre) {
+            for (int c = 0; c < nombres.length; c++) {
+                if (nombres[c].equals(nombre)) {
+                    return c;
+                }
+            }
+            throw new IllegalArgumentException("Columna inexistente: " + nombre);
+        }
+        
+        public long getMuestras() {
+            return muestras;
+        }
+        
+        public double valor(int c, long i) {
+            return columnas[c][(int) (i >>> BITS_SEGMENTO)].getDouble((int) (i & MASCARA_SEGMENTO) << 3);
+        }
+        
+        // Vista directa (sin copia) de un segmento de la columna; el segmento 0 contiene
+        // la columna completa cuando tiene menos de 2^27 muestras
+        public DoubleBuffer columna(int c, int segmento) {
+            long desde = (long) segmento * MUESTRAS_SEGMENTO;
+            int n = (int) Math.max(0, Math.min(MUESTRAS_SEGMENTO, muestras - desde));
+            ByteBuffer b = columnas[c][segmento].duplicate();
+            b.limit(n << 3);
+            return b.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        
+        public DoubleBuffer columna(int c) {
+            if (muestras > MUESTRAS_SEGMENTO) {
+                throw new IllegalStateException("La columna ocupa varios segmentos; use columna(c, segmento)");
+            }
+            return columna(c, 0);
+        }
+        
+        // Copia un rango de la columna a un arreglo (para quien necesite double[])
+        public void leer(int c, long desde, double[] destino, int offset, int n) {
+            int copiadas = 0;
+            while (copiadas < n) {
+                long i = desde + copiadas;
+                int s = (int) (i >>> BITS_SEGMENTO);
+                int pos = (int) (i & MASCARA_SEGMENTO);
+                int cantidad = (int) Math.min(n - copiadas, MUESTRAS_SEGMENTO - pos);
+                DoubleBuffer origen = columna(c, s);
+                origen.position(pos);
+                origen.get(destino, offset + copiadas, cantidad);
+                copiadas += cantidad;
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+    
+    // Resumen de una traza: columnas, número de muestras y rango de cada señal
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Uso: java TrazaBinaria archivo.trz");
+            return;
+        }
+        try (Lector lector = new Lector(args[0])) {
+            System.out.println("=== TRAZA BINARIA ===");
+            System.out.printf("Archivo: %s\n", args[0]);
+            System.out.printf("Muestras: %d, columnas: %d\n", lector.getMuestras(), lector.getNumeroColumnas());
+            for (int c = 0; c < lector.getNumeroColumnas(); c++) {
+                double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+                for (long i = 0; i < lector.getMuestras(); i++) {
+                    double v = lector.valor(c, i);
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                System.out.printf("  %-16s min = %12.5g  max = %12.5g\n", lector.getNombre(c), min, max);
+            }
+        }
+    }
+}
\ No newline at end of file
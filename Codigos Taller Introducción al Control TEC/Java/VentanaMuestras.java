@@ -0,0 +1,70 @@
+public class VentanaMuestras {
+    // Últimas 'capacidad' muestras de una simulación en vivo, una columna circular por variable.
+    // Las vistas dibujan esta ventana en lugar de las series completas: la memoria queda acotada
+    // por la capacidad sin importar la duración de la simulación
+    private final double[][] columnas;
+    private final int mascara;
+    private long total = 0;
+    
+    public VentanaMuestras(int capacidad, int ancho) {
+        // Capacidad redondeada a potencia de 2 para indexar con una máscara
+        int c = Integer.highestOneBit(Math.max(1, capacidad - 1)) << 1;
+        this.columnas = new double[ancho][c];
+        this.mascara = c - 1;
+    }
+    
+    public int getCapacidad() {
+        return mascara + 1;
+    }
+    
+    // Agrega una muestra (un valor por columna); si la ventana está llena se pisa la más antigua
+    public void agregar(double[] fila) {
+        int pos = (int)(total & mascara);
+        for (int c = 0; c < columnas.length; c++) {
+            columnas[c][pos] = fila[c];
+        }
+        total++;
+    }
+    
+    // Muestras agregadas desde el principio (incluye las que ya salieron de la ventana)
+    public long getTotal() {
+        return total;
+    }
+    
+    // Muestras disponibles en la ventana
+    public int size() {
+        return (int) Math.min(total, mascara + 1);
+    }
+    
+    // Posición en las columnas de la muestra más antigua de la ventana
+    public int getInicio() {
+        return (int)((total - size()) & mascara);
+    }
+    
+    public int getMascara() {
+        return mascara;
+    }
+    
+    // Valor de la columna c en la muestra i de la ventana (0 = la más antigua)
+    public double valor(int c, int i) {
+        return columnas[c][(getInicio() + i) & mascara];
+    }
+    
+    // Valor de la columna c en la muestra número k desde el principio; k debe seguir en la ventana
+    public double valorAbsoluto(int c, long k) {
+        return columnas[c][(int)(k & mascara)];
+    }
+    
+    public double ultimo(int c) {
+        return columnas[c][(int)((total - 1) & mascara)];
+    }
+    
+    // Columna circular completa (para SerieDecimada, que la recorre con getInicio y getMascara)
+    public double[] columna(int c) {
+        return columnas[c];
+    }
+    
+    public void limpiar() {
+        total = 0;
+    }
+}
\ No newline at end of file